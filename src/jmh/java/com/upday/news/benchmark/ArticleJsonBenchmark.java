@@ -0,0 +1,76 @@
+package com.upday.news.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.upday.news.model.Article;
+
+/**
+ * Measures the Jackson serialization and deserialization of a complete {@link Article} - the body of
+ * /article/display, create and update - for short, typical and long article texts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArticleJsonBenchmark {
+
+    /**
+     * The length of the article text in characters.
+     */
+    @Param({"500", "5000", "50000"})
+    int textLength;
+
+    private ObjectWriter writer;
+
+    private ObjectReader reader;
+
+    private Article article;
+
+    private byte[] json;
+
+    @Setup
+    public void createArticle() throws IOException {
+
+        // configured like the ObjectMapper of the application (Spring Boot defaults)
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        writer = objectMapper.writerFor(Article.class);
+        reader = objectMapper.readerFor(Article.class);
+
+        article = BenchmarkArticles.create(42, textLength);
+        article.setArticleId("5c41e5a1a7b11b0001a5c0de");
+        article.setVersion(3L);
+        json = writer.writeValueAsBytes(article);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(article);
+    }
+
+    @Benchmark
+    public Article deserialize() throws IOException {
+        return reader.readValue(json);
+    }
+}
@@ -0,0 +1,142 @@
+package com.upday.news.benchmark;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.upday.news.NewsApplication;
+import com.upday.news.model.Article;
+import com.upday.news.model.ArticlePage;
+import com.upday.news.model.ArticleSummary;
+import com.upday.news.model.BulkItemResult;
+import com.upday.news.service.ArticleService;
+
+/**
+ * Measures the finders of the {@link ArticleService} against the embedded Mongo database of the application,
+ * filled with 10k, 100k and 1M articles. Every article has two of 1000 authors and three keywords; one article
+ * is published per minute.
+ * The article cache and the in-process indexes are switched off, so every call goes to the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class ArticleServiceBenchmark {
+
+    private static final int TEXT_LENGTH = 1000;
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final long ONE_DAY = 24 * 60 * 60 * 1000L;
+
+    @Param({"10000", "100000", "1000000"})
+    int articleCount;
+
+    private ConfigurableApplicationContext context;
+
+    private ArticleService articleService;
+
+    private String[] articleIds;
+
+    /**
+     * Starts the application without web server and fills the database. Takes a few minutes for 1M articles.
+     */
+    @Setup(Level.Trial)
+    public void startApplication() {
+
+        context = new SpringApplicationBuilder(NewsApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "news.cache.enabled=false",
+                        "news.index.enabled=false",
+                        "news.index.full-text-enabled=false")
+                .run();
+        articleService = context.getBean(ArticleService.class);
+
+        List<BulkItemResult> results = articleService.bulkCreate(new Iterator<Article>() {
+
+            private int number;
+
+            @Override
+            public boolean hasNext() {
+                return number < articleCount;
+            }
+
+            @Override
+            public Article next() {
+                return BenchmarkArticles.create(number++, TEXT_LENGTH);
+            }
+        });
+        articleIds = results.stream()
+                .map(BulkItemResult::getArticleId)
+                .toArray(String[]::new);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public Article findById() {
+        return articleService.findById(articleIds[ThreadLocalRandom.current().nextInt(articleIds.length)]);
+    }
+
+    @Benchmark
+    public List<ArticleSummary> findByAuthor() {
+        return articleService.findByAuthor(BenchmarkArticles.author(randomNumber()));
+    }
+
+    @Benchmark
+    public ArticlePage<ArticleSummary> findPageByAuthor() {
+        return articleService.findPageByAuthor(BenchmarkArticles.author(randomNumber()), null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<ArticleSummary> findByKeyword() {
+        return articleService.findByKeyword(BenchmarkArticles.keyword(randomNumber()));
+    }
+
+    @Benchmark
+    public ArticlePage<ArticleSummary> findPageByKeyword() {
+        return articleService.findPageByKeyword(BenchmarkArticles.keyword(randomNumber()), null, PAGE_SIZE);
+    }
+
+    /**
+     * One day - 1440 articles.
+     */
+    @Benchmark
+    public List<ArticleSummary> findByPublishDateBetween() {
+
+        long from = BenchmarkArticles.FIRST_PUBLISH_DATE
+                + randomNumber() * BenchmarkArticles.PUBLISH_INTERVAL;
+        return articleService.findByPublishDateBetween(new Date(from), new Date(from + ONE_DAY));
+    }
+
+    private int randomNumber() {
+        return ThreadLocalRandom.current().nextInt(articleCount);
+    }
+}
@@ -0,0 +1,64 @@
+package com.upday.news.benchmark;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import com.upday.news.model.Article;
+
+/**
+ * Creates reproducible test articles for the benchmarks.
+ */
+final class BenchmarkArticles {
+
+    static final int AUTHOR_COUNT = 1000;
+
+    static final int KEYWORD_COUNT = 200;
+
+    /**
+     * The publish date of the first article. Every further article is published one minute later.
+     */
+    static final long FIRST_PUBLISH_DATE = 1546300800000L;
+
+    static final long PUBLISH_INTERVAL = 60_000L;
+
+    private static final String WORDS = "The election results were announced on Sunday evening after a long count "
+            + "in all districts of the country, and the new government is expected to take office next month. ";
+
+    private BenchmarkArticles() {
+    }
+
+    /**
+     * @param number     the number of the article - determines authors, keywords and publish date
+     * @param textLength the length of the article text in characters
+     * @return a valid article without articleId
+     */
+    static Article create(int number, int textLength) {
+
+        Article article = new Article();
+        article.setHeader("Header of article " + number);
+        article.setShortDescription("A short description of article " + number + ". " + WORDS);
+        article.setText(text(textLength));
+        article.setPublishDate(new Date(FIRST_PUBLISH_DATE + number * PUBLISH_INTERVAL));
+        article.setAuthors(Arrays.asList(author(number), author(number * 7 + 3)));
+        article.setKeywords(Arrays.asList(keyword(number), keyword(number * 13 + 5), "news"));
+        return article;
+    }
+
+    static String author(int number) {
+        return "author" + (number % AUTHOR_COUNT);
+    }
+
+    static String keyword(int number) {
+        return "keyword" + (number % KEYWORD_COUNT);
+    }
+
+    private static String text(int length) {
+
+        StringBuilder text = new StringBuilder(length + WORDS.length());
+        while (text.length() < length) {
+            text.append(WORDS);
+        }
+        text.setLength(length);
+        return text.toString();
+    }
+}
@@ -0,0 +1,101 @@
+package com.upday.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Measures the sequential, parallel and streaming (json) flatten methods of {@link ArrayUtil} for flat and
+ * deeply nested arrays of different sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArrayUtilBenchmark {
+
+    /**
+     * The number of integers in the array.
+     */
+    @Param({"100", "10000", "1000000"})
+    int size;
+
+    /**
+     * The nesting depth - 1 is a flat array.
+     */
+    @Param({"1", "16", "256"})
+    int depth;
+
+    private List<Object> array;
+
+    private byte[] json;
+
+    /**
+     * Creates an array of the given size and depth: every level holds an equal share of the integers and the
+     * next level as its last element, e.g. [1, 2, [3, 4, [5, 6]]].
+     */
+    @Setup
+    public void createArray() throws IOException {
+
+        array = new ArrayList<>();
+        List<Object> level = array;
+        int value = 0;
+        for (int d = 1; d <= depth; d++) {
+            int end = (int) ((long) size * d / depth);
+            while (value < end) {
+                level.add(value++);
+            }
+            if (d < depth) {
+                List<Object> next = new ArrayList<>();
+                level.add(next);
+                level = next;
+            }
+        }
+        json = new ObjectMapper().writeValueAsBytes(array);
+    }
+
+    @Benchmark
+    public List<Integer> flattenArray() {
+
+        List<Integer> result = new ArrayList<>();
+        ArrayUtil.flattenArray(array, result);
+        return result;
+    }
+
+    @Benchmark
+    public int[] flattenToPrimitiveArray() {
+        return ArrayUtil.flattenArray(array);
+    }
+
+    @Benchmark
+    public int[] flattenArrayParallel() {
+        return ArrayUtil.flattenArrayParallel(array);
+    }
+
+    @Benchmark
+    public long flattenJsonArray() throws IOException {
+
+        try (IntStream values = ArrayUtil.flattenJsonArray(new ByteArrayInputStream(json))) {
+            return values.asLongStream().sum();
+        }
+    }
+}
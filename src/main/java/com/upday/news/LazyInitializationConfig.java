@@ -0,0 +1,32 @@
+package com.upday.news;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Creates all beans on first use instead of at startup (news.lazy-initialization=true) - the application starts
+ * faster, the first requests are slower. Post processors, runners and listeners are still created at startup, as
+ * the context looks them up by type.
+ */
+@Configuration
+@ConditionalOnProperty(name = "news.lazy-initialization", havingValue = "true")
+public class LazyInitializationConfig {
+
+    /**
+     * Static, as it must be created before the other beans of this configuration.
+     *
+     * @return the post processor that marks all bean definitions as lazy
+     */
+    @Bean
+    public static BeanFactoryPostProcessor lazyInitializationBeanFactoryPostProcessor() {
+        return beanFactory -> {
+            for (String beanName : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition beanDefinition = beanFactory.getBeanDefinition(beanName);
+                beanDefinition.setLazyInit(true);
+            }
+        };
+    }
+}
@@ -1,25 +1,17 @@
 package com.upday.news;
 
-import org.jsondoc.spring.boot.starter.EnableJSONDoc;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
-import org.springframework.data.mongodb.core.mapping.event.ValidatingMongoEventListener;
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 
 @SpringBootApplication
-@EnableJSONDoc
 public class NewsApplication {
 
     public static void main(String[] args) {
         SpringApplication.run(NewsApplication.class, args);
     }
 
-    @Bean
-    public ValidatingMongoEventListener validatingMongoEventListener() {
-        return new ValidatingMongoEventListener(validator());
-    }
-
     @Bean
     public LocalValidatorFactoryBean validator() {
         return new LocalValidatorFactoryBean();
@@ -0,0 +1,111 @@
+package com.upday.news.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.upday.news.model.Article;
+
+/**
+ * A read-through cache for single articles, keyed by articleId. If the cache is disabled in the configuration,
+ * all methods are no-ops and every lookup is a miss.
+ * A reader takes a {@link #stamp(String)} before it loads an article and puts it with this stamp: if the article
+ * was invalidated in the meantime, the loaded article may be older than the stored one and is not cached.
+ */
+@Component
+public class ArticleCache {
+
+    private Logger log = LoggerFactory.getLogger(getClass());
+
+    private final BoundedCache<String, Article> cache;
+
+    private final InvalidationGenerations generations = new InvalidationGenerations();
+
+    /**
+     * Constructor.
+     *
+     * @param properties the cache configuration
+     */
+    @Autowired
+    public ArticleCache(ArticleCacheProperties properties) {
+
+        if (properties.isEnabled()) {
+            cache = new BoundedCache<>(properties.getMaxSize(), properties.getTtl().toMillis());
+            log.info("Article cache enabled: maxSize={}, ttl={}", properties.getMaxSize(), properties.getTtl());
+        } else {
+            cache = null;
+            log.info("Article cache disabled.");
+        }
+    }
+
+    /**
+     * @return true if articles are cached at all
+     */
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * Returns the cached article.
+     *
+     * @param articleId the id of the article
+     * @return the article or null if it is not cached
+     */
+    public Article get(String articleId) {
+        return cache == null ? null : cache.get(articleId);
+    }
+
+    /**
+     * Must be called before the article is loaded.
+     *
+     * @param articleId the id of the article
+     * @return the stamp to pass to {@link #put(Article, long)}
+     */
+    public long stamp(String articleId) {
+        return generations.stamp(articleId);
+    }
+
+    /**
+     * Adds an article to the cache - unless it was invalidated since the stamp was taken.
+     *
+     * @param article an article including its articleId
+     * @param stamp   the stamp taken before the article was loaded
+     */
+    public void put(Article article, long stamp) {
+        if (cache != null) {
+            cache.putIf(article.getArticleId(), article,
+                    () -> generations.isCurrent(article.getArticleId(), stamp));
+        }
+    }
+
+    /**
+     * Removes an article from the cache - must be called whenever an article is changed or deleted, after the
+     * change is stored.
+     *
+     * @param articleId the id of the article
+     */
+    public void invalidate(String articleId) {
+        if (cache != null) {
+            generations.advance(articleId);
+            cache.invalidate(articleId);
+        }
+    }
+
+    /**
+     * Removes all articles from the cache - e.g. if changes of other instances were missed.
+     */
+    public void invalidateAll() {
+        if (cache != null) {
+            generations.advanceAll();
+            cache.invalidateAll();
+        }
+    }
+
+    /**
+     * @return the current cache counters - all zero if the cache is disabled
+     */
+    public CacheStatistics getStatistics() {
+        return cache == null ? new CacheStatistics(0, 0, 0, 0) : cache.getStatistics();
+    }
+}
@@ -0,0 +1,72 @@
+package com.upday.news.cache;
+
+import java.util.function.Function;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the counters of the {@link ArticleCache} and the {@link ArticleResponseCache} with the meter names
+ * Micrometer uses for caches (cache.gets, cache.evictions, cache.size), tagged with cache=article and
+ * cache=articleResponse. The hit rate is cache_gets_total{result="hit"} / cache_gets_total.
+ */
+@Component
+public class ArticleCacheMetrics implements MeterBinder {
+
+    private final ArticleCache articleCache;
+
+    private final ArticleResponseCache articleResponseCache;
+
+    /**
+     * Constructor.
+     *
+     * @param articleCache         the cache to observe
+     * @param articleResponseCache the response cache to observe
+     */
+    @Autowired
+    public ArticleCacheMetrics(ArticleCache articleCache, ArticleResponseCache articleResponseCache) {
+        this.articleCache = articleCache;
+        this.articleResponseCache = articleResponseCache;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+
+        bind(registry, Tags.of("cache", "article"), articleCache, ArticleCache::getStatistics);
+        Tags responseTags = Tags.of("cache", "articleResponse");
+        bind(registry, responseTags, articleResponseCache, ArticleResponseCache::getStatistics);
+        Gauge.builder("cache.size.bytes", articleResponseCache, ArticleResponseCache::getSizeInBytes)
+                .tags(responseTags)
+                .baseUnit("bytes")
+                .description("The estimated size of the cached responses.")
+                .register(registry);
+    }
+
+    /**
+     * The meters only keep a weak reference to the observed object - it must be the cache itself.
+     */
+    private static <T> void bind(MeterRegistry registry, Tags tags, T cache, Function<T, CacheStatistics> statistics) {
+
+        FunctionCounter.builder("cache.gets", cache, c -> statistics.apply(c).getHitCount())
+                .tags(tags).tag("result", "hit")
+                .description("The number of times cache lookup methods have returned a cached value.")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", cache, c -> statistics.apply(c).getMissCount())
+                .tags(tags).tag("result", "miss")
+                .description("The number of times cache lookup methods have not returned a value.")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", cache, c -> statistics.apply(c).getEvictionCount())
+                .tags(tags)
+                .description("The number of entries removed because of size or time to live.")
+                .register(registry);
+        Gauge.builder("cache.size", cache, c -> statistics.apply(c).getSize())
+                .tags(tags)
+                .description("The number of entries in the cache.")
+                .register(registry);
+    }
+}
@@ -0,0 +1,43 @@
+package com.upday.news.cache;
+
+import java.time.Duration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuration of the article cache (prefix "news.cache" in application.properties).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "news.cache")
+public class ArticleCacheProperties {
+
+    /**
+     * Switches the cache on or off. If off, every lookup goes to the database.
+     */
+    private boolean enabled = true;
+
+    /**
+     * The maximum number of cached articles.
+     */
+    private int maxSize = 10000;
+
+    /**
+     * How long an article stays in the cache after it was loaded.
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+
+    /**
+     * Switches the cache of encoded /article/display responses on or off. Its entries live as long as the
+     * cached articles.
+     */
+    private boolean responseEnabled = true;
+
+    /**
+     * The maximum total size of the cached responses.
+     */
+    private DataSize responseMaxSize = DataSize.ofMegabytes(64);
+}
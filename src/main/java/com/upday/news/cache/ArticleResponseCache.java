@@ -0,0 +1,148 @@
+package com.upday.news.cache;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+/**
+ * A cache of encoded articles - the response bodies of /article/display - keyed by articleId and content type,
+ * so a hit is written to the response without running the object mapper. The entries carry the version of the
+ * article they were encoded from. The cache is bounded by the size of the bodies, not by the number of entries,
+ * as one article may be a few hundred bytes or a few hundred kilobytes. If the cache is disabled in the
+ * configuration, all methods are no-ops and every lookup is a miss.
+ * Like the {@link ArticleCache}, a reader takes a {@link #stamp(String)} before it loads the article, so a
+ * response encoded from an article that was changed in the meantime is not cached.
+ */
+@Component
+public class ArticleResponseCache {
+
+    /**
+     * Roughly the size of key, entry and map node - so lots of tiny bodies do not exceed the limit by far.
+     */
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private Logger log = LoggerFactory.getLogger(getClass());
+
+    private final BoundedCache<String, EncodedArticle> cache;
+
+    /**
+     * Counted per articleId, as an invalidation removes all content types of an article.
+     */
+    private final InvalidationGenerations generations = new InvalidationGenerations();
+
+    /**
+     * The content types that were cached so far - a handful, all of them are invalidated per article.
+     */
+    private final Set<MediaType> contentTypes = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor.
+     *
+     * @param properties the cache configuration
+     */
+    @Autowired
+    public ArticleResponseCache(ArticleCacheProperties properties) {
+
+        if (properties.isResponseEnabled()) {
+            cache = new BoundedCache<>(properties.getResponseMaxSize().toBytes(),
+                    encodedArticle -> encodedArticle.getBody().length + ENTRY_OVERHEAD,
+                    properties.getTtl().toMillis());
+            log.info("Article response cache enabled: maxSize={}, ttl={}",
+                    properties.getResponseMaxSize(), properties.getTtl());
+        } else {
+            cache = null;
+            log.info("Article response cache disabled.");
+        }
+    }
+
+    /**
+     * @return true if responses are cached at all
+     */
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * Returns the cached response.
+     *
+     * @param articleId   the id of the article
+     * @param contentType the content type of the response
+     * @return the encoded article or null if it is not cached
+     */
+    public EncodedArticle get(String articleId, MediaType contentType) {
+        return cache == null ? null : cache.get(key(articleId, contentType));
+    }
+
+    /**
+     * Must be taken before the article of a response is loaded.
+     *
+     * @param articleId the id of the article about to be loaded
+     * @return the stamp to pass to {@link #put(EncodedArticle, long)}
+     */
+    public long stamp(String articleId) {
+        return generations.stamp(articleId);
+    }
+
+    /**
+     * Adds an encoded article to the cache - unless the article was invalidated since the stamp was taken.
+     *
+     * @param encodedArticle the encoded article including its articleId
+     * @param stamp          the stamp taken before the article was loaded
+     */
+    public void put(EncodedArticle encodedArticle, long stamp) {
+
+        if (cache != null) {
+            String articleId = encodedArticle.getVersion().getArticleId();
+            contentTypes.add(encodedArticle.getContentType());
+            cache.putIf(key(articleId, encodedArticle.getContentType()), encodedArticle,
+                    () -> generations.isCurrent(articleId, stamp));
+        }
+    }
+
+    /**
+     * Removes all encodings of an article from the cache - must be called whenever an article is changed or
+     * deleted.
+     *
+     * @param articleId the id of the article
+     */
+    public void invalidate(String articleId) {
+
+        if (cache != null) {
+            generations.advance(articleId);
+            contentTypes.forEach(contentType -> cache.invalidate(key(articleId, contentType)));
+        }
+    }
+
+    /**
+     * Removes all responses from the cache - e.g. if changes of other instances were missed.
+     */
+    public void invalidateAll() {
+        if (cache != null) {
+            generations.advanceAll();
+            cache.invalidateAll();
+        }
+    }
+
+    /**
+     * @return the total size of the cached responses in bytes (estimated)
+     */
+    public long getSizeInBytes() {
+        return cache == null ? 0 : cache.weight();
+    }
+
+    /**
+     * @return the current cache counters - all zero if the cache is disabled
+     */
+    public CacheStatistics getStatistics() {
+        return cache == null ? new CacheStatistics(0, 0, 0, 0) : cache.getStatistics();
+    }
+
+    private static String key(String articleId, MediaType contentType) {
+        return articleId + ' ' + contentType;
+    }
+}
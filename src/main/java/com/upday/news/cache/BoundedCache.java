@@ -0,0 +1,255 @@
+package com.upday.news.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * A simple thread safe in-process cache with a maximum number of entries - or a maximum total weight, e.g. in
+ * bytes - (least recently used entries are evicted first) and a time to live per entry. Hits, misses and
+ * evictions are counted.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class BoundedCache<K, V> {
+
+    private final long maxWeight;
+
+    private final ToLongFunction<? super V> weigher;
+
+    private final long ttlNanos;
+
+    private final LongSupplier ticker;
+
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    private long weight;
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize   the maximum number of entries kept in the cache
+     * @param ttlMillis the time to live of an entry in milliseconds
+     */
+    public BoundedCache(int maxSize, long ttlMillis) {
+        this(maxSize, ttlMillis, System::nanoTime);
+    }
+
+    /**
+     * Constructor of a cache bounded by the total weight of its entries.
+     *
+     * @param maxWeight the maximum total weight of the entries kept in the cache
+     * @param weigher   returns the weight of a value, e.g. its size in bytes
+     * @param ttlMillis the time to live of an entry in milliseconds
+     */
+    public BoundedCache(long maxWeight, ToLongFunction<? super V> weigher, long ttlMillis) {
+        this(maxWeight, weigher, ttlMillis, System::nanoTime);
+    }
+
+    /**
+     * Constructor with an explicit time source - used by tests.
+     *
+     * @param maxSize   the maximum number of entries kept in the cache
+     * @param ttlMillis the time to live of an entry in milliseconds
+     * @param ticker    returns the current time in nanoseconds
+     */
+    BoundedCache(int maxSize, long ttlMillis, LongSupplier ticker) {
+        this(maxSize, value -> 1, ttlMillis, ticker);
+    }
+
+    /**
+     * Constructor of a weight bounded cache with an explicit time source - used by tests.
+     *
+     * @param maxWeight the maximum total weight of the entries kept in the cache
+     * @param weigher   returns the weight of a value, e.g. its size in bytes
+     * @param ttlMillis the time to live of an entry in milliseconds
+     * @param ticker    returns the current time in nanoseconds
+     */
+    BoundedCache(long maxWeight, ToLongFunction<? super V> weigher, long ttlMillis, LongSupplier ticker) {
+
+        if (maxWeight < 1) {
+            throw new IllegalArgumentException("The maximum size must be at least 1: " + maxWeight);
+        }
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.ticker = ticker;
+        // access order -> the eldest entry is the least recently used one
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns the cached value for this key.
+     *
+     * @param key the key to look up
+     * @return the value or null if there is no (or only an expired) entry
+     */
+    public V get(K key) {
+
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.isExpired(ticker.getAsLong())) {
+                remove(key);
+                evictions.incrementAndGet();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return entry.value;
+        }
+    }
+
+    /**
+     * Adds or replaces a value. If the cache is full, expired entries and then the least recently used entries
+     * are evicted. A value heavier than the whole cache is not added (but still replaces the old value).
+     *
+     * @param key   the key
+     * @param value the value - must not be null
+     */
+    public void put(K key, V value) {
+
+        long now = ticker.getAsLong();
+        long valueWeight = weigher.applyAsLong(value);
+        synchronized (entries) {
+            remove(key);
+            if (valueWeight > maxWeight) {
+                return;
+            }
+            entries.put(key, new Entry<>(value, valueWeight, now + ttlNanos));
+            weight += valueWeight;
+            if (weight > maxWeight) {
+                evict(now);
+            }
+        }
+    }
+
+    /**
+     * Adds or replaces a value if the condition holds. The condition is checked under the lock of the cache, so
+     * it is atomic with respect to all other operations of the cache.
+     *
+     * @param key       the key
+     * @param value     the value - must not be null
+     * @param condition checked right before the value is added
+     * @return true if the value was added
+     */
+    public boolean putIf(K key, V value, BooleanSupplier condition) {
+
+        synchronized (entries) {
+            if (!condition.getAsBoolean()) {
+                return false;
+            }
+            put(key, value);
+            return true;
+        }
+    }
+
+    /**
+     * Removes the entry for this key, if present.
+     *
+     * @param key the key
+     */
+    public void invalidate(K key) {
+        synchronized (entries) {
+            remove(key);
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            weight = 0;
+        }
+    }
+
+    /**
+     * @return the current number of entries (including expired ones not yet evicted)
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return the total weight of the entries (including expired ones not yet evicted) - their number if the
+     * cache is not weighted
+     */
+    public long weight() {
+        synchronized (entries) {
+            return weight;
+        }
+    }
+
+    /**
+     * @return a snapshot of the hit/miss/eviction counters
+     */
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics(hits.get(), misses.get(), evictions.get(), size());
+    }
+
+    private void evict(long now) {
+
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        // first drop everything that is expired anyway
+        while (iterator.hasNext()) {
+            Entry<V> entry = iterator.next().getValue();
+            if (entry.isExpired(now)) {
+                iterator.remove();
+                weight -= entry.weight;
+                evictions.incrementAndGet();
+            }
+        }
+        // then the least recently used entries
+        iterator = entries.entrySet().iterator();
+        while (weight > maxWeight && iterator.hasNext()) {
+            weight -= iterator.next().getValue().weight;
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void remove(K key) {
+
+        Entry<V> entry = entries.remove(key);
+        if (entry != null) {
+            weight -= entry.weight;
+        }
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+
+        private final long weight;
+
+        private final long expiresAt;
+
+        private Entry(V value, long weight, long expiresAt) {
+            this.value = value;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
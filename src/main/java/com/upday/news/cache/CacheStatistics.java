@@ -0,0 +1,38 @@
+package com.upday.news.cache;
+
+import lombok.Value;
+
+/**
+ * A snapshot of the counters of a {@link BoundedCache}.
+ */
+@Value
+public class CacheStatistics {
+
+    /**
+     * Number of lookups that found a valid entry.
+     */
+    private long hitCount;
+
+    /**
+     * Number of lookups that found no (or only an expired) entry.
+     */
+    private long missCount;
+
+    /**
+     * Number of entries removed because of size or time to live.
+     */
+    private long evictionCount;
+
+    /**
+     * Current number of entries.
+     */
+    private int size;
+
+    /**
+     * @return the ratio of hits to all lookups - 0 if there were no lookups yet
+     */
+    public double getHitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 0.0 : (double) hitCount / requests;
+    }
+}
@@ -0,0 +1,20 @@
+package com.upday.news.cache;
+
+import lombok.Value;
+import org.springframework.http.MediaType;
+
+import com.upday.news.model.ArticleVersion;
+
+/**
+ * An article as written to a response: the encoded body plus the version needed to answer conditional
+ * requests. The body must not be changed.
+ */
+@Value
+public class EncodedArticle {
+
+    private ArticleVersion version;
+
+    private MediaType contentType;
+
+    private byte[] body;
+}
@@ -0,0 +1,57 @@
+package com.upday.news.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts the invalidations of a cache, so a value that was loaded before an invalidation is not put into the
+ * cache after it. A reader takes a stamp before it loads the value and puts it only if the stamp is still
+ * current. The counters are striped by key: an invalidation of another key of the same stripe only costs an
+ * extra miss, never a stale entry.
+ */
+class InvalidationGenerations {
+
+    private static final int STRIPES = 1024;
+
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+    private final AtomicLong generationOfAll = new AtomicLong();
+
+    /**
+     * @param key the key of the value about to be loaded
+     * @return the stamp to pass to {@link #isCurrent(Object, long)}
+     */
+    long stamp(Object key) {
+        // both counters only grow, so the sum changes if either of them changes
+        return generations.get(stripe(key)) + generationOfAll.get();
+    }
+
+    /**
+     * @param key   the key of the loaded value
+     * @param stamp the stamp taken before the value was loaded
+     * @return true if the key was not invalidated since the stamp was taken
+     */
+    boolean isCurrent(Object key, long stamp) {
+        return stamp(key) == stamp;
+    }
+
+    /**
+     * Must be called before the entry is removed from the cache.
+     *
+     * @param key the invalidated key
+     */
+    void advance(Object key) {
+        generations.incrementAndGet(stripe(key));
+    }
+
+    /**
+     * Must be called before all entries are removed from the cache.
+     */
+    void advanceAll() {
+        generationOfAll.incrementAndGet();
+    }
+
+    private static int stripe(Object key) {
+        return Math.floorMod(key.hashCode(), STRIPES);
+    }
+}
@@ -0,0 +1,46 @@
+package com.upday.news.change;
+
+import lombok.Value;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * One entry of the change feed: an article was saved or deleted by some instance. The feed is a capped collection,
+ * so it keeps the insertion order and old entries are overwritten once it is full.
+ */
+@Value
+@Document(collection = ArticleChange.COLLECTION)
+public class ArticleChange {
+
+    public static final String COLLECTION = "article_changes";
+
+    public enum Type {
+        SAVED,
+        DELETED,
+        /**
+         * All in-process state must be rebuilt. Sent by the {@link ArticleChangeTailer} if entries were overwritten
+         * before this instance read them, and stored by an {@link ArticleChangePublisher} that had to drop changes
+         * it could not publish.
+         */
+        MISSED
+    }
+
+    /**
+     * Identifies the entry - used as resume token.
+     */
+    @Id
+    private ObjectId id;
+
+    /**
+     * Null for {@link Type#MISSED}.
+     */
+    private String articleId;
+
+    private Type type;
+
+    /**
+     * The instance that changed the article - it does not need to apply its own changes again.
+     */
+    private String origin;
+}
@@ -0,0 +1,27 @@
+package com.upday.news.change;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.integration.channel.DirectChannel;
+import org.springframework.messaging.MessageChannel;
+
+/**
+ * The channel between the {@link ArticleChangeTailer} and the {@link ArticleChangeHandler}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "news.changes.enabled", havingValue = "true")
+public class ArticleChangeConfig {
+
+    public static final String CHANNEL = "articleChanges";
+
+    /**
+     * A direct channel: the changes are handled on the tailing thread, one after the other and in feed order.
+     *
+     * @return the channel of {@link ArticleChange} messages
+     */
+    @Bean(name = CHANNEL)
+    public MessageChannel articleChanges() {
+        return new DirectChannel();
+    }
+}
@@ -0,0 +1,60 @@
+package com.upday.news.change;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.integration.annotation.ServiceActivator;
+import org.springframework.stereotype.Component;
+
+import com.upday.news.cache.ArticleCache;
+import com.upday.news.cache.ArticleResponseCache;
+import com.upday.news.index.ArticleIndexLoader;
+import com.upday.news.service.ArticleService;
+
+/**
+ * Applies the changes of the other instances to the caches and the in-process indexes of this instance - the same
+ * as the ArticleService does for its own writes.
+ */
+@Component
+@ConditionalOnProperty(name = "news.changes.enabled", havingValue = "true")
+public class ArticleChangeHandler {
+
+    private Logger log = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    ArticleService articleService;
+
+    @Autowired
+    ArticleCache articleCache;
+
+    @Autowired
+    ArticleResponseCache articleResponseCache;
+
+    @Autowired
+    ArticleIndexLoader articleIndexLoader;
+
+    /**
+     * @param change a change of another instance
+     */
+    @ServiceActivator(inputChannel = ArticleChangeConfig.CHANNEL)
+    public void apply(ArticleChange change) {
+
+        log.debug("Applying {}", change);
+        switch (change.getType()) {
+            case SAVED:
+            case DELETED:
+                // the change only has the id - the indexes need the article as it is stored now, if at all
+                articleService.refresh(change.getArticleId());
+                break;
+            case MISSED:
+                articleService.forgetAllLookups();
+                articleCache.invalidateAll();
+                articleResponseCache.invalidateAll();
+                articleIndexLoader.rebuildAll();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown change type: " + change.getType());
+        }
+    }
+}
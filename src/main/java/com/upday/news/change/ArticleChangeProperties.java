@@ -0,0 +1,32 @@
+package com.upday.news.change;
+
+import java.time.Duration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuration of the change feed between instances (prefix "news.changes" in application.properties).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "news.changes")
+public class ArticleChangeProperties {
+
+    /**
+     * Switches the change feed on or off. Required if several instances use caches or in-process indexes.
+     */
+    private boolean enabled = false;
+
+    /**
+     * The size of the capped change collection. An instance that falls further behind rebuilds all its state.
+     */
+    private DataSize collectionSize = DataSize.ofMegabytes(16);
+
+    /**
+     * The pause before the feed is tailed again after an error.
+     */
+    private Duration retryInterval = Duration.ofSeconds(1);
+}
@@ -0,0 +1,209 @@
+package com.upday.news.change;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Appends every article write of this instance to the change feed, so the other instances can apply it.
+ * A write only queues its change - one publisher thread appends the queued changes in order, so a slow or
+ * unavailable mongo never blocks the writers. After a failure, the publisher waits for the next tail cycle of
+ * the {@link ArticleChangeTailer} before it tries again. If too many changes are pending, they are replaced by
+ * one {@link ArticleChange.Type#MISSED} entry, which makes all other instances rebuild their state.
+ */
+@Component
+@ConditionalOnProperty(name = "news.changes.enabled", havingValue = "true")
+public class ArticleChangePublisher {
+
+    private static final int MAX_UNPUBLISHED = 10000;
+
+    private Logger log = LoggerFactory.getLogger(getClass());
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Autowired
+    MongoTemplate mongoTemplate;
+
+    @Autowired
+    ArticleChangeProperties properties;
+
+    /**
+     * The last change of every article that is not appended yet, in the order of the changes. Guarded by this.
+     */
+    private final Map<String, PendingChange> unpublished = new LinkedHashMap<>();
+
+    /**
+     * True if more than MAX_UNPUBLISHED changes could not be appended - they were dropped. Guarded by this.
+     */
+    private boolean missed;
+
+    /**
+     * True after a failed append, until the tailer asks for a retry. Guarded by this.
+     */
+    private boolean failed;
+
+    private volatile boolean running;
+
+    /**
+     * Creates the capped collection, unless another instance already did, and starts the publisher thread.
+     */
+    @PostConstruct
+    public void createCollection() {
+
+        if (!mongoTemplate.collectionExists(ArticleChange.COLLECTION)) {
+            try {
+                mongoTemplate.createCollection(ArticleChange.COLLECTION,
+                        CollectionOptions.empty().capped().size(properties.getCollectionSize().toBytes()));
+                log.info("Created change feed collection of {}", properties.getCollectionSize());
+            } catch (DataAccessException e) {
+                if (!mongoTemplate.collectionExists(ArticleChange.COLLECTION)) {
+                    throw e;
+                }
+            }
+        }
+        running = true;
+        Thread thread = new Thread(this::publishUntilStopped, "article-change-publisher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the publisher thread. Changes that are not appended yet are lost - the other instances serve their
+     * cached state of these articles until it expires.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+
+        running = false;
+        notifyAll();
+    }
+
+    /**
+     * @return the id of this instance - the origin of its changes
+     */
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    /**
+     * @param articleId the id of the created or updated article
+     */
+    public void publishSaved(String articleId) {
+        publish(articleId, ArticleChange.Type.SAVED);
+    }
+
+    /**
+     * @param articleId the id of the deleted article
+     */
+    public void publishDeleted(String articleId) {
+        publish(articleId, ArticleChange.Type.DELETED);
+    }
+
+    /**
+     * Lets the publisher thread append the changes again that could not be appended before. Called by the
+     * tailer in every cycle - it does not wait for mongo itself.
+     */
+    public synchronized void retryUnpublished() {
+
+        if (failed) {
+            failed = false;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Only queues the change - the article itself is already written, and the writer does not wait for mongo.
+     * Until the change is appended, the other instances serve their cached state of the article.
+     */
+    private synchronized void publish(String articleId, ArticleChange.Type type) {
+
+        // appended after the pending changes - a pending change of the same article must not overtake it
+        unpublished.remove(articleId);
+        unpublished.put(articleId, new PendingChange(type));
+        if (unpublished.size() > MAX_UNPUBLISHED) {
+            log.error("More than {} changes could not be published - all instances will be rebuilt",
+                    MAX_UNPUBLISHED);
+            unpublished.clear();
+            missed = true;
+        }
+        notifyAll();
+    }
+
+    /**
+     * Appends the queued changes one by one, in order. A change is only removed from the queue once it is
+     * appended - and only if the article was not changed again meanwhile, which queued a new change.
+     */
+    private void publishUntilStopped() {
+
+        while (running) {
+            String articleId = null;
+            PendingChange change = null;
+            synchronized (this) {
+                while (running && (failed || (!missed && unpublished.isEmpty()))) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (!running) {
+                    return;
+                }
+                if (!missed) {
+                    Map.Entry<String, PendingChange> next = unpublished.entrySet().iterator().next();
+                    articleId = next.getKey();
+                    change = next.getValue();
+                }
+            }
+            boolean appended = insert(new ArticleChange(new ObjectId(), articleId,
+                    change == null ? ArticleChange.Type.MISSED : change.type, instanceId));
+            synchronized (this) {
+                if (!appended) {
+                    failed = true;
+                } else if (change == null) {
+                    missed = false;
+                    log.info("Published a rebuild of all instances for the dropped changes");
+                } else {
+                    unpublished.remove(articleId, change);
+                }
+            }
+        }
+    }
+
+    private boolean insert(ArticleChange change) {
+
+        try {
+            mongoTemplate.insert(change);
+            return true;
+        } catch (DataAccessException e) {
+            log.error("Could not publish change {} of article {}", change.getType(), change.getArticleId(), e);
+            return false;
+        }
+    }
+
+    /**
+     * A queued change. Compared by identity, so a new change of the same type is told apart from an older one.
+     */
+    private static final class PendingChange {
+
+        private final ArticleChange.Type type;
+
+        private PendingChange(ArticleChange.Type type) {
+            this.type = type;
+        }
+    }
+}
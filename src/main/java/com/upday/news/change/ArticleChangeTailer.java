@@ -0,0 +1,183 @@
+package com.upday.news.change;
+
+import java.util.concurrent.TimeUnit;
+
+import com.mongodb.CursorType;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tails the change feed with a tailable cursor and sends the changes of the other instances to the
+ * {@link ArticleChangeConfig#CHANNEL}. Change streams would need a replica set, the capped collection works with
+ * any mongo - including the embedded one.
+ * The id of the last read entry is the resume token: after an error the feed is read again from the start and
+ * all entries up to the token are skipped. If the token is not found any more, the entries after it were
+ * overwritten and a {@link ArticleChange.Type#MISSED} change is sent. While the feed is idle, the publisher is
+ * asked to retry the changes of this instance it could not append (see {@link ArticleChangePublisher}).
+ * Started before the in-process indexes are built, so no change between their rebuild and the start of the
+ * tailing is lost.
+ */
+@Component
+@ConditionalOnProperty(name = "news.changes.enabled", havingValue = "true")
+public class ArticleChangeTailer implements SmartLifecycle {
+
+    private static final long MAX_AWAIT_MILLIS = 1000;
+
+    private Logger log = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    MongoTemplate mongoTemplate;
+
+    @Autowired
+    ArticleChangePublisher articleChangePublisher;
+
+    @Autowired
+    ArticleChangeProperties properties;
+
+    @Autowired
+    @Qualifier(ArticleChangeConfig.CHANNEL)
+    MessageChannel articleChanges;
+
+    private volatile boolean running;
+
+    private volatile ObjectId resumeToken;
+
+    private Thread thread;
+
+    @Override
+    public synchronized void start() {
+
+        resumeToken = findLatestId();
+        running = true;
+        thread = new Thread(this::tailUntilStopped, "article-change-tailer");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Tailing the change feed after {}", resumeToken);
+    }
+
+    @Override
+    public synchronized void stop() {
+
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return true;
+    }
+
+    @Override
+    public void stop(Runnable callback) {
+        stop();
+        callback.run();
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    /**
+     * @return the id of the last read entry
+     */
+    public ObjectId getResumeToken() {
+        return resumeToken;
+    }
+
+    private void tailUntilStopped() {
+
+        while (running) {
+            try {
+                tail();
+            } catch (RuntimeException e) {
+                // the resume token is only moved after a change was handled, so a failed change is sent again
+                log.warn("Tailing the change feed failed, retrying in {}", properties.getRetryInterval(), e);
+            }
+            try {
+                Thread.sleep(properties.getRetryInterval().toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reads the feed until the cursor dies (e.g. the collection was empty) or the tailer is stopped.
+     */
+    private void tail() {
+
+        MongoCollection<Document> collection = mongoTemplate.getCollection(ArticleChange.COLLECTION);
+        try (MongoCursor<Document> cursor = collection.find()
+                .cursorType(CursorType.TailableAwait)
+                .maxAwaitTime(MAX_AWAIT_MILLIS, TimeUnit.MILLISECONDS)
+                .noCursorTimeout(true)
+                .iterator()) {
+
+            boolean skipping = resumeToken != null;
+            ObjectId lastSkipped = null;
+            while (running) {
+                Document document = cursor.tryNext();
+                if (document == null) {
+                    articleChangePublisher.retryUnpublished();
+                    if (skipping) {
+                        log.warn("Change feed entries after {} were overwritten - rebuilding", resumeToken);
+                        send(new ArticleChange(resumeToken, null, ArticleChange.Type.MISSED, null));
+                        // everything up to here is contained in the rebuilt state
+                        resumeToken = lastSkipped;
+                        skipping = false;
+                    }
+                    if (cursor.getServerCursor() == null) {
+                        return;
+                    }
+                } else {
+                    ArticleChange change = mongoTemplate.getConverter().read(ArticleChange.class, document);
+                    if (skipping) {
+                        skipping = !change.getId().equals(resumeToken);
+                        lastSkipped = change.getId();
+                    } else {
+                        // a MISSED entry was stored by an instance that dropped changes it could not publish
+                        if (!articleChangePublisher.getInstanceId().equals(change.getOrigin())) {
+                            send(change);
+                        }
+                        resumeToken = change.getId();
+                    }
+                }
+            }
+        }
+    }
+
+    private void send(ArticleChange change) {
+        articleChanges.send(MessageBuilder.withPayload(change).build());
+    }
+
+    private ObjectId findLatestId() {
+
+        Document latest = mongoTemplate.getCollection(ArticleChange.COLLECTION).find()
+                .sort(new Document("$natural", -1))
+                .limit(1)
+                .first();
+        return latest == null ? null : latest.getObjectId("_id");
+    }
+}
@@ -1,8 +1,20 @@
 package com.upday.news.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.ValidationException;
 
 import org.jsondoc.core.annotation.Api;
@@ -10,10 +22,16 @@ import org.jsondoc.core.annotation.ApiError;
 import org.jsondoc.core.annotation.ApiErrors;
 import org.jsondoc.core.annotation.ApiMethod;
 import org.jsondoc.core.annotation.ApiQueryParam;
+import org.jsondoc.core.annotation.ApiResponseObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -23,24 +41,55 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.upday.news.cache.ArticleResponseCache;
+import com.upday.news.cache.EncodedArticle;
 import com.upday.news.error.ArticleNotFoundException;
 import com.upday.news.error.ErrorDetails;
+import com.upday.news.error.SearchUnavailableException;
+import com.upday.news.error.WriteQueueFullException;
 import com.upday.news.model.Article;
+import com.upday.news.model.ArticlePage;
+import com.upday.news.model.ArticleQuery;
+import com.upday.news.model.ArticleSearchHit;
+import com.upday.news.model.ArticleSummary;
+import com.upday.news.model.ArticleVersion;
+import com.upday.news.model.BulkItemResult;
 import com.upday.news.service.ArticleService;
 
 @RestController
 @RequestMapping(value = "/article")
+@Profile("!reactive")
 @Api(name = "Articles", description = "This Rest base API lets you create, modify, and search for articles.")
 public class ArticleController {
 
+    /**
+     * Newline delimited json: one article per line, written while the articles are read from the database.
+     */
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
     private Logger log = LoggerFactory.getLogger(getClass());
 
     @Autowired
     private ArticleService articleService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ArticleResponseCache articleResponseCache;
+
+    @Autowired
+    private ArticleResponseEncoder articleResponseEncoder;
+
     @ApiMethod(description = "This method stores a new article in the database."
             + "The newly created article is returned on success. "
             + "Note that the result contains the generated articleId.")
@@ -55,10 +104,15 @@ public class ArticleController {
         return articleService.create(article);
     }
 
-    @ApiMethod(description = "This method updates an existing article. Identifier is the articleId.")
+    @ApiMethod(description = "This method updates an existing article. Identifier is the articleId. "
+            + "The version the update is based on must be set - the article is only updated if it was not changed "
+            + "in the meantime. Articles stored without a version have version 0.")
     @ApiErrors(apierrors = {
             @ApiError(code = "400 - Bad Request", description = "The given article is incomplete or invalid. E.g. missing field."),
-            @ApiError(code = "400 - Bad Request", description = "The given article json has a syntax error.")
+            @ApiError(code = "400 - Bad Request", description = "The version of the article is not set."),
+            @ApiError(code = "400 - Bad Request", description = "The given article json has a syntax error."),
+            @ApiError(code = "404 - Not Found", description = "The article to update was not found."),
+            @ApiError(code = "409 - Conflict", description = "The article was changed since the given version.")
     })
     @RequestMapping(value = "/update", method = RequestMethod.PUT)
     public Article update(@RequestBody Article article) {
@@ -80,45 +134,407 @@ public class ArticleController {
         return articleService.delete(articleId);
     }
 
-    @ApiMethod(description = "This method shows all details of a certain article.")
+    @ApiMethod(description = "This method stores many new articles at once. The articles are sent as a json array "
+            + "or as newline delimited json and are written in chunks. Invalid articles are skipped. "
+            + "The result contains one entry per article with its position in the request and its generated articleId.")
+    @ApiErrors(apierrors = {
+            @ApiError(code = "400 - Bad Request", description = "The given json has a syntax error.")
+    })
+    @RequestMapping(value = "/bulk/create", method = RequestMethod.POST,
+            consumes = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE})
+    public List<BulkItemResult> bulkCreate(InputStream body) throws IOException {
+
+        try (MappingIterator<Article> articles = objectMapper.readerFor(Article.class).readValues(body)) {
+            log.debug("Creating articles in bulk");
+            return articleService.bulkCreate(articles);
+        }
+    }
+
+    @ApiMethod(description = "This method updates many existing articles at once. The articles are sent as a json "
+            + "array or as newline delimited json and are written in chunks. Identifier is the articleId. "
+            + "Like for a single update, the version must be set - articles changed since are reported as CONFLICT. "
+            + "The result contains one entry per article with its position in the request.")
+    @ApiErrors(apierrors = {
+            @ApiError(code = "400 - Bad Request", description = "The given json has a syntax error.")
+    })
+    @RequestMapping(value = "/bulk/update", method = RequestMethod.PUT,
+            consumes = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE})
+    public List<BulkItemResult> bulkUpdate(InputStream body) throws IOException {
+
+        try (MappingIterator<Article> articles = objectMapper.readerFor(Article.class).readValues(body)) {
+            log.debug("Updating articles in bulk");
+            return articleService.bulkUpdate(articles);
+        }
+    }
+
+    @ApiMethod(description = "This method deletes many existing articles at once. The articleIds are sent as a json "
+            + "array of strings or as newline delimited json. "
+            + "The result contains one entry per articleId with its position in the request.")
+    @ApiErrors(apierrors = {
+            @ApiError(code = "400 - Bad Request", description = "The given json has a syntax error.")
+    })
+    @RequestMapping(value = "/bulk/delete", method = RequestMethod.POST,
+            consumes = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE})
+    public List<BulkItemResult> bulkDelete(InputStream body) throws IOException {
+
+        try (MappingIterator<String> articleIds = objectMapper.readerFor(String.class).readValues(body)) {
+            log.debug("Deleting articles in bulk");
+            return articleService.bulkDelete(articleIds);
+        }
+    }
+
+    @ApiMethod(description = "This method shows all details of a certain article. "
+            + "The response has an ETag (the article version) and a Last-Modified header. "
+            + "A request with If-None-Match or If-Modified-Since returns 304 if the article was not changed.")
+    @ApiResponseObject(clazz = Article.class)
     @ApiErrors(apierrors = {
             @ApiError(code = "404 - Not Found", description = "The requested article was not found.")
     })
     @GetMapping(value = "/display")
-    public Article display(@ApiQueryParam(description = "The id of the article to display.", name = "articleId")
-                           @RequestParam
-                           String articleId) {
+    public ResponseEntity<?> display(@ApiQueryParam(description = "The id of the article to display.", name = "articleId")
+                                     @RequestParam
+                                     String articleId,
+                                     WebRequest webRequest) throws JsonProcessingException {
+
+        // hot articles are written from the response cache, without object mapping
+        Optional<MediaType> contentType = articleResponseCache.isEnabled()
+                ? articleResponseEncoder.negotiate(webRequest)
+                : Optional.empty();
+        if (contentType.isPresent()) {
+            EncodedArticle cachedResponse = articleResponseCache.get(articleId, contentType.get());
+            if (cachedResponse != null) {
+                log.debug("Displaying cached response for article with id: {}", articleId);
+                return checkNotModified(webRequest, cachedResponse.getVersion()) ? null : toResponse(cachedResponse);
+            }
+        }
 
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            // conditional request: read only the version, not the whole article
+            ArticleVersion version = articleService.findVersion(articleId);
+            if (isNotModified(webRequest, version)) {
+                log.debug("Article with id {} not modified", articleId);
+                checkNotModified(webRequest, version);
+                return null;
+            }
+        }
         log.debug("Displaying article with id: {}", articleId);
-        return articleService.findById(articleId);
+        long stamp = articleResponseCache.stamp(articleId);
+        Article article = articleService.findById(articleId);
+        // the headers must match the article that is served - it may have changed since its version was read
+        if (checkNotModified(webRequest, ArticleVersion.of(article))) {
+            return null;
+        }
+        if (!contentType.isPresent()) {
+            return ResponseEntity.ok(article);
+        }
+        EncodedArticle response = articleResponseEncoder.encode(article, contentType.get());
+        articleResponseCache.put(response, stamp);
+        return toResponse(response);
     }
 
-    @ApiMethod(description = "This method returns all articles for this author.")
+    @ApiMethod(description = "This method returns the summaries of all articles for this author. "
+            + "A request with If-None-Match returns 304 if the list did not change.")
     @GetMapping(value = "/listForAuthor")
-    public List<Article> listForAuthor(@ApiQueryParam(description = "The name of the author.", name = "author")
+    public List<ArticleSummary> listForAuthor(@ApiQueryParam(description = "The name of the author.", name = "author")
                                        @RequestParam
-                                       String author) {
+                                       String author,
+                                       WebRequest webRequest) {
 
         log.debug("Listing articles for author {}", author);
-        return articleService.findByAuthor(author);
+        return unlessNotModified(webRequest, articleService.findByAuthor(author));
     }
 
-    @ApiMethod(description = "This method returns all articles for this author.")
+    @ApiMethod(description = "This method returns the summaries of all articles within a period. "
+            + "A request with If-None-Match returns 304 if the list did not change.")
     @GetMapping(value = "/listForPeriod")
-    public List<Article> listForPeriod(@ApiQueryParam(description = "Startdate of period, included.", name = "from")
+    public List<ArticleSummary> listForPeriod(@ApiQueryParam(description = "Startdate of period, included.", name = "from")
                                        @RequestParam
                                        Long from,
                                        @ApiQueryParam(description = "Enddate of period, excluded.", name = "to")
                                        @RequestParam
-                                       Long to) {
-        return articleService.findByPublishDateBetween(new Date(from), new Date(to));
+                                       Long to,
+                                       WebRequest webRequest) {
+        return unlessNotModified(webRequest, articleService.findByPublishDateBetween(new Date(from), new Date(to)));
     }
 
-    @ApiMethod(description = "This method returns all articles with a certain keyword.")
+    @ApiMethod(description = "This method returns the summaries of all articles with a certain keyword. "
+            + "A request with If-None-Match returns 304 if the list did not change.")
     @GetMapping(value = "/findByKeyword")
-    public List<Article> findByKeyword(@ApiQueryParam(description = "The keyword to look for.", name = "keyword")
-                                       @RequestParam String keyword) {
-        return articleService.findByKeyword(keyword);
+    public List<ArticleSummary> findByKeyword(@ApiQueryParam(description = "The keyword to look for.", name = "keyword")
+                                       @RequestParam String keyword,
+                                       WebRequest webRequest) {
+        return unlessNotModified(webRequest, articleService.findByKeyword(keyword));
+    }
+
+    @ApiMethod(description = "This method returns the summaries of all articles matching a combination of "
+            + "keywords and authors: all of the all* terms, at least one of the any* terms and none of the not* "
+            + "terms. Terms can be repeated or comma separated. At least one all* or any* term is required.")
+    @ApiErrors(apierrors = {
+            @ApiError(code = "400 - Bad Request", description = "No keyword or author that must match is given.")
+    })
+    @GetMapping(value = "/search")
+    public List<ArticleSummary> search(@ApiQueryParam(description = "Keywords that must all match.", name = "allKeywords", required = false)
+                                       @RequestParam(required = false)
+                                       List<String> allKeywords,
+                                       @ApiQueryParam(description = "Authors that must all match.", name = "allAuthors", required = false)
+                                       @RequestParam(required = false)
+                                       List<String> allAuthors,
+                                       @ApiQueryParam(description = "Keywords of which at least one (or one of the anyAuthors) must match.", name = "anyKeywords", required = false)
+                                       @RequestParam(required = false)
+                                       List<String> anyKeywords,
+                                       @ApiQueryParam(description = "Authors of which at least one (or one of the anyKeywords) must match.", name = "anyAuthors", required = false)
+                                       @RequestParam(required = false)
+                                       List<String> anyAuthors,
+                                       @ApiQueryParam(description = "Keywords that must not match.", name = "notKeywords", required = false)
+                                       @RequestParam(required = false)
+                                       List<String> notKeywords,
+                                       @ApiQueryParam(description = "Authors that must not match.", name = "notAuthors", required = false)
+                                       @RequestParam(required = false)
+                                       List<String> notAuthors,
+                                       @ApiQueryParam(description = "Startdate of period, excluded.", name = "from", required = false)
+                                       @RequestParam(required = false)
+                                       Long from,
+                                       @ApiQueryParam(description = "Enddate of period, excluded.", name = "to", required = false)
+                                       @RequestParam(required = false)
+                                       Long to) {
+
+        ArticleQuery query = new ArticleQuery();
+        query.setAllKeywords(allKeywords);
+        query.setAllAuthors(allAuthors);
+        query.setAnyKeywords(anyKeywords);
+        query.setAnyAuthors(anyAuthors);
+        query.setNotKeywords(notKeywords);
+        query.setNotAuthors(notAuthors);
+        query.setFrom(from == null ? null : new Date(from));
+        query.setTo(to == null ? null : new Date(to));
+
+        log.debug("Searching articles: {}", query);
+        return articleService.search(query);
+    }
+
+    @ApiMethod(description = "This method searches header, short description and text of all articles. "
+            + "The best matching articles are returned first.")
+    @ApiErrors(apierrors = {
+            @ApiError(code = "503 - Service Unavailable", description = "The full-text index is not available.")
+    })
+    @GetMapping(value = "/fullTextSearch")
+    public List<ArticleSearchHit> fullTextSearch(@ApiQueryParam(description = "The search text.", name = "text")
+                                                 @RequestParam
+                                                 String text,
+                                                 @ApiQueryParam(description = "Maximum number of results.", name = "limit", required = false)
+                                                 @RequestParam(defaultValue = "20")
+                                                 int limit) {
+
+        log.debug("Full-text search for {}", text);
+        return articleService.fullTextSearch(text, limit);
+    }
+
+    @ApiMethod(description = "This method returns one page of article summaries for this author, newest first. "
+            + "Selected by the limit parameter.")
+    @GetMapping(value = "/listForAuthor", params = "limit")
+    public ArticlePage<ArticleSummary> pageForAuthor(@ApiQueryParam(description = "The name of the author.", name = "author")
+                                              @RequestParam
+                                              String author,
+                                              @ApiQueryParam(description = "Cursor of the previous page.", name = "cursor", required = false)
+                                              @RequestParam(required = false)
+                                              String cursor,
+                                              @ApiQueryParam(description = "Maximum number of articles per page.", name = "limit")
+                                              @RequestParam
+                                              int limit,
+                                              WebRequest webRequest) {
+
+        log.debug("Listing page of articles for author {} after {}", author, cursor);
+        return unlessNotModified(webRequest, articleService.findPageByAuthor(author, cursor, limit));
+    }
+
+    @ApiMethod(description = "This method streams the summaries of all articles for this author as newline delimited json. "
+            + "Selected by the Accept header " + APPLICATION_NDJSON_VALUE + ".")
+    @GetMapping(value = "/listForAuthor", produces = APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamForAuthor(@ApiQueryParam(description = "The name of the author.", name = "author")
+                                                 @RequestParam
+                                                 String author) {
+
+        log.debug("Streaming articles for author {}", author);
+        return outputStream -> writeNdjson(articleService.streamByAuthor(author), outputStream);
+    }
+
+    @ApiMethod(description = "This method returns one page of article summaries within a period, newest first. "
+            + "Selected by the limit parameter.")
+    @GetMapping(value = "/listForPeriod", params = "limit")
+    public ArticlePage<ArticleSummary> pageForPeriod(@ApiQueryParam(description = "Startdate of period, included.", name = "from")
+                                              @RequestParam
+                                              Long from,
+                                              @ApiQueryParam(description = "Enddate of period, excluded.", name = "to")
+                                              @RequestParam
+                                              Long to,
+                                              @ApiQueryParam(description = "Cursor of the previous page.", name = "cursor", required = false)
+                                              @RequestParam(required = false)
+                                              String cursor,
+                                              @ApiQueryParam(description = "Maximum number of articles per page.", name = "limit")
+                                              @RequestParam
+                                              int limit,
+                                              WebRequest webRequest) {
+        return unlessNotModified(webRequest,
+                articleService.findPageByPublishDateBetween(new Date(from), new Date(to), cursor, limit));
+    }
+
+    @ApiMethod(description = "This method streams the summaries of all articles within a period as newline delimited json. "
+            + "Selected by the Accept header " + APPLICATION_NDJSON_VALUE + ".")
+    @GetMapping(value = "/listForPeriod", produces = APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamForPeriod(@ApiQueryParam(description = "Startdate of period, included.", name = "from")
+                                                 @RequestParam
+                                                 Long from,
+                                                 @ApiQueryParam(description = "Enddate of period, excluded.", name = "to")
+                                                 @RequestParam
+                                                 Long to) {
+        return outputStream -> writeNdjson(
+                articleService.streamByPublishDateBetween(new Date(from), new Date(to)), outputStream);
+    }
+
+    @ApiMethod(description = "This method returns one page of article summaries with a certain keyword, newest first. "
+            + "Selected by the limit parameter.")
+    @GetMapping(value = "/findByKeyword", params = "limit")
+    public ArticlePage<ArticleSummary> pageByKeyword(@ApiQueryParam(description = "The keyword to look for.", name = "keyword")
+                                              @RequestParam
+                                              String keyword,
+                                              @ApiQueryParam(description = "Cursor of the previous page.", name = "cursor", required = false)
+                                              @RequestParam(required = false)
+                                              String cursor,
+                                              @ApiQueryParam(description = "Maximum number of articles per page.", name = "limit")
+                                              @RequestParam
+                                              int limit,
+                                              WebRequest webRequest) {
+        return unlessNotModified(webRequest, articleService.findPageByKeyword(keyword, cursor, limit));
+    }
+
+    @ApiMethod(description = "This method streams the summaries of all articles with a certain keyword as newline delimited json. "
+            + "Selected by the Accept header " + APPLICATION_NDJSON_VALUE + ".")
+    @GetMapping(value = "/findByKeyword", produces = APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamByKeyword(@ApiQueryParam(description = "The keyword to look for.", name = "keyword")
+                                                 @RequestParam
+                                                 String keyword) {
+        return outputStream -> writeNdjson(articleService.streamByKeyword(keyword), outputStream);
+    }
+
+    @ApiMethod(description = "This method returns the latest articles of this author, read from a precomputed feed. "
+            + "The latest articles are selected by publishDate, sort only orders the result.")
+    @GetMapping(value = "/latestForAuthor")
+    public List<ArticleSummary> latestForAuthor(@ApiQueryParam(description = "The name of the author.", name = "author")
+                                                @RequestParam
+                                                String author,
+                                                @ApiQueryParam(description = "Maximum number of articles.", name = "limit", required = false)
+                                                @RequestParam(defaultValue = "10")
+                                                int limit,
+                                                @ApiQueryParam(description = "DESC for newest first, ASC for oldest first.", name = "sort", required = false, allowedvalues = {"DESC", "ASC"})
+                                                @RequestParam(defaultValue = "DESC")
+                                                Sort.Direction sort,
+                                                WebRequest webRequest) {
+        return unlessNotModified(webRequest, articleService.findLatestByAuthor(author, limit, sort));
+    }
+
+    @ApiMethod(description = "This method returns the latest articles with a certain keyword, read from a precomputed feed. "
+            + "The latest articles are selected by publishDate, sort only orders the result.")
+    @GetMapping(value = "/latestForKeyword")
+    public List<ArticleSummary> latestForKeyword(@ApiQueryParam(description = "The keyword to look for.", name = "keyword")
+                                                 @RequestParam
+                                                 String keyword,
+                                                 @ApiQueryParam(description = "Maximum number of articles.", name = "limit", required = false)
+                                                 @RequestParam(defaultValue = "10")
+                                                 int limit,
+                                                 @ApiQueryParam(description = "DESC for newest first, ASC for oldest first.", name = "sort", required = false, allowedvalues = {"DESC", "ASC"})
+                                                 @RequestParam(defaultValue = "DESC")
+                                                 Sort.Direction sort,
+                                                 WebRequest webRequest) {
+        return unlessNotModified(webRequest, articleService.findLatestByKeyword(keyword, limit, sort));
+    }
+
+    /**
+     * Sets ETag and Last-Modified of an article and checks the conditional headers of the request against them.
+     *
+     * @return true if the response status was set to 304 - the body must not be written
+     */
+    private boolean checkNotModified(WebRequest webRequest, ArticleVersion version) {
+
+        String eTag = version.getVersion() == null ? null : "W/\"" + version.getVersion() + "\"";
+        long lastModified = version.getLastModified() == null ? -1 : version.getLastModified().getTime();
+        return webRequest.checkNotModified(eTag, lastModified);
+    }
+
+    /**
+     * Checks the conditional headers of the request without setting any response header or status: once set,
+     * ETag and Last-Modified are not replaced by a later check.
+     *
+     * @return true if the article was not modified
+     */
+    private boolean isNotModified(WebRequest webRequest, ArticleVersion version) {
+
+        HttpServletRequest request = webRequest instanceof NativeWebRequest
+                ? ((NativeWebRequest) webRequest).getNativeRequest(HttpServletRequest.class)
+                : null;
+        return request != null && checkNotModified(new ServletWebRequest(request), version);
+    }
+
+    private static ResponseEntity<byte[]> toResponse(EncodedArticle encodedArticle) {
+        return ResponseEntity.ok().contentType(encodedArticle.getContentType()).body(encodedArticle.getBody());
+    }
+
+    /**
+     * Lists have no version of their own, so the query still runs - the ETag is a SHA-256 digest of the ids and
+     * versions of the articles, in order. Every change of a listed summary increments the version of its article,
+     * so the body itself is not needed. There is no Last-Modified, as it would miss deleted articles.
+     *
+     * @return the articles - null if the response status was set to 304
+     */
+    private List<ArticleSummary> unlessNotModified(WebRequest webRequest, List<ArticleSummary> articles) {
+        return webRequest.checkNotModified(eTagOf(articles)) ? null : articles;
+    }
+
+    /**
+     * The next cursor is derived from the last article, so the articles of a page are enough for its ETag.
+     *
+     * @return the page - null if the response status was set to 304
+     */
+    private ArticlePage<ArticleSummary> unlessNotModified(WebRequest webRequest, ArticlePage<ArticleSummary> page) {
+        return webRequest.checkNotModified(eTagOf(page.getItems())) ? null : page;
+    }
+
+    private static String eTagOf(List<ArticleSummary> articles) {
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+        ByteBuffer version = ByteBuffer.allocate(Long.BYTES);
+        for (ArticleSummary article : articles) {
+            digest.update(article.getArticleId().getBytes(StandardCharsets.UTF_8));
+            // articles stored before versioning was introduced have version 0
+            version.clear();
+            version.putLong(article.getVersion() == null ? 0 : article.getVersion());
+            digest.update(version.array());
+        }
+        return "W/\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest()) + "\"";
+    }
+
+    /**
+     * Writes the articles one per line while they come off the database cursor, so memory usage does not
+     * depend on the size of the result. The stream is closed in any case.
+     *
+     * @param articles     the articles to write
+     * @param outputStream the response body
+     * @throws IOException if the client went away
+     */
+    private void writeNdjson(Stream<?> articles, OutputStream outputStream) throws IOException {
+
+        try (Stream<?> closeableArticles = articles) {
+            Iterator<?> iterator = closeableArticles.iterator();
+            while (iterator.hasNext()) {
+                outputStream.write(objectMapper.writeValueAsBytes(iterator.next()));
+                outputStream.write('\n');
+            }
+        }
     }
 
     /**
@@ -159,6 +575,27 @@ public class ArticleController {
                 HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * An ExceptionHandler for this controller. Json errors found while a bulk request is read item by item
+     * will return a simplified ErrorDetails message. HTTP status code is 400 - Bad request.
+     * Note that the chunks before the erroneous item have already been written.
+     *
+     * @param ex      the thrown Exception
+     * @param request information on the original request
+     * @return ErrorDetails as json String
+     */
+    @ExceptionHandler(RuntimeJsonMappingException.class)
+    public ResponseEntity<ErrorDetails> handleBulkJsonSyntaxException(RuntimeJsonMappingException ex,
+                                                                      WebRequest request) {
+
+        return new ResponseEntity<>(new ErrorDetails(
+                new Date(),
+                ex.getMessage(),
+                "The given data is no valid Json.",
+                request.getDescription(false)),
+                HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * An ExceptionHandler for this controller. All ArticleNotFoundException will return a simplified
      * ErrorDetails message. HTTP status code is 404 - Not found.
@@ -178,4 +615,64 @@ public class ArticleController {
                 HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * An ExceptionHandler for this controller. All OptimisticLockingFailureException will return a simplified
+     * ErrorDetails message. HTTP status code is 409 - Conflict.
+     *
+     * @param ex      the thrown Exception
+     * @param request information on the original request
+     * @return ErrorDetails as json String
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorDetails> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex,
+                                                                                WebRequest request) {
+
+        return new ResponseEntity<>(new ErrorDetails(
+                new Date(),
+                ex.getMessage(),
+                "The article was changed in the meantime, please reload it and try again.",
+                request.getDescription(false)),
+                HttpStatus.CONFLICT);
+    }
+
+    /**
+     * An ExceptionHandler for this controller. All SearchUnavailableException will return a simplified
+     * ErrorDetails message. HTTP status code is 503 - Service unavailable.
+     *
+     * @param ex      the thrown Exception
+     * @param request information on the original request
+     * @return ErrorDetails as json String
+     */
+    @ExceptionHandler(SearchUnavailableException.class)
+    public ResponseEntity<ErrorDetails> handleSearchUnavailableException(SearchUnavailableException ex,
+                                                                         WebRequest request) {
+
+        return new ResponseEntity<>(new ErrorDetails(
+                new Date(),
+                ex.getMessage(),
+                "The search is not available right now, please try again later.",
+                request.getDescription(false)),
+                HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * An ExceptionHandler for this controller. All WriteQueueFullException will return a simplified
+     * ErrorDetails message. HTTP status code is 503 - Service unavailable.
+     *
+     * @param ex      the thrown Exception
+     * @param request information on the original request
+     * @return ErrorDetails as json String
+     */
+    @ExceptionHandler(WriteQueueFullException.class)
+    public ResponseEntity<ErrorDetails> handleWriteQueueFullException(WriteQueueFullException ex,
+                                                                      WebRequest request) {
+
+        return new ResponseEntity<>(new ErrorDetails(
+                new Date(),
+                ex.getMessage(),
+                "Too many changes are waiting to be stored, please try again later.",
+                request.getDescription(false)),
+                HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
 }
@@ -0,0 +1,108 @@
+package com.upday.news.controller;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upday.news.cache.EncodedArticle;
+import com.upday.news.model.Article;
+import com.upday.news.model.ArticleVersion;
+
+/**
+ * Encodes an article the way the message converters would write it - with their object mappers - so the result
+ * can be cached and written as plain bytes. Supports json, Smile and CBOR (see {@link WireFormatConfig}).
+ */
+@Component
+@Profile("!reactive")
+public class ArticleResponseEncoder {
+
+    /**
+     * The supported content types in order of preference (for wildcard Accept headers) and their mappers.
+     */
+    private final Map<MediaType, ObjectMapper> objectMappers = new LinkedHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param jsonConverter  the json converter of Spring MVC
+     * @param smileConverter the Smile converter of Spring MVC
+     * @param cborConverter  the CBOR converter of Spring MVC
+     */
+    @Autowired
+    public ArticleResponseEncoder(MappingJackson2HttpMessageConverter jsonConverter,
+                                  MappingJackson2SmileHttpMessageConverter smileConverter,
+                                  MappingJackson2CborHttpMessageConverter cborConverter) {
+
+        // the json converter adds the charset, too
+        objectMappers.put(MediaType.APPLICATION_JSON_UTF8, jsonConverter.getObjectMapper());
+        objectMappers.put(MediaType.valueOf(WireFormatConfig.APPLICATION_SMILE_VALUE),
+                smileConverter.getObjectMapper());
+        objectMappers.put(MediaType.valueOf(WireFormatConfig.APPLICATION_CBOR_VALUE),
+                cborConverter.getObjectMapper());
+    }
+
+    /**
+     * Selects the content type of the response by the Accept header of the request.
+     *
+     * @param webRequest the request
+     * @return the content type - empty if no supported type is acceptable or the header is invalid, the response
+     * is then left to the message converters (which answer with an error)
+     */
+    public Optional<MediaType> negotiate(WebRequest webRequest) {
+
+        String[] accept = webRequest.getHeaderValues(HttpHeaders.ACCEPT);
+        List<MediaType> acceptedTypes;
+        try {
+            acceptedTypes = accept == null
+                    ? Collections.singletonList(MediaType.ALL)
+                    : MediaType.parseMediaTypes(StringUtils.arrayToCommaDelimitedString(accept));
+        } catch (InvalidMediaTypeException e) {
+            return Optional.empty();
+        }
+        if (acceptedTypes.isEmpty()) {
+            acceptedTypes = Collections.singletonList(MediaType.ALL);
+        }
+        MediaType.sortBySpecificityAndQuality(acceptedTypes);
+        for (MediaType acceptedType : acceptedTypes) {
+            for (MediaType contentType : objectMappers.keySet()) {
+                if (acceptedType.isCompatibleWith(contentType)) {
+                    return Optional.of(contentType);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Encodes an article.
+     *
+     * @param article     the article
+     * @param contentType one of the content types returned by {@link #negotiate(WebRequest)}
+     * @return the encoded article
+     * @throws JsonProcessingException if the article can not be encoded
+     */
+    public EncodedArticle encode(Article article, MediaType contentType) throws JsonProcessingException {
+
+        ObjectMapper objectMapper = objectMappers.get(contentType);
+        if (objectMapper == null) {
+            throw new IllegalArgumentException("Unsupported content type: " + contentType);
+        }
+        return new EncodedArticle(ArticleVersion.of(article), contentType, objectMapper.writeValueAsBytes(article));
+    }
+}
@@ -0,0 +1,15 @@
+package com.upday.news.controller;
+
+import org.jsondoc.spring.boot.starter.EnableJSONDoc;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The API documentation at /jsondoc-ui.html. Scanning the packages for the annotations takes a while at startup,
+ * so it can be switched off with news.jsondoc.enabled=false.
+ */
+@Configuration
+@EnableJSONDoc
+@ConditionalOnProperty(name = "news.jsondoc.enabled", havingValue = "true", matchIfMissing = true)
+public class JsonDocConfig {
+}
@@ -0,0 +1,155 @@
+package com.upday.news.controller;
+
+import java.util.Date;
+
+import javax.validation.ValidationException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import com.upday.news.error.ArticleNotFoundException;
+import com.upday.news.error.ErrorDetails;
+import com.upday.news.model.Article;
+import com.upday.news.model.ArticleSummary;
+import com.upday.news.service.ReactiveArticleService;
+
+/**
+ * The non-blocking variant of the basic article endpoints, served by WebFlux with the "reactive" profile
+ * instead of the {@link ArticleController}. Same paths, parameters and results - see the API documentation
+ * of the ArticleController. Paging, search, bulk and conditional requests are only offered by the
+ * ArticleController.
+ * The lists can be streamed as newline delimited json: the articles are then written as they are read from
+ * the database, and the database cursor is only read as fast as the client receives them (backpressure).
+ */
+@RestController
+@RequestMapping(value = "/article")
+@Profile("reactive")
+public class ReactiveArticleController {
+
+    private Logger log = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private ReactiveArticleService reactiveArticleService;
+
+    @RequestMapping(value = "/create", method = RequestMethod.POST)
+    public Mono<Article> create(@RequestBody Article article) {
+
+        log.debug("Creating new article: {}", article);
+        return reactiveArticleService.create(article);
+    }
+
+    @RequestMapping(value = "/update", method = RequestMethod.PUT)
+    public Mono<Article> update(@RequestBody Article article) {
+
+        log.debug("Updating existing article: {}", article);
+        return reactiveArticleService.update(article);
+    }
+
+    @DeleteMapping(value = "/delete")
+    public Mono<Article> delete(@RequestParam String articleId) {
+
+        log.debug("Deleting existing article: {}", articleId);
+        return reactiveArticleService.delete(articleId);
+    }
+
+    @GetMapping(value = "/display")
+    public Mono<Article> display(@RequestParam String articleId) {
+
+        log.debug("Displaying article with id: {}", articleId);
+        return reactiveArticleService.findById(articleId);
+    }
+
+    @GetMapping(value = "/listForAuthor",
+            produces = {MediaType.APPLICATION_JSON_VALUE, ArticleController.APPLICATION_NDJSON_VALUE})
+    public Flux<ArticleSummary> listForAuthor(@RequestParam String author) {
+
+        log.debug("Listing articles for author {}", author);
+        return reactiveArticleService.findByAuthor(author);
+    }
+
+    @GetMapping(value = "/listForPeriod",
+            produces = {MediaType.APPLICATION_JSON_VALUE, ArticleController.APPLICATION_NDJSON_VALUE})
+    public Flux<ArticleSummary> listForPeriod(@RequestParam Long from, @RequestParam Long to) {
+        return reactiveArticleService.findByPublishDateBetween(new Date(from), new Date(to));
+    }
+
+    @GetMapping(value = "/findByKeyword",
+            produces = {MediaType.APPLICATION_JSON_VALUE, ArticleController.APPLICATION_NDJSON_VALUE})
+    public Flux<ArticleSummary> findByKeyword(@RequestParam String keyword) {
+        return reactiveArticleService.findByKeyword(keyword);
+    }
+
+    /**
+     * An ExceptionHandler for this controller. All validation Exceptions will return a simplified ErrorDetails
+     * message. HTTP status code is 400 - Bad request.
+     *
+     * @param ex      the thrown Exception
+     * @param request the original request
+     * @return ErrorDetails as json String
+     */
+    @ExceptionHandler(ValidationException.class)
+    public ResponseEntity<ErrorDetails> handleInputValidationException(ValidationException ex,
+                                                                       ServerHttpRequest request) {
+        return error(ex, "The given data is incomplete or invalid.", request, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * An ExceptionHandler for this controller. All ArticleNotFoundException will return a simplified
+     * ErrorDetails message. HTTP status code is 404 - Not found.
+     *
+     * @param ex      the thrown Exception
+     * @param request the original request
+     * @return ErrorDetails as json String
+     */
+    @ExceptionHandler(ArticleNotFoundException.class)
+    public ResponseEntity<ErrorDetails> handleArticleNotFoundException(ArticleNotFoundException ex,
+                                                                       ServerHttpRequest request) {
+        return error(ex, "No article with this id found in database.", request, HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * An ExceptionHandler for this controller. All OptimisticLockingFailureException will return a simplified
+     * ErrorDetails message. HTTP status code is 409 - Conflict.
+     *
+     * @param ex      the thrown Exception
+     * @param request the original request
+     * @return ErrorDetails as json String
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorDetails> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex,
+                                                                                ServerHttpRequest request) {
+        return error(ex, "The article was changed in the meantime, please reload it and try again.", request,
+                HttpStatus.CONFLICT);
+    }
+
+    /**
+     * The same ErrorDetails as returned by the ArticleController - the path is formatted like the description
+     * of a servlet WebRequest.
+     */
+    private ResponseEntity<ErrorDetails> error(Exception ex, String details, ServerHttpRequest request,
+                                               HttpStatus status) {
+        return new ResponseEntity<>(new ErrorDetails(
+                new Date(),
+                ex.getMessage(),
+                details,
+                "uri=" + request.getPath().value()),
+                status);
+    }
+}
@@ -0,0 +1,45 @@
+package com.upday.news.controller;
+
+import java.util.Arrays;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.util.MimeType;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * WebFlux configuration of the "reactive" profile: application/x-ndjson is written as a stream - one json
+ * document per line, each flushed as soon as it is encoded - like application/stream+json.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveWebConfig implements WebFluxConfigurer {
+
+    private static final MediaType APPLICATION_NDJSON =
+            MediaType.valueOf(ArticleController.APPLICATION_NDJSON_VALUE);
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructor.
+     *
+     * @param objectMapper the ObjectMapper configured by Spring Boot
+     */
+    public ReactiveWebConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+
+        Jackson2JsonEncoder encoder = new Jackson2JsonEncoder(objectMapper,
+                MediaType.APPLICATION_JSON, new MimeType("application", "*+json"), APPLICATION_NDJSON);
+        encoder.setStreamingMediaTypes(Arrays.asList(MediaType.APPLICATION_STREAM_JSON, APPLICATION_NDJSON));
+        configurer.defaultCodecs().jackson2JsonEncoder(encoder);
+    }
+}
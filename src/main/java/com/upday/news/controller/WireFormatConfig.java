@@ -0,0 +1,46 @@
+package com.upday.news.controller;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Binary encodings of the article API besides json, selected by the Accept header of a request (and the
+ * Content-Type of a request body): {@value #APPLICATION_SMILE_VALUE} and {@value #APPLICATION_CBOR_VALUE}.
+ * Both carry the same documents as json - same field names, same date format - but are smaller and cheaper to
+ * encode and decode. Json stays the default if a client sends no or a wildcard Accept header.
+ * The converters replace the ones Spring MVC registers by default, which do not use the Jackson settings of
+ * Spring Boot (spring.jackson.*).
+ */
+@Configuration
+@Profile("!reactive")
+public class WireFormatConfig {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    public static final String APPLICATION_CBOR_VALUE = "application/cbor";
+
+    /**
+     * @param builder the (prototype) ObjectMapper builder configured by Spring Boot
+     * @return the converter of application/x-jackson-smile
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    /**
+     * @param builder the (prototype) ObjectMapper builder configured by Spring Boot
+     * @return the converter of application/cbor
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
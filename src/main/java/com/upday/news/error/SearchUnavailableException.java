@@ -0,0 +1,16 @@
+package com.upday.news.error;
+
+/**
+ * Business Exception. Indicates, that a search can not be answered right now, e.g. because the search index
+ * is switched off or still being built.
+ */
+public class SearchUnavailableException extends RuntimeException {
+
+    /**
+     * Constructor.
+     * @param message a meaningful message about the Exception
+     */
+    public SearchUnavailableException(String message) {
+        super(message);
+    }
+}
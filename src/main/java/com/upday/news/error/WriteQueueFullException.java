@@ -0,0 +1,16 @@
+package com.upday.news.error;
+
+/**
+ * Business Exception. Indicates, that a write can not be accepted right now, because too many accepted writes
+ * are still waiting to be stored.
+ */
+public class WriteQueueFullException extends RuntimeException {
+
+    /**
+     * Constructor.
+     * @param message a meaningful message about the Exception
+     */
+    public WriteQueueFullException(String message) {
+        super(message);
+    }
+}
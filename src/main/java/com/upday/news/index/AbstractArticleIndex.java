@@ -0,0 +1,190 @@
+package com.upday.news.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import com.upday.news.model.Article;
+
+/**
+ * The common part of the in-process indexes: the indexed content is guarded by a read-write lock, and a rebuild
+ * does not block lookups or writes while the articles are read from the database. The new content is built off
+ * to the side while the current one keeps answering. The writes that happen meanwhile are applied to the current
+ * content and recorded; right before the new content replaces the current one, they are applied to it as well -
+ * under the write lock, which is only held for this replay and the swap. So no change is lost.
+ * The index is only used for lookups after the first rebuild (see {@link #isActive()}).
+ *
+ * @param <C> the indexed content - not thread safe, guarded by the lock of the index
+ */
+abstract class AbstractArticleIndex<C> implements ArticleIndex {
+
+    private final boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Object rebuildLock = new Object();
+
+    private C content;
+
+    /**
+     * The writes since the running rebuild started - null if no rebuild is running. Guarded by the lock.
+     */
+    private List<Consumer<C>> changesDuringRebuild;
+
+    private volatile boolean ready;
+
+    /**
+     * Constructor.
+     *
+     * @param enabled      false if the index is switched off in the configuration
+     * @param emptyContent the content until the first rebuild
+     */
+    AbstractArticleIndex(boolean enabled, C emptyContent) {
+        this.enabled = enabled;
+        this.content = emptyContent;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return true if the index is enabled and was built completely, so lookups can be answered by it
+     */
+    public boolean isActive() {
+        return enabled && ready;
+    }
+
+    @Override
+    public void index(Article article) {
+
+        if (enabled) {
+            write(indexing(article));
+        }
+    }
+
+    @Override
+    public void remove(String articleId) {
+
+        if (enabled) {
+            write(content -> remove(content, articleId));
+        }
+    }
+
+    /**
+     * Only one rebuild runs at a time. The stream is read without holding the lock. If reading fails, the
+     * current content stays in place.
+     */
+    @Override
+    public int rebuild(Stream<Article> articles) {
+
+        if (!enabled) {
+            return 0;
+        }
+        synchronized (rebuildLock) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            C newContent = null;
+            try {
+                newContent = build(articles);
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    if (newContent != null) {
+                        for (Consumer<C> change : changesDuringRebuild) {
+                            change.accept(newContent);
+                        }
+                        content = newContent;
+                        ready = true;
+                    }
+                    changesDuringRebuild = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            return size();
+        }
+    }
+
+    /**
+     * @return the number of indexed articles
+     */
+    public int size() {
+        return read(this::size);
+    }
+
+    /**
+     * Runs a lookup on the current content, holding the read lock.
+     *
+     * @param lookup the lookup
+     * @param <T>    the type of the result
+     * @return the result of the lookup
+     */
+    <T> T read(Function<C, T> lookup) {
+
+        lock.readLock().lock();
+        try {
+            return lookup.apply(content);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param article an article including its articleId
+     * @return the change that adds the article to a content, or replaces an indexed version of it - applied to
+     * the current content, and once more to the new content if a rebuild is running. Expensive work that does not
+     * depend on the content (e.g. analyzing texts) should be done before the change is returned.
+     */
+    abstract Consumer<C> indexing(Article article);
+
+    /**
+     * Removes an article from a content.
+     *
+     * @param content   the content
+     * @param articleId the id of the article
+     */
+    abstract void remove(C content, String articleId);
+
+    /**
+     * Builds a new content from all articles. Called without holding the lock - the content is not visible yet.
+     *
+     * @param articles all articles - only the indexed fields are used
+     * @return the new content
+     */
+    abstract C build(Stream<Article> articles);
+
+    /**
+     * @param content the content
+     * @return the number of indexed articles
+     */
+    abstract int size(C content);
+
+    /**
+     * Applies a change to the current content, holding the write lock - and to the new content, if a rebuild is
+     * running.
+     *
+     * @param change the change
+     */
+    void write(Consumer<C> change) {
+
+        lock.writeLock().lock();
+        try {
+            change.accept(content);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.upday.news.index;
+
+import java.util.stream.Stream;
+
+import com.upday.news.model.Article;
+
+/**
+ * An in-process index over articles. It is kept up to date by the ArticleService on every write and built
+ * from the database at startup by the {@link ArticleIndexLoader}.
+ */
+public interface ArticleIndex {
+
+    /**
+     * @return false if the index is switched off in the configuration - it is then neither built nor updated
+     */
+    boolean isEnabled();
+
+    /**
+     * @return the article fields the index needs - only these are read from the database for a rebuild
+     */
+    String[] getIndexedFields();
+
+    /**
+     * Adds an article or replaces an already indexed version of it.
+     *
+     * @param article an article including its articleId
+     */
+    void index(Article article);
+
+    /**
+     * Removes an article from the index.
+     *
+     * @param articleId the id of the article
+     */
+    void remove(String articleId);
+
+    /**
+     * Replaces the whole index content. The stream is not closed.
+     *
+     * @param articles all articles - only the indexed fields are used
+     * @return the number of indexed articles
+     */
+    int rebuild(Stream<Article> articles);
+}
@@ -0,0 +1,58 @@
+package com.upday.news.index;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import com.upday.news.model.Article;
+import com.upday.news.model.ArticleStore;
+
+/**
+ * Builds the in-process indexes from the article store at startup. Until then, all lookups go to the store.
+ */
+@Component
+public class ArticleIndexLoader implements ApplicationRunner {
+
+    private Logger log = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    ArticleStore articleStore;
+
+    @Autowired
+    List<ArticleIndex> articleIndexes;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rebuildAll();
+    }
+
+    /**
+     * Rebuilds all enabled indexes from the store.
+     */
+    public void rebuildAll() {
+        articleIndexes.stream()
+                .filter(ArticleIndex::isEnabled)
+                .forEach(this::rebuild);
+    }
+
+    /**
+     * Every index reads only the fields it needs, so e.g. the author/keyword index does not load the texts.
+     *
+     * @param articleIndex the index to build
+     */
+    private void rebuild(ArticleIndex articleIndex) {
+
+        long start = System.currentTimeMillis();
+        try (Stream<Article> articles = articleStore.streamAll(articleIndex.getIndexedFields())) {
+            int count = articleIndex.rebuild(articles);
+            log.info("Built {} for {} articles in {} ms", articleIndex.getClass().getSimpleName(),
+                    count, System.currentTimeMillis() - start);
+        }
+    }
+}
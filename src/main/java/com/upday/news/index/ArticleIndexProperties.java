@@ -0,0 +1,53 @@
+package com.upday.news.index;
+
+import java.time.Duration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration of the in-process article indexes (prefix "news.index" in application.properties).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "news.index")
+public class ArticleIndexProperties {
+
+    /**
+     * Switches the author/keyword index on or off. If off, all lookups go to the database.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Switches the full-text index on or off. There is no database fallback for full-text search, it answers 503
+     * while the index is off.
+     */
+    private boolean fullTextEnabled = false;
+
+    /**
+     * Switches the time-bucketed publishDate index on or off. If off, period lookups go to the database.
+     */
+    private boolean periodEnabled = false;
+
+    /**
+     * The time span of one bucket of the publishDate index - at most 24 days.
+     */
+    private Duration periodBucket = Duration.ofHours(1);
+
+    /**
+     * Buckets that end longer ago than this are compacted into immutable, densely packed segments.
+     */
+    private Duration periodCompactAfter = Duration.ofDays(2);
+
+    /**
+     * Switches the "latest N" feeds per author and keyword on or off. If off, the latest articles are read from
+     * the database.
+     */
+    private boolean feedsEnabled = false;
+
+    /**
+     * The number of articles kept per author and keyword feed - larger limits are read from the database.
+     */
+    private int feedSize = 50;
+}
@@ -0,0 +1,258 @@
+package com.upday.news.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.upday.news.model.Article;
+import com.upday.news.model.ArticleQuery;
+
+/**
+ * An in-process inverted index: author -> articles and keyword -> articles. Every article gets a compact int
+ * document id, the posting lists are sorted primitive int arrays. The index only knows articleIds - the articles
+ * themselves stay in the database.
+ * The index is only used after it was built completely (see {@link AbstractArticleIndex}).
+ */
+@Component
+public class ArticleTermIndex extends AbstractArticleIndex<ArticleTermIndex.Terms> {
+
+    private static final String[] INDEXED_FIELDS = {"authors", "keywords"};
+
+    /**
+     * Constructor.
+     *
+     * @param properties the index configuration
+     */
+    @Autowired
+    public ArticleTermIndex(ArticleIndexProperties properties) {
+        super(properties.isEnabled(), new Terms());
+    }
+
+    @Override
+    public String[] getIndexedFields() {
+        return INDEXED_FIELDS;
+    }
+
+    @Override
+    Consumer<Terms> indexing(Article article) {
+
+        IndexedArticle indexedArticle = new IndexedArticle(article);
+        return terms -> terms.index(indexedArticle);
+    }
+
+    @Override
+    void remove(Terms terms, String articleId) {
+        terms.remove(articleId);
+    }
+
+    @Override
+    Terms build(Stream<Article> articles) {
+
+        Terms terms = new Terms();
+        articles.forEach(article -> terms.index(new IndexedArticle(article)));
+        return terms;
+    }
+
+    @Override
+    int size(Terms terms) {
+        return terms.documents.size();
+    }
+
+    /**
+     * @param author name of the author to look for
+     * @return the ids of all articles of this author - empty if no match
+     */
+    public List<String> findByAuthor(String author) {
+        return read(terms -> find(terms, terms.authorPostings, author));
+    }
+
+    /**
+     * @param keyword one keyword to search for
+     * @return the ids of all articles containing this keyword - empty if no match
+     */
+    public List<String> findByKeyword(String keyword) {
+        return read(terms -> find(terms, terms.keywordPostings, keyword));
+    }
+
+    /**
+     * Evaluates the keyword/author terms of a boolean query (the period is not known to this index).
+     * The terms are evaluated cheapest first: the "all" posting lists are intersected from the shortest to the
+     * longest, so a selective term keeps the work for broad terms small. "any" and "not" terms only filter the
+     * remaining candidates.
+     *
+     * @param query the query
+     * @return the ids of all matching articles - empty if no match
+     */
+    public List<String> findMatching(ArticleQuery query) {
+        return read(terms -> findMatching(terms, query));
+    }
+
+    private List<String> findMatching(Terms terms, ArticleQuery query) {
+
+        List<PostingList> required = new ArrayList<>();
+        if (!collect(terms.authorPostings, query.getAllAuthors(), required)
+                || !collect(terms.keywordPostings, query.getAllKeywords(), required)) {
+            // a term that must match is unknown
+            return Collections.emptyList();
+        }
+        required.sort(Comparator.comparingInt(PostingList::size));
+
+        List<PostingList> optional = new ArrayList<>();
+        collect(terms.authorPostings, query.getAnyAuthors(), optional);
+        collect(terms.keywordPostings, query.getAnyKeywords(), optional);
+        boolean hasOptionalTerms = !query.getAnyAuthors().isEmpty() || !query.getAnyKeywords().isEmpty();
+
+        PostingList candidates;
+        if (!required.isEmpty()) {
+            candidates = required.get(0);
+            for (int i = 1; i < required.size() && !candidates.isEmpty(); i++) {
+                candidates = PostingLists.intersect(candidates, required.get(i));
+            }
+            if (hasOptionalTerms) {
+                candidates = retainAny(candidates, optional);
+            }
+        } else {
+            candidates = PostingLists.union(optional);
+        }
+
+        List<PostingList> excluded = new ArrayList<>();
+        collect(terms.authorPostings, query.getNotAuthors(), excluded);
+        collect(terms.keywordPostings, query.getNotKeywords(), excluded);
+        for (int i = 0; i < excluded.size() && !candidates.isEmpty(); i++) {
+            candidates = PostingLists.difference(candidates, excluded.get(i));
+        }
+        return toArticleIds(terms, candidates);
+    }
+
+    private List<String> find(Terms terms, Map<String, PostingList> postings, String term) {
+
+        PostingList postingList = postings.get(term);
+        return postingList == null ? Collections.emptyList() : toArticleIds(terms, postingList);
+    }
+
+    private List<String> toArticleIds(Terms terms, PostingList postingList) {
+
+        List<String> articleIds = new ArrayList<>(postingList.size());
+        for (int i = 0; i < postingList.size(); i++) {
+            articleIds.add(terms.documents.get(postingList.get(i)).articleId);
+        }
+        return articleIds;
+    }
+
+    /**
+     * Adds the posting lists of the terms to the target list.
+     *
+     * @return false if at least one term is unknown
+     */
+    private boolean collect(Map<String, PostingList> postings, List<String> terms, List<PostingList> target) {
+
+        boolean allKnown = true;
+        for (String term : terms) {
+            PostingList postingList = postings.get(term);
+            if (postingList == null) {
+                allKnown = false;
+            } else {
+                target.add(postingList);
+            }
+        }
+        return allKnown;
+    }
+
+    /**
+     * candidates AND (any1 OR any2 ...) - computed as union of the (small) intersections with the candidates.
+     */
+    private PostingList retainAny(PostingList candidates, List<PostingList> optional) {
+
+        List<PostingList> matches = new ArrayList<>(optional.size());
+        for (PostingList postingList : optional) {
+            matches.add(PostingLists.intersect(candidates, postingList));
+        }
+        return PostingLists.union(matches);
+    }
+
+    /**
+     * The content of the index.
+     */
+    static final class Terms {
+
+        /**
+         * Indexed articles by document id. The document ids of deleted articles are reused.
+         */
+        private final DocumentTable<IndexedArticle> documents = new DocumentTable<>();
+
+        private final Map<String, PostingList> authorPostings = new HashMap<>();
+
+        private final Map<String, PostingList> keywordPostings = new HashMap<>();
+
+        private void index(IndexedArticle indexedArticle) {
+
+            Integer oldDocId = documents.docId(indexedArticle.articleId);
+            if (oldDocId != null) {
+                removePostings(oldDocId);
+            }
+            int docId = documents.put(indexedArticle.articleId, indexedArticle);
+            addPostings(authorPostings, indexedArticle.authors, docId);
+            addPostings(keywordPostings, indexedArticle.keywords, docId);
+        }
+
+        private void remove(String articleId) {
+
+            Integer docId = documents.docId(articleId);
+            if (docId != null) {
+                removePostings(docId);
+                documents.remove(articleId);
+            }
+        }
+
+        private void addPostings(Map<String, PostingList> postings, String[] terms, int docId) {
+            for (String term : terms) {
+                postings.computeIfAbsent(term, key -> new PostingList()).add(docId);
+            }
+        }
+
+        private void removePostings(int docId) {
+
+            IndexedArticle indexedArticle = documents.get(docId);
+            removePostings(authorPostings, indexedArticle.authors, docId);
+            removePostings(keywordPostings, indexedArticle.keywords, docId);
+        }
+
+        private void removePostings(Map<String, PostingList> postings, String[] terms, int docId) {
+
+            for (String term : terms) {
+                PostingList postingList = postings.get(term);
+                if (postingList != null && postingList.remove(docId) && postingList.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    /**
+     * The indexed terms of one article - needed to remove its postings on update and delete.
+     */
+    private static final class IndexedArticle {
+
+        private static final String[] NO_TERMS = new String[0];
+
+        private final String articleId;
+
+        private final String[] authors;
+
+        private final String[] keywords;
+
+        private IndexedArticle(Article article) {
+            this.articleId = article.getArticleId();
+            this.authors = article.getAuthors() == null ? NO_TERMS : article.getAuthors().toArray(NO_TERMS);
+            this.keywords = article.getKeywords() == null ? NO_TERMS : article.getKeywords().toArray(NO_TERMS);
+        }
+    }
+}
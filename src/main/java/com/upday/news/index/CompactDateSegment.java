@@ -0,0 +1,95 @@
+package com.upday.news.index;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.bson.types.ObjectId;
+
+/**
+ * An immutable segment of an old bucket, packed as densely as possible: the publishDates are int offsets from the
+ * start of the bucket, and articleIds that are ObjectIds (the generated ones) are stored as 12 raw bytes each
+ * instead of a 24 character string. Both arrays are trimmed to the exact size.
+ */
+class CompactDateSegment extends DateSegment {
+
+    private static final int OBJECT_ID_LENGTH = 12;
+
+    private final long bucketStart;
+
+    private final int[] offsets;
+
+    /**
+     * All articleIds as packed ObjectIds - null if at least one articleId is no ObjectId.
+     */
+    private final byte[] objectIds;
+
+    /**
+     * The articleIds as strings - only used if they can not be packed.
+     */
+    private final String[] articleIds;
+
+    CompactDateSegment(long bucketStart, long[] publishDates, String[] articleIds, int size) {
+
+        this.bucketStart = bucketStart;
+        this.offsets = new int[size];
+        for (int i = 0; i < size; i++) {
+            offsets[i] = Math.toIntExact(publishDates[i] - bucketStart);
+        }
+        this.objectIds = pack(articleIds, size);
+        this.articleIds = objectIds == null ? Arrays.copyOf(articleIds, size) : null;
+    }
+
+    @Override
+    int size() {
+        return offsets.length;
+    }
+
+    @Override
+    long publishDate(int position) {
+        return bucketStart + offsets[position];
+    }
+
+    @Override
+    String articleId(int position) {
+        return objectIds == null
+                ? articleIds[position]
+                : new ObjectId(ByteBuffer.wrap(objectIds, position * OBJECT_ID_LENGTH, OBJECT_ID_LENGTH))
+                .toHexString();
+    }
+
+    @Override
+    MutableDateSegment toMutable() {
+
+        int size = size();
+        long[] publishDates = new long[size];
+        String[] ids = new String[size];
+        for (int i = 0; i < size; i++) {
+            publishDates[i] = publishDate(i);
+            ids[i] = articleId(i);
+        }
+        return new MutableDateSegment(bucketStart, publishDates, ids, size);
+    }
+
+    @Override
+    DateSegment compact() {
+        return this;
+    }
+
+    /**
+     * Only lower case hex ids are packed, so unpacking restores exactly the same string (and sort order).
+     */
+    private static byte[] pack(String[] articleIds, int size) {
+
+        byte[] packed = new byte[size * OBJECT_ID_LENGTH];
+        for (int i = 0; i < size; i++) {
+            String articleId = articleIds[i];
+            if (!ObjectId.isValid(articleId) || !articleId.equals(articleId.toLowerCase(Locale.ROOT))) {
+                return null;
+            }
+            new ObjectId(articleId).putToByteBuffer(ByteBuffer.wrap(packed, i * OBJECT_ID_LENGTH,
+                    OBJECT_ID_LENGTH));
+        }
+        return packed;
+    }
+}
@@ -0,0 +1,54 @@
+package com.upday.news.index;
+
+/**
+ * The articles of one time bucket of the {@link PublishDateIndex}, sorted by publishDate and articleId
+ * (ascending). Not thread safe - guarded by the owning index.
+ */
+abstract class DateSegment {
+
+    abstract int size();
+
+    abstract long publishDate(int position);
+
+    abstract String articleId(int position);
+
+    /**
+     * @return this segment if it can be changed, otherwise a changeable copy
+     */
+    abstract MutableDateSegment toMutable();
+
+    /**
+     * @return this segment if it is already compact, otherwise an immutable, densely packed copy
+     */
+    abstract DateSegment compact();
+
+    /**
+     * @return the position of the first article published after the date - size() if there is none
+     */
+    int positionAfter(long date) {
+        return search(date, false);
+    }
+
+    /**
+     * @return the position of the first article published at or after the date - size() if there is none
+     */
+    int positionFrom(long date) {
+        return search(date, true);
+    }
+
+    private int search(long date, boolean inclusive) {
+
+        int low = 0;
+        int high = size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            long middleDate = publishDate(middle);
+            if (middleDate < date || (!inclusive && middleDate == date)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,111 @@
+package com.upday.news.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The documents of an in-process index by compact int document id, plus the articleId -> document id mapping.
+ * The document ids of removed articles are reused for the next new articles, so the table (and the range of the
+ * ids in the posting lists) only grows with the number of articles, not with the number of writes. An updated
+ * article keeps its document id. Not thread safe - guarded by the owning index.
+ *
+ * @param <D> the type of the indexed documents
+ */
+class DocumentTable<D> {
+
+    private final Map<String, Integer> docIds = new HashMap<>();
+
+    private final List<D> documents = new ArrayList<>();
+
+    /**
+     * The ids of removed documents - a stack, so the most recently freed slot is reused first.
+     */
+    private int[] freeDocIds = new int[4];
+
+    private int freeCount;
+
+    /**
+     * @param articleId the id of the article
+     * @return the document id of the article - null if the article is not indexed
+     */
+    Integer docId(String articleId) {
+        return docIds.get(articleId);
+    }
+
+    /**
+     * @param docId a document id
+     * @return the document with this id - null if the slot is free
+     */
+    D get(int docId) {
+        return documents.get(docId);
+    }
+
+    /**
+     * Adds or replaces the document of an article.
+     *
+     * @param articleId the id of the article
+     * @param document  the document
+     * @return the document id - the old one if the article was indexed before
+     */
+    int put(String articleId, D document) {
+
+        Integer docId = docIds.get(articleId);
+        if (docId == null) {
+            if (freeCount > 0) {
+                docId = freeDocIds[--freeCount];
+            } else {
+                docId = documents.size();
+                documents.add(null);
+            }
+            docIds.put(articleId, docId);
+        }
+        documents.set(docId, document);
+        return docId;
+    }
+
+    /**
+     * Removes the document of an article and frees its document id.
+     *
+     * @param articleId the id of the article
+     * @return the freed document id - null if the article was not indexed
+     */
+    Integer remove(String articleId) {
+
+        Integer docId = docIds.remove(articleId);
+        if (docId != null) {
+            documents.set(docId, null);
+            if (freeCount == freeDocIds.length) {
+                freeDocIds = Arrays.copyOf(freeDocIds, freeCount * 2);
+            }
+            freeDocIds[freeCount++] = docId;
+        }
+        return docId;
+    }
+
+    /**
+     * @return the number of indexed articles
+     */
+    int size() {
+        return docIds.size();
+    }
+
+    /**
+     * @return the number of document slots - indexed articles plus free slots
+     */
+    int capacity() {
+        return documents.size();
+    }
+
+    /**
+     * Removes all documents.
+     */
+    void clear() {
+
+        docIds.clear();
+        documents.clear();
+        freeCount = 0;
+    }
+}
@@ -0,0 +1,340 @@
+package com.upday.news.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.upday.news.model.Article;
+
+/**
+ * An in-process full-text index over header, short description and text of all articles. Matches are ranked
+ * with BM25, where a term in the header counts three times and in the short description twice.
+ * Only the best k matches are kept in a bounded heap, and terms that can no longer lift a document into the
+ * top k are only looked up for the remaining candidates (MaxScore) - so the work depends on k rather than on
+ * the number of matching articles.
+ */
+@Component
+public class FullTextIndex extends AbstractArticleIndex<FullTextIndex.Documents> {
+
+    private static final String[] INDEXED_FIELDS = {"header", "shortDescription", "text"};
+
+    private static final int HEADER_WEIGHT = 3;
+
+    private static final int SHORT_DESCRIPTION_WEIGHT = 2;
+
+    private static final int TEXT_WEIGHT = 1;
+
+    /**
+     * BM25 term frequency saturation.
+     */
+    private static final double K1 = 1.2;
+
+    /**
+     * BM25 document length normalization.
+     */
+    private static final double B = 0.75;
+
+    /**
+     * Constructor.
+     *
+     * @param properties the index configuration
+     */
+    @Autowired
+    public FullTextIndex(ArticleIndexProperties properties) {
+        super(properties.isFullTextEnabled(), new Documents());
+    }
+
+    @Override
+    public String[] getIndexedFields() {
+        return INDEXED_FIELDS;
+    }
+
+    /**
+     * The texts are analyzed before the lock is taken.
+     */
+    @Override
+    Consumer<Documents> indexing(Article article) {
+
+        AnalyzedArticle analyzedArticle = new AnalyzedArticle(article);
+        return documents -> documents.index(analyzedArticle);
+    }
+
+    @Override
+    void remove(Documents documents, String articleId) {
+        documents.remove(articleId);
+    }
+
+    @Override
+    Documents build(Stream<Article> articles) {
+
+        Documents documents = new Documents();
+        articles.forEach(article -> documents.index(new AnalyzedArticle(article)));
+        return documents;
+    }
+
+    @Override
+    int size(Documents documents) {
+        return documents.documents.size();
+    }
+
+    /**
+     * Returns the best matching articles for a free text query. Every query term that occurs in an article
+     * raises its score - an article does not need to contain all terms.
+     *
+     * @param text the query, analyzed like the indexed texts
+     * @param k    the maximum number of results
+     * @return articleIds and their scores, best match first - empty if no match
+     */
+    public Map<String, Double> search(String text, int k) {
+        return read(documents -> search(documents, text, k));
+    }
+
+    private Map<String, Double> search(Documents documents, String text, int k) {
+
+        List<QueryTerm> terms = new ArrayList<>();
+        for (String term : new LinkedHashSet<>(TextAnalyzer.analyze(text))) {
+            TermPostings termPostings = documents.postings.get(term);
+            if (termPostings != null) {
+                terms.add(new QueryTerm(termPostings, idf(documents, termPostings.size())));
+            }
+        }
+        if (terms.isEmpty() || k < 1) {
+            return Collections.emptyMap();
+        }
+        return toArticleIds(documents, topK(documents, terms, k));
+    }
+
+    /**
+     * MaxScore document-at-a-time evaluation. The terms are sorted by their maximum possible contribution.
+     * Once the heap is full, the weakest terms whose summed maximum can not beat the current k-th score are
+     * "non essential": only documents of the essential terms are candidates, and the non essential terms are
+     * only looked up (by binary search) for these candidates.
+     */
+    private PriorityQueue<Hit> topK(Documents documents, List<QueryTerm> terms, int k) {
+
+        terms.sort(Comparator.comparingDouble(term -> term.upperBound));
+        double[] cumulatedUpperBounds = new double[terms.size()];
+        double sum = 0;
+        for (int i = 0; i < terms.size(); i++) {
+            sum += terms.get(i).upperBound;
+            cumulatedUpperBounds[i] = sum;
+        }
+        double averageLength = (double) documents.totalLength / documents.documents.size();
+
+        PriorityQueue<Hit> heap = new PriorityQueue<>(k, Hit.WORST_FIRST);
+        double threshold = 0;
+        int firstEssential = 0;
+        while (firstEssential < terms.size()) {
+
+            int candidate = Integer.MAX_VALUE;
+            for (int i = firstEssential; i < terms.size(); i++) {
+                QueryTerm term = terms.get(i);
+                if (term.position < term.postings.size()) {
+                    candidate = Math.min(candidate, term.postings.docId(term.position));
+                }
+            }
+            if (candidate == Integer.MAX_VALUE) {
+                break;
+            }
+
+            int length = documents.documents.get(candidate).length;
+            double score = 0;
+            for (int i = firstEssential; i < terms.size(); i++) {
+                QueryTerm term = terms.get(i);
+                if (term.position < term.postings.size() && term.postings.docId(term.position) == candidate) {
+                    score += term.score(term.postings.frequency(term.position), length, averageLength);
+                    term.position++;
+                }
+            }
+            for (int i = firstEssential - 1; i >= 0 && score + cumulatedUpperBounds[i] > threshold; i--) {
+                QueryTerm term = terms.get(i);
+                term.position = term.postings.advance(term.position, candidate);
+                if (term.position < term.postings.size() && term.postings.docId(term.position) == candidate) {
+                    score += term.score(term.postings.frequency(term.position), length, averageLength);
+                }
+            }
+
+            if (heap.size() < k) {
+                heap.add(new Hit(candidate, score));
+            } else if (score > heap.peek().score) {
+                heap.poll();
+                heap.add(new Hit(candidate, score));
+            }
+            if (heap.size() == k) {
+                threshold = heap.peek().score;
+                while (firstEssential < terms.size() && cumulatedUpperBounds[firstEssential] <= threshold) {
+                    firstEssential++;
+                }
+            }
+        }
+        return heap;
+    }
+
+    private Map<String, Double> toArticleIds(Documents documents, PriorityQueue<Hit> heap) {
+
+        List<Hit> hits = new ArrayList<>(heap);
+        hits.sort(Hit.WORST_FIRST.reversed());
+        Map<String, Double> scores = new LinkedHashMap<>();
+        for (Hit hit : hits) {
+            scores.put(documents.documents.get(hit.docId).articleId, hit.score);
+        }
+        return scores;
+    }
+
+    private double idf(Documents documents, int documentFrequency) {
+        return Math.log(1 + (documents.documents.size() - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private static int count(String text, int weight, Map<String, Integer> frequencies) {
+
+        List<String> terms = TextAnalyzer.analyze(text);
+        for (String term : terms) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+        return terms.size() * weight;
+    }
+
+    /**
+     * The content of the index.
+     */
+    static final class Documents {
+
+        /**
+         * Indexed documents by document id. The document ids of deleted articles are reused.
+         */
+        private final DocumentTable<IndexedDocument> documents = new DocumentTable<>();
+
+        private final Map<String, TermPostings> postings = new HashMap<>();
+
+        private long totalLength;
+
+        private void index(AnalyzedArticle article) {
+
+            Integer oldDocId = documents.docId(article.articleId);
+            if (oldDocId != null) {
+                removePostings(oldDocId);
+            }
+            int docId = documents.put(article.articleId, new IndexedDocument(article.articleId, article.length,
+                    article.frequencies.keySet().toArray(new String[0])));
+            totalLength += article.length;
+            for (Map.Entry<String, Integer> frequency : article.frequencies.entrySet()) {
+                postings.computeIfAbsent(frequency.getKey(), term -> new TermPostings())
+                        .put(docId, frequency.getValue());
+            }
+        }
+
+        private void remove(String articleId) {
+
+            Integer docId = documents.docId(articleId);
+            if (docId != null) {
+                removePostings(docId);
+                documents.remove(articleId);
+            }
+        }
+
+        private void removePostings(int docId) {
+
+            IndexedDocument document = documents.get(docId);
+            totalLength -= document.length;
+            for (String term : document.terms) {
+                TermPostings termPostings = postings.get(term);
+                if (termPostings != null) {
+                    termPostings.remove(docId);
+                    if (termPostings.size() == 0) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The weighted term frequencies of an article, computed without holding the lock.
+     */
+    private static final class AnalyzedArticle {
+
+        private final String articleId;
+
+        private final Map<String, Integer> frequencies = new HashMap<>();
+
+        private final int length;
+
+        private AnalyzedArticle(Article article) {
+            this.articleId = article.getArticleId();
+            this.length = count(article.getHeader(), HEADER_WEIGHT, frequencies)
+                    + count(article.getShortDescription(), SHORT_DESCRIPTION_WEIGHT, frequencies)
+                    + count(article.getText(), TEXT_WEIGHT, frequencies);
+        }
+    }
+
+    /**
+     * The distinct terms of one article - needed to remove its postings on update and delete.
+     */
+    private static final class IndexedDocument {
+
+        private final String articleId;
+
+        private final int length;
+
+        private final String[] terms;
+
+        private IndexedDocument(String articleId, int length, String[] terms) {
+            this.articleId = articleId;
+            this.length = length;
+            this.terms = terms;
+        }
+    }
+
+    /**
+     * A term of the current query with its read position in the posting list.
+     */
+    private static final class QueryTerm {
+
+        private final TermPostings postings;
+
+        private final double idf;
+
+        /**
+         * The term frequency part of BM25 is always below K1 + 1.
+         */
+        private final double upperBound;
+
+        private int position;
+
+        private QueryTerm(TermPostings postings, double idf) {
+            this.postings = postings;
+            this.idf = idf;
+            this.upperBound = idf * (K1 + 1);
+        }
+
+        private double score(int frequency, int length, double averageLength) {
+            return idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+        }
+    }
+
+    private static final class Hit {
+
+        private static final Comparator<Hit> WORST_FIRST = Comparator.<Hit>comparingDouble(hit -> hit.score)
+                .thenComparing(Comparator.<Hit>comparingInt(hit -> hit.docId).reversed());
+
+        private final int docId;
+
+        private final double score;
+
+        private Hit(int docId, double score) {
+            this.docId = docId;
+            this.score = score;
+        }
+    }
+}
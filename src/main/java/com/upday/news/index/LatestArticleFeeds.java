@@ -0,0 +1,187 @@
+package com.upday.news.index;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.upday.news.model.Article;
+import com.upday.news.model.ArticleSummary;
+
+/**
+ * Precomputed "latest N" feeds: the summaries of the newest articles per author and per keyword, each kept in a
+ * bounded {@link LatestFeed}. They are updated on every write, so the top of a feed is read without a database
+ * query. A feed can only answer up to the number of articles it still holds - after deletions of a full feed, the
+ * caller falls back to the database until newer articles filled it up again.
+ */
+@Component
+public class LatestArticleFeeds extends AbstractArticleIndex<LatestArticleFeeds.Feeds> {
+
+    private static final String[] INDEXED_FIELDS = {"header", "shortDescription", "publishDate", "authors",
+            "keywords", "version"};
+
+    private final int feedSize;
+
+    /**
+     * Constructor.
+     *
+     * @param properties the index configuration
+     */
+    @Autowired
+    public LatestArticleFeeds(ArticleIndexProperties properties) {
+        super(properties.isFeedsEnabled(), new Feeds(properties.getFeedSize()));
+        this.feedSize = properties.getFeedSize();
+    }
+
+    @Override
+    public String[] getIndexedFields() {
+        return INDEXED_FIELDS;
+    }
+
+    /**
+     * @return the maximum number of articles per feed
+     */
+    public int getFeedSize() {
+        return feedSize;
+    }
+
+    @Override
+    Consumer<Feeds> indexing(Article article) {
+
+        IndexedArticle indexedArticle = new IndexedArticle(article);
+        ArticleSummary summary = ArticleSummary.of(article);
+        return feeds -> feeds.index(article.getArticleId(), indexedArticle, summary);
+    }
+
+    @Override
+    void remove(Feeds feeds, String articleId) {
+        feeds.remove(articleId);
+    }
+
+    @Override
+    Feeds build(Stream<Article> articles) {
+
+        Feeds feeds = new Feeds(feedSize);
+        articles.forEach(article -> feeds.index(article.getArticleId(), new IndexedArticle(article),
+                ArticleSummary.of(article)));
+        return feeds;
+    }
+
+    @Override
+    int size(Feeds feeds) {
+        return feeds.articles.size();
+    }
+
+    /**
+     * @param author name of the author to look for
+     * @param limit  the maximum number of articles
+     * @return the newest articles of this author, newest first - empty if the feed can not answer this limit
+     */
+    public Optional<List<ArticleSummary>> findLatestByAuthor(String author, int limit) {
+        return findLatest(feeds -> feeds.authorFeeds, author, limit);
+    }
+
+    /**
+     * @param keyword one keyword to search for
+     * @param limit   the maximum number of articles
+     * @return the newest articles containing this keyword, newest first - empty if the feed can not answer this
+     * limit
+     */
+    public Optional<List<ArticleSummary>> findLatestByKeyword(String keyword, int limit) {
+        return findLatest(feeds -> feeds.keywordFeeds, keyword, limit);
+    }
+
+    private Optional<List<ArticleSummary>> findLatest(Function<Feeds, Map<String, LatestFeed>> feedsOfTerm,
+            String term, int limit) {
+
+        if (limit > feedSize) {
+            return Optional.empty();
+        }
+        return read(feeds -> {
+            LatestFeed feed = feedsOfTerm.apply(feeds).get(term);
+            if (feed == null) {
+                return Optional.of(Collections.emptyList());
+            }
+            return feed.canServe(limit) ? Optional.of(feed.latest(limit)) : Optional.empty();
+        });
+    }
+
+    /**
+     * The content of the index.
+     */
+    static final class Feeds {
+
+        private final int feedSize;
+
+        /**
+         * The terms of every indexed article - needed to remove it from its feeds on update and delete.
+         */
+        private final Map<String, IndexedArticle> articles = new HashMap<>();
+
+        private final Map<String, LatestFeed> authorFeeds = new HashMap<>();
+
+        private final Map<String, LatestFeed> keywordFeeds = new HashMap<>();
+
+        private Feeds(int feedSize) {
+            this.feedSize = feedSize;
+        }
+
+        private void index(String articleId, IndexedArticle indexedArticle, ArticleSummary summary) {
+
+            remove(articleId);
+            articles.put(articleId, indexedArticle);
+            for (String author : indexedArticle.authors) {
+                authorFeeds.computeIfAbsent(author, term -> new LatestFeed(feedSize)).add(summary);
+            }
+            for (String keyword : indexedArticle.keywords) {
+                keywordFeeds.computeIfAbsent(keyword, term -> new LatestFeed(feedSize)).add(summary);
+            }
+        }
+
+        private void remove(String articleId) {
+
+            IndexedArticle indexedArticle = articles.remove(articleId);
+            if (indexedArticle != null) {
+                removeFromFeeds(authorFeeds, indexedArticle.authors, articleId);
+                removeFromFeeds(keywordFeeds, indexedArticle.keywords, articleId);
+            }
+        }
+
+        private static void removeFromFeeds(Map<String, LatestFeed> feeds, String[] terms, String articleId) {
+
+            for (String term : terms) {
+                LatestFeed feed = feeds.get(term);
+                if (feed != null) {
+                    feed.remove(articleId);
+                    if (feed.isEmpty()) {
+                        feeds.remove(term);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The terms of one indexed article.
+     */
+    private static final class IndexedArticle {
+
+        private static final String[] NO_TERMS = new String[0];
+
+        private final String[] authors;
+
+        private final String[] keywords;
+
+        private IndexedArticle(Article article) {
+            this.authors = article.getAuthors() == null ? NO_TERMS : article.getAuthors().toArray(NO_TERMS);
+            this.keywords = article.getKeywords() == null ? NO_TERMS : article.getKeywords().toArray(NO_TERMS);
+        }
+    }
+}
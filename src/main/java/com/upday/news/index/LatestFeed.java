@@ -0,0 +1,143 @@
+package com.upday.news.index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import com.upday.news.model.ArticleSummary;
+
+/**
+ * The latest articles of one author or keyword: a ring buffer of at most capacity summaries, newest first.
+ * It always holds the newest articles of its term. Adding the newest article is O(1) - the head moves back and the
+ * oldest article is overwritten. An older article is inserted in place, and a removal shifts the older articles,
+ * both O(capacity). Not thread safe - guarded by the owning index.
+ */
+class LatestFeed {
+
+    /**
+     * publishDate descending, then articleId descending - the page order of the finders.
+     */
+    static final Comparator<ArticleSummary> NEWEST_FIRST = Comparator.comparing(ArticleSummary::getPublishDate)
+            .thenComparing(ArticleSummary::getArticleId)
+            .reversed();
+
+    private final ArticleSummary[] items;
+
+    private int head;
+
+    private int size;
+
+    /**
+     * The newest article that was dropped from the full feed - null as long as none was dropped, the feed then
+     * holds all articles of its term. All articles in the feed are newer than the dropped ones.
+     */
+    private ArticleSummary newestDropped;
+
+    LatestFeed(int capacity) {
+        this.items = new ArticleSummary[capacity];
+    }
+
+    /**
+     * Adds an article if it belongs to the newest articles of the term. An article that is not newer than the
+     * dropped ones is not added - the feed does not know the dropped articles between it and the kept ones.
+     */
+    void add(ArticleSummary article) {
+
+        if (newestDropped != null && NEWEST_FIRST.compare(article, newestDropped) >= 0) {
+            return;
+        }
+        int position = position(article);
+        if (size == items.length) {
+            if (position == size) {
+                drop(article);
+                return;
+            }
+            drop(get(size - 1));
+            set(--size, null);
+        }
+        if (position == 0) {
+            head = Math.floorMod(head - 1, items.length);
+        } else {
+            for (int i = size; i > position; i--) {
+                set(i, get(i - 1));
+            }
+        }
+        set(position, article);
+        size++;
+    }
+
+    /**
+     * Removes an article - the feed then holds one article less until newer ones are added.
+     */
+    void remove(String articleId) {
+
+        for (int position = 0; position < size; position++) {
+            if (get(position).getArticleId().equals(articleId)) {
+                for (int i = position; i < size - 1; i++) {
+                    set(i, get(i + 1));
+                }
+                set(--size, null);
+                return;
+            }
+        }
+    }
+
+    /**
+     * @param limit the maximum number of articles
+     * @return true if the feed knows the newest limit articles of its term
+     */
+    boolean canServe(int limit) {
+        return newestDropped == null || limit <= size;
+    }
+
+    /**
+     * @param limit the maximum number of articles
+     * @return the newest articles, newest first
+     */
+    List<ArticleSummary> latest(int limit) {
+
+        int count = Math.min(limit, size);
+        List<ArticleSummary> latest = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            latest.add(get(i));
+        }
+        return latest;
+    }
+
+    /**
+     * @return true if the feed holds no articles and none were dropped - the term is unknown
+     */
+    boolean isEmpty() {
+        return newestDropped == null && size == 0;
+    }
+
+    private void drop(ArticleSummary article) {
+
+        if (newestDropped == null || NEWEST_FIRST.compare(article, newestDropped) < 0) {
+            newestDropped = article;
+        }
+    }
+
+    private int position(ArticleSummary article) {
+
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (NEWEST_FIRST.compare(get(middle), article) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private ArticleSummary get(int position) {
+        return items[(head + position) % items.length];
+    }
+
+    private void set(int position, ArticleSummary article) {
+        items[(head + position) % items.length] = article;
+    }
+}
@@ -0,0 +1,101 @@
+package com.upday.news.index;
+
+import java.util.Arrays;
+
+/**
+ * A segment that is still written to: two growable parallel arrays of publishDates and articleIds.
+ */
+class MutableDateSegment extends DateSegment {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final long bucketStart;
+
+    private long[] publishDates;
+
+    private String[] articleIds;
+
+    private int size;
+
+    MutableDateSegment(long bucketStart) {
+        this(bucketStart, new long[INITIAL_CAPACITY], new String[INITIAL_CAPACITY], 0);
+    }
+
+    MutableDateSegment(long bucketStart, long[] publishDates, String[] articleIds, int size) {
+        this.bucketStart = bucketStart;
+        this.publishDates = publishDates;
+        this.articleIds = articleIds;
+        this.size = size;
+    }
+
+    /**
+     * Adds an article. Articles usually arrive in publishDate order, so this is mostly an append.
+     */
+    void add(long publishDate, String articleId) {
+
+        int position = size;
+        if (size > 0 && compare(size - 1, publishDate, articleId) > 0) {
+            position = positionFrom(publishDate);
+            while (position < size && compare(position, publishDate, articleId) < 0) {
+                position++;
+            }
+        }
+        if (size == publishDates.length) {
+            int capacity = size + (size >> 1) + 1;
+            publishDates = Arrays.copyOf(publishDates, capacity);
+            articleIds = Arrays.copyOf(articleIds, capacity);
+        }
+        System.arraycopy(publishDates, position, publishDates, position + 1, size - position);
+        System.arraycopy(articleIds, position, articleIds, position + 1, size - position);
+        publishDates[position] = publishDate;
+        articleIds[position] = articleId;
+        size++;
+    }
+
+    /**
+     * Removes an article.
+     */
+    void remove(long publishDate, String articleId) {
+
+        for (int position = positionFrom(publishDate); position < size && publishDates[position] == publishDate;
+             position++) {
+            if (articleIds[position].equals(articleId)) {
+                System.arraycopy(publishDates, position + 1, publishDates, position, size - position - 1);
+                System.arraycopy(articleIds, position + 1, articleIds, position, size - position - 1);
+                articleIds[--size] = null;
+                return;
+            }
+        }
+    }
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    long publishDate(int position) {
+        return publishDates[position];
+    }
+
+    @Override
+    String articleId(int position) {
+        return articleIds[position];
+    }
+
+    @Override
+    MutableDateSegment toMutable() {
+        return this;
+    }
+
+    @Override
+    DateSegment compact() {
+        return new CompactDateSegment(bucketStart, publishDates, articleIds, size);
+    }
+
+    private int compare(int position, long publishDate, String articleId) {
+
+        int result = Long.compare(publishDates[position], publishDate);
+        return result != 0 ? result : articleIds[position].compareTo(articleId);
+    }
+}
@@ -0,0 +1,100 @@
+package com.upday.news.index;
+
+import java.util.Arrays;
+
+/**
+ * A growable, ascending sorted list of primitive int document ids without duplicates. Document ids are handed
+ * out in increasing order, so adding is usually an append. Not thread safe - guarded by the owning index.
+ */
+public class PostingList {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int[] ids = new int[INITIAL_CAPACITY];
+
+    private int size;
+
+    /**
+     * Adds a document id.
+     *
+     * @param id the document id
+     * @return false if the id was already contained
+     */
+    public boolean add(int id) {
+
+        if (size > 0 && ids[size - 1] >= id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return false;
+            }
+            insertAt(-position - 1, id);
+        } else {
+            insertAt(size, id);
+        }
+        return true;
+    }
+
+    /**
+     * Removes a document id.
+     *
+     * @param id the document id
+     * @return false if the id was not contained
+     */
+    public boolean remove(int id) {
+
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return false;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+        return true;
+    }
+
+    /**
+     * @param id the document id
+     * @return true if the id is contained
+     */
+    public boolean contains(int id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    /**
+     * @param index position in the list
+     * @return the document id at this position
+     */
+    public int get(int index) {
+        return ids[index];
+    }
+
+    /**
+     * @return the number of document ids
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if the list contains no document ids
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return a sorted copy of the document ids
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    private void insertAt(int position, int id) {
+
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+        }
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        ids[position] = id;
+        size++;
+    }
+}
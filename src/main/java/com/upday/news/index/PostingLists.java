@@ -0,0 +1,108 @@
+package com.upday.news.index;
+
+import java.util.List;
+
+/**
+ * Set operations on sorted {@link PostingList}s. All operations walk the lists in ascending order. The larger
+ * list is skipped through with implicit skip pointers (every sqrt(n)-th element), so intersecting a short list
+ * with a long one costs about O(short * sqrt(long)) instead of O(short + long).
+ */
+public final class PostingLists {
+
+    private PostingLists() {
+    }
+
+    /**
+     * @param first  a posting list
+     * @param second another posting list
+     * @return the ids contained in both lists
+     */
+    public static PostingList intersect(PostingList first, PostingList second) {
+
+        PostingList smaller = first.size() <= second.size() ? first : second;
+        PostingList larger = smaller == first ? second : first;
+        int skip = skipDistance(larger);
+
+        PostingList result = new PostingList();
+        int position = 0;
+        for (int i = 0; i < smaller.size() && position < larger.size(); i++) {
+            int id = smaller.get(i);
+            position = advance(larger, position, id, skip);
+            if (position < larger.size() && larger.get(position) == id) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param ids      a posting list
+     * @param excluded the ids to remove
+     * @return the ids of the first list that are not contained in the second one
+     */
+    public static PostingList difference(PostingList ids, PostingList excluded) {
+
+        int skip = skipDistance(excluded);
+        PostingList result = new PostingList();
+        int position = 0;
+        for (int i = 0; i < ids.size(); i++) {
+            int id = ids.get(i);
+            position = advance(excluded, position, id, skip);
+            if (position == excluded.size() || excluded.get(position) != id) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param lists some posting lists
+     * @return the ids contained in at least one of the lists
+     */
+    public static PostingList union(List<PostingList> lists) {
+
+        PostingList result = new PostingList();
+        for (PostingList list : lists) {
+            result = merge(result, list);
+        }
+        return result;
+    }
+
+    private static PostingList merge(PostingList first, PostingList second) {
+
+        PostingList result = new PostingList();
+        int i = 0;
+        int j = 0;
+        while (i < first.size() || j < second.size()) {
+            if (j == second.size() || (i < first.size() && first.get(i) < second.get(j))) {
+                result.add(first.get(i++));
+            } else if (i == first.size() || second.get(j) < first.get(i)) {
+                result.add(second.get(j++));
+            } else {
+                result.add(first.get(i++));
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the position of the first id greater or equal to the target, starting at a known position.
+     * Follows the skip pointers while they do not overshoot the target, then scans the remaining block.
+     */
+    static int advance(PostingList list, int from, int target, int skip) {
+
+        int position = from;
+        while (position + skip < list.size() && list.get(position + skip) <= target) {
+            position += skip;
+        }
+        while (position < list.size() && list.get(position) < target) {
+            position++;
+        }
+        return position;
+    }
+
+    private static int skipDistance(PostingList list) {
+        return Math.max(1, (int) Math.sqrt(list.size()));
+    }
+}
@@ -0,0 +1,221 @@
+package com.upday.news.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.upday.news.model.Article;
+
+/**
+ * An in-process, time-bucketed index over the publishDate. Every bucket covers a fixed time span and holds the
+ * articleIds of its articles sorted by publishDate. A period lookup only visits the buckets that overlap the
+ * period, and only the two edge buckets are binary searched - so a recent window costs the same no matter how many
+ * older articles there are.
+ * Buckets that end longer ago than the configured age are compacted into immutable, densely packed segments on
+ * the next write. A late change to such an article turns its bucket back into a mutable one until the next write.
+ */
+@Component
+public class PublishDateIndex extends AbstractArticleIndex<PublishDateIndex.Buckets> {
+
+    private static final String[] INDEXED_FIELDS = {"publishDate"};
+
+    private final long bucketMillis;
+
+    private final long compactAfterMillis;
+
+    /**
+     * Constructor.
+     *
+     * @param properties the index configuration
+     */
+    @Autowired
+    public PublishDateIndex(ArticleIndexProperties properties) {
+
+        super(properties.isPeriodEnabled(), new Buckets(validBucketMillis(properties.getPeriodBucket().toMillis())));
+        this.bucketMillis = properties.getPeriodBucket().toMillis();
+        this.compactAfterMillis = properties.getPeriodCompactAfter().toMillis();
+    }
+
+    @Override
+    public String[] getIndexedFields() {
+        return INDEXED_FIELDS;
+    }
+
+    @Override
+    Consumer<Buckets> indexing(Article article) {
+
+        return buckets -> {
+            buckets.put(article);
+            buckets.compactBefore(System.currentTimeMillis() - compactAfterMillis);
+        };
+    }
+
+    @Override
+    void remove(Buckets buckets, String articleId) {
+        buckets.remove(articleId);
+    }
+
+    /**
+     * Old buckets are compacted once at the end, not while the articles arrive in arbitrary order.
+     */
+    @Override
+    Buckets build(Stream<Article> articles) {
+
+        Buckets buckets = new Buckets(bucketMillis);
+        articles.forEach(buckets::put);
+        buckets.compactBefore(System.currentTimeMillis() - compactAfterMillis);
+        return buckets;
+    }
+
+    @Override
+    int size(Buckets buckets) {
+        return buckets.publishDates.size();
+    }
+
+    /**
+     * @param from the start date (excluded)
+     * @param to   the end date (excluded)
+     * @return the ids of all articles within this period, newest first (then articleId descending)
+     */
+    public List<String> findBetween(Date from, Date to) {
+
+        long fromMillis = from.getTime();
+        long toMillis = to.getTime();
+        if (fromMillis >= toMillis) {
+            return Collections.emptyList();
+        }
+        return read(buckets -> buckets.findBetween(fromMillis, toMillis));
+    }
+
+    /**
+     * @return the number of compacted buckets
+     */
+    int compactedBuckets() {
+        return read(buckets -> buckets.buckets.size() - buckets.mutableBuckets.size());
+    }
+
+    /**
+     * Compacts all mutable buckets that end before the given time.
+     */
+    void compactBefore(long time) {
+        write(buckets -> buckets.compactBefore(time));
+    }
+
+    private static long validBucketMillis(long bucketMillis) {
+
+        if (bucketMillis < 1 || bucketMillis > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("news.index.period-bucket must be between 1ms and 24 days.");
+        }
+        return bucketMillis;
+    }
+
+    /**
+     * The content of the index.
+     */
+    static final class Buckets {
+
+        private final long bucketMillis;
+
+        private final PublishDateTable publishDates = new PublishDateTable();
+
+        /**
+         * The segments by the start of their bucket.
+         */
+        private final NavigableMap<Long, DateSegment> buckets = new TreeMap<>();
+
+        /**
+         * The starts of all buckets that are not compacted yet.
+         */
+        private final TreeSet<Long> mutableBuckets = new TreeSet<>();
+
+        private Buckets(long bucketMillis) {
+            this.bucketMillis = bucketMillis;
+        }
+
+        private List<String> findBetween(long fromMillis, long toMillis) {
+
+            List<String> articleIds = new ArrayList<>();
+            for (Map.Entry<Long, DateSegment> bucket : buckets
+                    .subMap(bucketStart(fromMillis), true, bucketStart(toMillis), true)
+                    .descendingMap().entrySet()) {
+                long start = bucket.getKey();
+                DateSegment segment = bucket.getValue();
+                // only the edge buckets need a search, all others are contained completely
+                int end = start + bucketMillis <= toMillis ? segment.size() : segment.positionFrom(toMillis);
+                int begin = start > fromMillis ? 0 : segment.positionAfter(fromMillis);
+                for (int position = end - 1; position >= begin; position--) {
+                    articleIds.add(segment.articleId(position));
+                }
+            }
+            return articleIds;
+        }
+
+        private void compactBefore(long time) {
+
+            while (!mutableBuckets.isEmpty() && mutableBuckets.first() + bucketMillis <= time) {
+                Long start = mutableBuckets.pollFirst();
+                buckets.put(start, buckets.get(start).compact());
+            }
+        }
+
+        private void put(Article article) {
+
+            if (article.getPublishDate() == null) {
+                return;
+            }
+            long publishDate = article.getPublishDate().getTime();
+            Long previousDate = publishDates.put(article.getArticleId(), publishDate);
+            if (previousDate != null) {
+                if (previousDate == publishDate) {
+                    return;
+                }
+                removeEntry(previousDate, article.getArticleId());
+            }
+            mutableSegment(bucketStart(publishDate)).add(publishDate, article.getArticleId());
+        }
+
+        private void remove(String articleId) {
+
+            Long publishDate = publishDates.remove(articleId);
+            if (publishDate != null) {
+                removeEntry(publishDate, articleId);
+            }
+        }
+
+        private void removeEntry(long publishDate, String articleId) {
+
+            long start = bucketStart(publishDate);
+            MutableDateSegment segment = mutableSegment(start);
+            segment.remove(publishDate, articleId);
+            if (segment.size() == 0) {
+                buckets.remove(start);
+                mutableBuckets.remove(start);
+            }
+        }
+
+        private MutableDateSegment mutableSegment(long start) {
+
+            DateSegment segment = buckets.get(start);
+            MutableDateSegment mutableSegment = segment == null ? new MutableDateSegment(start) : segment.toMutable();
+            if (mutableSegment != segment) {
+                buckets.put(start, mutableSegment);
+                mutableBuckets.add(start);
+            }
+            return mutableSegment;
+        }
+
+        private long bucketStart(long publishDate) {
+            return Math.floorDiv(publishDate, bucketMillis) * bucketMillis;
+        }
+    }
+}
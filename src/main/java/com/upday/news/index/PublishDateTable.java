@@ -0,0 +1,188 @@
+package com.upday.news.index;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The publishDate of every article of the {@link PublishDateIndex}. Generated articleIds are ObjectIds - 24 lower
+ * case hex digits, i.e. 96 bits - and are kept in parallel primitive arrays of an open addressing table (linear
+ * probing, backward shift deletion). A slot takes 21 bytes, and the table is kept between 3/8 and 3/4 full - so
+ * an article costs 28 to 56 bytes instead of the ~150 bytes of a HashMap entry with its String key and Long value.
+ * Any other articleId falls back to a HashMap.
+ * Not thread safe - guarded by the owning index.
+ */
+class PublishDateTable {
+
+    private static final int OBJECT_ID_LENGTH = 24;
+
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * The upper 64 bits of the ObjectIds.
+     */
+    private long[] highs = new long[MIN_CAPACITY];
+
+    /**
+     * The lower 32 bits of the ObjectIds.
+     */
+    private int[] lows = new int[MIN_CAPACITY];
+
+    private long[] dates = new long[MIN_CAPACITY];
+
+    private boolean[] used = new boolean[MIN_CAPACITY];
+
+    private int objectIdCount;
+
+    private final Map<String, Long> otherIds = new HashMap<>();
+
+    /**
+     * @param articleId   the id of the article
+     * @param publishDate the publishDate in millis
+     * @return the previous publishDate - null if the article was not contained
+     */
+    Long put(String articleId, long publishDate) {
+
+        if (!isObjectId(articleId)) {
+            return otherIds.put(articleId, publishDate);
+        }
+        long high = high(articleId);
+        int low = low(articleId);
+        int slot = find(high, low);
+        if (used[slot]) {
+            long previousDate = dates[slot];
+            dates[slot] = publishDate;
+            return previousDate;
+        }
+        highs[slot] = high;
+        lows[slot] = low;
+        dates[slot] = publishDate;
+        used[slot] = true;
+        if (++objectIdCount > used.length / 4 * 3) {
+            resize(used.length * 2);
+        }
+        return null;
+    }
+
+    /**
+     * @param articleId the id of the article
+     * @return the removed publishDate - null if the article was not contained
+     */
+    Long remove(String articleId) {
+
+        if (!isObjectId(articleId)) {
+            return otherIds.remove(articleId);
+        }
+        int slot = find(high(articleId), low(articleId));
+        if (!used[slot]) {
+            return null;
+        }
+        long publishDate = dates[slot];
+        used[slot] = false;
+        objectIdCount--;
+        shiftBack(slot);
+        return publishDate;
+    }
+
+    /**
+     * @return the number of contained articles
+     */
+    int size() {
+        return objectIdCount + otherIds.size();
+    }
+
+    /**
+     * @return the number of ObjectId slots
+     */
+    int capacity() {
+        return used.length;
+    }
+
+    /**
+     * @return the slot of the ObjectId - or the free slot it would be put into
+     */
+    private int find(long high, int low) {
+
+        int mask = used.length - 1;
+        int slot = hash(high, low) & mask;
+        while (used[slot] && (highs[slot] != high || lows[slot] != low)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Moves the following entries of the probe sequence into the freed slot where needed, so every entry stays
+     * reachable from its home slot without tombstones.
+     */
+    private void shiftBack(int freed) {
+
+        int mask = used.length - 1;
+        int slot = (freed + 1) & mask;
+        while (used[slot]) {
+            int home = hash(highs[slot], lows[slot]) & mask;
+            // the entry can move if its home slot is not within (freed, slot] - cyclically
+            if (((slot - home) & mask) >= ((slot - freed) & mask)) {
+                highs[freed] = highs[slot];
+                lows[freed] = lows[slot];
+                dates[freed] = dates[slot];
+                used[freed] = true;
+                used[slot] = false;
+                freed = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void resize(int capacity) {
+
+        long[] oldHighs = highs;
+        int[] oldLows = lows;
+        long[] oldDates = dates;
+        boolean[] oldUsed = used;
+        highs = new long[capacity];
+        lows = new int[capacity];
+        dates = new long[capacity];
+        used = new boolean[capacity];
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (oldUsed[i]) {
+                int slot = find(oldHighs[i], oldLows[i]);
+                highs[slot] = oldHighs[i];
+                lows[slot] = oldLows[i];
+                dates[slot] = oldDates[i];
+                used[slot] = true;
+            }
+        }
+    }
+
+    private static int hash(long high, int low) {
+
+        // the leading bytes of an ObjectId are its timestamp - mix all bits into the slot
+        long hash = (high ^ low) * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private static long high(String objectId) {
+        return Long.parseUnsignedLong(objectId.substring(0, 16), 16);
+    }
+
+    private static int low(String objectId) {
+        return Integer.parseUnsignedInt(objectId.substring(16), 16);
+    }
+
+    /**
+     * Only lower case hex digits are accepted, so an id maps back to exactly one string.
+     */
+    private static boolean isObjectId(String articleId) {
+
+        if (articleId.length() != OBJECT_ID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < OBJECT_ID_LENGTH; i++) {
+            char c = articleId.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
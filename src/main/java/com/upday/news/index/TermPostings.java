@@ -0,0 +1,78 @@
+package com.upday.news.index;
+
+import java.util.Arrays;
+
+/**
+ * A posting list of the full-text index: ascending document ids with the (weighted) frequency of the term in
+ * each document, stored in two parallel primitive arrays. Not thread safe - guarded by the owning index.
+ */
+class TermPostings {
+
+    private int[] docIds = new int[4];
+
+    private int[] frequencies = new int[4];
+
+    private int size;
+
+    /**
+     * Adds a document or replaces its frequency.
+     */
+    void put(int docId, int frequency) {
+
+        int position = size == 0 || docIds[size - 1] < docId
+                ? -size - 1
+                : Arrays.binarySearch(docIds, 0, size, docId);
+        if (position >= 0) {
+            frequencies[position] = frequency;
+            return;
+        }
+        position = -position - 1;
+        if (size == docIds.length) {
+            int capacity = size + (size >> 1) + 1;
+            docIds = Arrays.copyOf(docIds, capacity);
+            frequencies = Arrays.copyOf(frequencies, capacity);
+        }
+        System.arraycopy(docIds, position, docIds, position + 1, size - position);
+        System.arraycopy(frequencies, position, frequencies, position + 1, size - position);
+        docIds[position] = docId;
+        frequencies[position] = frequency;
+        size++;
+    }
+
+    /**
+     * Removes a document.
+     */
+    void remove(int docId) {
+
+        int position = Arrays.binarySearch(docIds, 0, size, docId);
+        if (position >= 0) {
+            System.arraycopy(docIds, position + 1, docIds, position, size - position - 1);
+            System.arraycopy(frequencies, position + 1, frequencies, position, size - position - 1);
+            size--;
+        }
+    }
+
+    /**
+     * @return the position of the first document id greater or equal to the target, searching from a position
+     */
+    int advance(int from, int target) {
+
+        if (from >= size || docIds[from] >= target) {
+            return from;
+        }
+        int position = Arrays.binarySearch(docIds, from, size, target);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    int docId(int position) {
+        return docIds[position];
+    }
+
+    int frequency(int position) {
+        return frequencies[position];
+    }
+
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,95 @@
+package com.upday.news.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits a text into index terms: lower case words (letters and digits), without stop words, reduced to a
+ * simple stem (plural, -ing, -ed and -ly suffixes of english words are removed). Indexed texts and queries
+ * are analyzed the same way, so e.g. "Elections" finds "election".
+ */
+public final class TextAnalyzer {
+
+    private static final int MIN_STEM_LENGTH = 3;
+
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "from", "has", "have", "he", "her",
+            "his", "in", "is", "it", "its", "of", "on", "or", "she", "that", "the", "their", "they", "this",
+            "to", "was", "were", "will", "with"));
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * @param text any text - may be null
+     * @return the terms of the text in their order of occurrence, including duplicates
+     */
+    public static List<String> analyze(String text) {
+
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordCharacter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordCharacter && start < 0) {
+                start = i;
+            } else if (!wordCharacter && start >= 0) {
+                String word = text.substring(start, i).toLowerCase(Locale.ROOT);
+                if (!STOP_WORDS.contains(word)) {
+                    terms.add(stem(word));
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * A light suffix stripping stemmer - much simpler than e.g. Porter, but good enough to match the
+     * common inflections of news texts.
+     *
+     * @param word a lower case word
+     * @return the stem of the word
+     */
+    static String stem(String word) {
+
+        String stem = word;
+        if (stem.endsWith("ies") && stem.length() > 4) {
+            stem = stem.substring(0, stem.length() - 3) + "y";
+        } else if (stem.endsWith("sses")) {
+            stem = stem.substring(0, stem.length() - 2);
+        } else if (stem.endsWith("s") && !stem.endsWith("ss") && !stem.endsWith("us") && !stem.endsWith("is")
+                && stem.length() > MIN_STEM_LENGTH) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+
+        if (stem.endsWith("ing") && stem.length() - 3 >= MIN_STEM_LENGTH) {
+            stem = undouble(stem.substring(0, stem.length() - 3));
+        } else if (stem.endsWith("ed") && stem.length() - 2 >= MIN_STEM_LENGTH) {
+            stem = undouble(stem.substring(0, stem.length() - 2));
+        } else if (stem.endsWith("ly") && stem.length() - 2 >= MIN_STEM_LENGTH) {
+            stem = stem.substring(0, stem.length() - 2);
+        }
+        return stem;
+    }
+
+    /**
+     * "stopp" (from "stopped") -> "stop", but "fall" (from "falling") stays "fall".
+     */
+    private static String undouble(String stem) {
+
+        int length = stem.length();
+        char last = stem.charAt(length - 1);
+        if (length > MIN_STEM_LENGTH && last == stem.charAt(length - 2) && "lsz".indexOf(last) < 0
+                && Character.isLetter(last)) {
+            return stem.substring(0, length - 1);
+        }
+        return stem;
+    }
+}
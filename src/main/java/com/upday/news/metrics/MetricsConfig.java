@@ -0,0 +1,50 @@
+package com.upday.news.metrics;
+
+import com.mongodb.MongoClientOptions;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics beyond the ones of Spring Boot (http.server.requests, jvm, ...): the @Timed service methods,
+ * the mongo command latencies and the response payload sizes. All meters are exposed at
+ * /actuator/prometheus - see management.* in application.properties for the histogram settings.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Times all methods annotated with @Timed.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    /**
+     * The options of the blocking mongo client, used by Spring Boot to create it.
+     */
+    @Bean
+    public MongoClientOptions mongoClientOptions(MeterRegistry registry) {
+        return MongoClientOptions.builder()
+                .addCommandListener(new MongoCommandMetrics(registry))
+                .build();
+    }
+
+    /**
+     * Adds the same command metrics to the reactive mongo client.
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoCommandMetricsCustomizer(MeterRegistry registry) {
+        return settings -> settings.addCommandListener(new MongoCommandMetrics(registry));
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public PayloadSizeFilter payloadSizeFilter(MeterRegistry registry) {
+        return new PayloadSizeFilter(registry);
+    }
+}
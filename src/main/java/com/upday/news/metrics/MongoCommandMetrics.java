@@ -0,0 +1,76 @@
+package com.upday.news.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.BsonValue;
+
+/**
+ * Times every command the mongo drivers send to the database (mongodb.driver.commands), tagged with the
+ * command (find, insert, getMore, ...), the collection and the outcome (SUCCESS or FAILED).
+ * The latency is the one measured by the driver - from sending the command to receiving the reply.
+ */
+public class MongoCommandMetrics implements CommandListener {
+
+    static final String METER_NAME = "mongodb.driver.commands";
+
+    private static final String UNKNOWN = "unknown";
+
+    private final MeterRegistry registry;
+
+    /**
+     * The collection of each running command by request id - the reply events do not contain it.
+     */
+    private final Map<Integer, String> collections = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param registry the registry the timers are added to
+     */
+    public MongoCommandMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+
+        // e.g. {find: "article", ...} or {getMore: 123, collection: "article"}
+        BsonValue collection = event.getCommand().get(event.getCommandName());
+        if (collection == null || !collection.isString()) {
+            collection = event.getCommand().get("collection");
+        }
+        if (collection != null && collection.isString()) {
+            collections.put(event.getRequestId(), collection.asString().getValue());
+        }
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        record(event.getRequestId(), event.getCommandName(), "SUCCESS", event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        record(event.getRequestId(), event.getCommandName(), "FAILED", event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    private void record(int requestId, String command, String status, long nanos) {
+
+        String collection = collections.remove(requestId);
+        Timer.builder(METER_NAME)
+                .description("Latency of the commands sent to mongo db.")
+                .tag("command", command)
+                .tag("collection", collection == null ? UNKNOWN : collection)
+                .tag("status", status)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,74 @@
+package com.upday.news.metrics;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.upday.news.model.ArticlePage;
+
+/**
+ * Records the number of results of every ArticleService method that returns a list, a page or a stream
+ * (article.service.results), tagged with the method. Streams are counted while they are consumed and recorded
+ * when they are closed.
+ */
+@Aspect
+@Component
+public class ResultSizeAspect {
+
+    static final String METER_NAME = "article.service.results";
+
+    private final MeterRegistry registry;
+
+    /**
+     * Constructor.
+     *
+     * @param registry the registry the distribution summaries are added to
+     */
+    @Autowired
+    public ResultSizeAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Measures the result of a service method.
+     *
+     * @param joinPoint the called method
+     * @return the result of the method - streams are wrapped to count their elements
+     * @throws Throwable any exception of the method
+     */
+    @Around("execution(public * com.upday.news.service.ArticleService.*(..))")
+    public Object recordResultSize(ProceedingJoinPoint joinPoint) throws Throwable {
+
+        Object result = joinPoint.proceed();
+        String method = joinPoint.getSignature().getName();
+        if (result instanceof Collection) {
+            summary(method).record(((Collection<?>) result).size());
+        } else if (result instanceof Map) {
+            summary(method).record(((Map<?, ?>) result).size());
+        } else if (result instanceof ArticlePage) {
+            summary(method).record(((ArticlePage<?>) result).getItems().size());
+        } else if (result instanceof Stream) {
+            AtomicLong count = new AtomicLong();
+            return ((Stream<?>) result)
+                    .peek(element -> count.incrementAndGet())
+                    .onClose(() -> summary(method).record(count.get()));
+        }
+        return result;
+    }
+
+    private DistributionSummary summary(String method) {
+        return DistributionSummary.builder(METER_NAME)
+                .description("Number of articles returned by a service method.")
+                .tag("method", method)
+                .register(registry);
+    }
+}
@@ -0,0 +1,65 @@
+package com.upday.news.metrics;
+
+import java.util.stream.Stream;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.upday.news.service.ArticleService;
+
+/**
+ * Times the ArticleService methods that return a stream with the same timer as the @Timed methods
+ * (article.service, tagged with class, method and exception). The streams are lazy, so a @Timed method would
+ * only measure the creation of the stream - here the time is recorded when the stream is closed and includes
+ * reading the whole result.
+ */
+@Aspect
+@Component
+public class StreamTimerAspect {
+
+    private final MeterRegistry registry;
+
+    /**
+     * Constructor.
+     *
+     * @param registry the registry the timers are added to
+     */
+    @Autowired
+    public StreamTimerAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Times a service method that returns a stream.
+     *
+     * @param joinPoint the called method
+     * @return the stream of the method, recording the time when it is closed
+     * @throws Throwable any exception of the method
+     */
+    @Around("execution(public java.util.stream.Stream com.upday.news.service.ArticleService.*(..))")
+    public Object timeUntilClosed(ProceedingJoinPoint joinPoint) throws Throwable {
+
+        Timer.Sample sample = Timer.start(registry);
+        Stream<?> stream;
+        try {
+            stream = (Stream<?>) joinPoint.proceed();
+        } catch (Throwable e) {
+            sample.stop(timer(joinPoint, e.getClass().getSimpleName()));
+            throw e;
+        }
+        return stream.onClose(() -> sample.stop(timer(joinPoint, "none")));
+    }
+
+    private Timer timer(ProceedingJoinPoint joinPoint, String exception) {
+        return Timer.builder(ArticleService.TIMER_NAME)
+                .tag("class", joinPoint.getStaticPart().getSignature().getDeclaringTypeName())
+                .tag("method", joinPoint.getStaticPart().getSignature().getName())
+                .tag("exception", exception)
+                .register(registry);
+    }
+}
@@ -15,10 +15,23 @@ import lombok.ToString;
 import org.jsondoc.core.annotation.ApiObject;
 import org.jsondoc.core.annotation.ApiObjectField;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
 
 /**
  * The main data structure of an article.
+ * The indexes match the finder methods of the {@link ArticleRepository}: authors and keywords are arrays, so
+ * their indexes are multikey indexes. All indexes end with publishDate and id (newest first), which is the sort
+ * order of paged lists.
  */
+@Document(collection = "article")
+@CompoundIndexes({
+        @CompoundIndex(name = "authors_publishDate", def = "{'authors': 1, 'publishDate': -1, '_id': -1}"),
+        @CompoundIndex(name = "keywords_publishDate", def = "{'keywords': 1, 'publishDate': -1, '_id': -1}"),
+        @CompoundIndex(name = "publishDate", def = "{'publishDate': -1, '_id': -1}")
+})
 @Getter
 @Setter
 @EqualsAndHashCode
@@ -54,4 +67,12 @@ public class Article {
     @NotEmpty(message = "At least one keyword must be set.")
     @ApiObjectField(description = "A list of keywords for this article. At least one must be set", required = true)
     private List<String> keywords;
+
+    @Version
+    @ApiObjectField(description = "The version of the article, incremented on every update. Send the version you "
+            + "read with an update - if the article was changed in the meantime, the update fails with 409.")
+    private Long version;
+
+    @ApiObjectField(description = "The time of the last change of the article. Set automatically - do not set!")
+    private Date lastModified;
 }
@@ -0,0 +1,67 @@
+package com.upday.news.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+import javax.validation.ValidationException;
+
+import lombok.Value;
+
+/**
+ * The position of the last article of a page. Pages are ordered by publishDate (newest first) and articleId, so
+ * the next page starts right after this position. Clients only see the encoded, opaque form.
+ */
+@Value
+public class ArticleCursor {
+
+    private static final String SEPARATOR = ":";
+
+    /**
+     * The publishDate of the last returned article.
+     */
+    private Date publishDate;
+
+    /**
+     * The articleId of the last returned article.
+     */
+    private String articleId;
+
+    /**
+     * Creates the cursor pointing behind this article.
+     *
+     * @param article the last article of a page
+     * @return a cursor for the next page
+     */
+    public static ArticleCursor after(ArticleSummary article) {
+        return new ArticleCursor(article.getPublishDate(), article.getArticleId());
+    }
+
+    /**
+     * Decodes a cursor as returned by {@link #encode()}.
+     *
+     * @param encodedCursor the opaque cursor
+     * @return the decoded cursor
+     * @throws ValidationException if the cursor is malformed
+     */
+    public static ArticleCursor decode(String encodedCursor) {
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(encodedCursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            return new ArticleCursor(
+                    new Date(Long.parseLong(decoded.substring(0, separator))),
+                    decoded.substring(separator + 1));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new ValidationException("cursor: The cursor is invalid.");
+        }
+    }
+
+    /**
+     * @return the opaque, url safe form of this cursor
+     */
+    public String encode() {
+        String plain = publishDate.getTime() + SEPARATOR + articleId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,128 @@
+package com.upday.news.model;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.util.ClassTypeInformation;
+
+/**
+ * Runs at startup: creates all indexes declared on {@link Article} that are missing in the database and logs the
+ * query plan of every finder method of the {@link ArticleRepository}. A finder that is answered by a collection
+ * scan (COLLSCAN) is logged as a warning.
+ */
+public class ArticleIndexVerifier implements ApplicationRunner {
+
+    private static final String COLLECTION_SCAN = "COLLSCAN";
+
+    private static final Document NEWEST_FIRST = new Document("publishDate", -1).append("_id", -1);
+
+    private Logger log = LoggerFactory.getLogger(getClass());
+
+    private final MongoTemplate mongoTemplate;
+
+    private final MongoMappingContext mappingContext;
+
+    /**
+     * Constructor.
+     *
+     * @param mongoTemplate  used to create indexes and to explain queries
+     * @param mappingContext used to resolve the indexes declared on the article class
+     */
+    public ArticleIndexVerifier(MongoTemplate mongoTemplate, MongoMappingContext mappingContext) {
+        this.mongoTemplate = mongoTemplate;
+        this.mappingContext = mappingContext;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        ensureIndexes();
+        explainFinders();
+    }
+
+    /**
+     * Creates the declared indexes. Creating an index that already exists is a no-op in mongo.
+     */
+    void ensureIndexes() {
+
+        IndexOperations indexOperations = mongoTemplate.indexOps(Article.class);
+        new MongoPersistentEntityIndexResolver(mappingContext)
+                .resolveIndexFor(ClassTypeInformation.from(Article.class))
+                .forEach(index -> {
+                    String name = indexOperations.ensureIndex((IndexDefinition) index);
+                    log.debug("Ensured index {}: {}", name, index.getIndexKeys());
+                });
+    }
+
+    /**
+     * Explains the queries issued by the finder methods, using sample values.
+     *
+     * @return the stages of the winning plan for each finder method
+     */
+    Map<String, List<String>> explainFinders() {
+
+        Date now = new Date();
+        Document period = new Document("publishDate", new Document("$gt", new Date(0)).append("$lt", now));
+
+        Map<String, List<String>> stagesByFinder = new LinkedHashMap<>();
+        stagesByFinder.put("findByAuthors", explain(new Document("authors", "author"), null));
+        stagesByFinder.put("findByKeywords", explain(new Document("keywords", "keyword"), null));
+        stagesByFinder.put("findByPublishDateBetween", explain(period, null));
+        stagesByFinder.put("findPageByAuthors", explain(new Document("authors", "author"), NEWEST_FIRST));
+        stagesByFinder.put("findPageByKeywords", explain(new Document("keywords", "keyword"), NEWEST_FIRST));
+        stagesByFinder.put("findPageByPublishDateBetween", explain(period, NEWEST_FIRST));
+
+        stagesByFinder.forEach((finder, stages) -> {
+            if (stages.contains(COLLECTION_SCAN)) {
+                log.warn("Finder {} is not backed by an index, query plan: {}", finder, stages);
+            } else {
+                log.info("Finder {} query plan: {}", finder, stages);
+            }
+        });
+        return stagesByFinder;
+    }
+
+    private List<String> explain(Document filter, Document sort) {
+
+        Document find = new Document("find", mongoTemplate.getCollectionName(Article.class)).append("filter", filter);
+        if (sort != null) {
+            find.append("sort", sort);
+        }
+        Document explanation = mongoTemplate.executeCommand(
+                new Document("explain", find).append("verbosity", "queryPlanner"));
+        log.debug("Explain {}: {}", find.toJson(), explanation.toJson());
+
+        List<String> stages = new ArrayList<>();
+        collectStages(explanation.get("queryPlanner", Document.class).get("winningPlan", Document.class), stages);
+        return stages;
+    }
+
+    /**
+     * Walks the plan tree from the root stage down to the leaves (e.g. FETCH -> IXSCAN).
+     */
+    private void collectStages(Document plan, List<String> stages) {
+
+        if (plan == null) {
+            return;
+        }
+        String stage = plan.getString("stage");
+        stages.add(plan.containsKey("indexName") ? stage + "(" + plan.getString("indexName") + ")" : stage);
+        collectStages(plan.get("inputStage", Document.class), stages);
+        List<?> inputStages = plan.get("inputStages", List.class);
+        if (inputStages != null) {
+            inputStages.forEach(inputStage -> collectStages((Document) inputStage, stages));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.upday.news.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.jsondoc.core.annotation.ApiObject;
+import org.jsondoc.core.annotation.ApiObjectField;
+
+/**
+ * One page of a list result.
+ *
+ * @param <T> the type of the listed items
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@ApiObject(name = "ArticlePage", description = "One page of articles, newest first.")
+public class ArticlePage<T> {
+
+    @ApiObjectField(description = "The articles of this page.")
+    private List<T> items;
+
+    @ApiObjectField(description = "Pass this value as cursor to get the next page. Not set on the last page.")
+    private String nextCursor;
+}
@@ -0,0 +1,83 @@
+package com.upday.news.model;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A boolean search over keywords and authors, optionally restricted to a period.
+ * An article matches if it has all "all" terms, at least one of the "any" terms (if there are any) and none of
+ * the "not" terms.
+ */
+@Data
+@NoArgsConstructor
+public class ArticleQuery {
+
+    private List<String> allKeywords = Collections.emptyList();
+
+    private List<String> allAuthors = Collections.emptyList();
+
+    private List<String> anyKeywords = Collections.emptyList();
+
+    private List<String> anyAuthors = Collections.emptyList();
+
+    private List<String> notKeywords = Collections.emptyList();
+
+    private List<String> notAuthors = Collections.emptyList();
+
+    /**
+     * Startdate of period, excluded like in {@link ArticleRepository#findByPublishDateBetween} - null for no
+     * restriction.
+     */
+    private Date from;
+
+    /**
+     * Enddate of period, excluded - null for no restriction.
+     */
+    private Date to;
+
+    /**
+     * @return true if at least one term must match - a query with only "not" terms would match almost everything
+     */
+    public boolean hasPositiveTerms() {
+        return !allKeywords.isEmpty() || !allAuthors.isEmpty() || !anyKeywords.isEmpty() || !anyAuthors.isEmpty();
+    }
+
+    /**
+     * @return true if the query is restricted to a period
+     */
+    public boolean hasPeriod() {
+        return from != null || to != null;
+    }
+
+    public void setAllKeywords(List<String> allKeywords) {
+        this.allKeywords = nullToEmpty(allKeywords);
+    }
+
+    public void setAllAuthors(List<String> allAuthors) {
+        this.allAuthors = nullToEmpty(allAuthors);
+    }
+
+    public void setAnyKeywords(List<String> anyKeywords) {
+        this.anyKeywords = nullToEmpty(anyKeywords);
+    }
+
+    public void setAnyAuthors(List<String> anyAuthors) {
+        this.anyAuthors = nullToEmpty(anyAuthors);
+    }
+
+    public void setNotKeywords(List<String> notKeywords) {
+        this.notKeywords = nullToEmpty(notKeywords);
+    }
+
+    public void setNotAuthors(List<String> notAuthors) {
+        this.notAuthors = nullToEmpty(notAuthors);
+    }
+
+    private static List<String> nullToEmpty(List<String> terms) {
+        return terms == null ? Collections.emptyList() : terms;
+    }
+}
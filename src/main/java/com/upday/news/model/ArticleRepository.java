@@ -1,7 +1,10 @@
 package com.upday.news.model;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
@@ -9,9 +12,10 @@ import org.springframework.stereotype.Repository;
 /**
  * The mongo repository encapsulates all actual data access like crud and finder methods.
  * Note that the basic crud and finder methods are already implemented in the base classes.
+ * Methods that can not be derived from their name are declared in {@link ArticleRepositoryCustom}.
  */
 @Repository
-public interface ArticleRepository extends MongoRepository<Article, String> {
+public interface ArticleRepository extends MongoRepository<Article, String>, ArticleRepositoryCustom {
 
     /**
      * Returns all articles where the author is included in the list of authors.
@@ -37,4 +41,91 @@ public interface ArticleRepository extends MongoRepository<Article, String> {
      * @return a list of matching articles - empty if no match
      */
     List<Article> findByPublishDateBetween(Date from, Date to);
+
+    /**
+     * Returns the summaries of all articles where the author is included in the list of authors.
+     * Only the fields of the projection type are read from the database.
+     *
+     * @param author name of the author to look for
+     * @param type   the projection, e.g. {@link ArticleSummary}
+     * @param <T>    the projection type
+     * @return a list of projections - empty if no match
+     */
+    <T> List<T> findByAuthors(String author, Class<T> type);
+
+    /**
+     * Returns the summaries of all articles containing a certain keyword.
+     * Only the fields of the projection type are read from the database.
+     *
+     * @param keyword one keyword to search for
+     * @param type    the projection, e.g. {@link ArticleSummary}
+     * @param <T>     the projection type
+     * @return a list of projections - empty if no match
+     */
+    <T> List<T> findByKeywords(String keyword, Class<T> type);
+
+    /**
+     * Returns the summaries of all articles within a certain time period.
+     * Only the fields of the projection type are read from the database.
+     *
+     * @param from the start date (included)
+     * @param to   the end date (excluded)
+     * @param type the projection, e.g. {@link ArticleSummary}
+     * @param <T>  the projection type
+     * @return a list of projections - empty if no match
+     */
+    <T> List<T> findByPublishDateBetween(Date from, Date to, Class<T> type);
+
+    /**
+     * Returns the projections of the articles with these ids, in no particular order.
+     * Used to hydrate the results of in-process index lookups.
+     *
+     * @param articleIds the ids to look for
+     * @param type       the projection, e.g. {@link ArticleSummary}
+     * @param <T>        the projection type
+     * @return a list of projections - unknown ids are skipped
+     */
+    <T> List<T> findByArticleIdIn(Collection<String> articleIds, Class<T> type);
+
+    /**
+     * Returns the projection of one article, e.g. only its {@link ArticleVersion}.
+     *
+     * @param articleId the id of the article
+     * @param type      the projection
+     * @param <T>       the projection type
+     * @return the projection - empty if there is no article with this id
+     */
+    <T> Optional<T> findByArticleId(String articleId, Class<T> type);
+
+    /**
+     * Streams all articles where the author is included in the list of authors. The articles are read from the
+     * database cursor one by one - the stream must be closed after use.
+     *
+     * @param author name of the author to look for
+     * @param type   the projection, e.g. {@link ArticleSummary}
+     * @param <T>    the projection type
+     * @return a stream of projections - empty if no match
+     */
+    <T> Stream<T> streamByAuthors(String author, Class<T> type);
+
+    /**
+     * Streams all articles containing a certain keyword. The stream must be closed after use.
+     *
+     * @param keyword one keyword to search for
+     * @param type    the projection, e.g. {@link ArticleSummary}
+     * @param <T>     the projection type
+     * @return a stream of projections - empty if no match
+     */
+    <T> Stream<T> streamByKeywords(String keyword, Class<T> type);
+
+    /**
+     * Streams all articles within a certain time period. The stream must be closed after use.
+     *
+     * @param from the start date (included)
+     * @param to   the end date (excluded)
+     * @param type the projection, e.g. {@link ArticleSummary}
+     * @param <T>  the projection type
+     * @return a stream of projections - empty if no match
+     */
+    <T> Stream<T> streamByPublishDateBetween(Date from, Date to, Class<T> type);
 }
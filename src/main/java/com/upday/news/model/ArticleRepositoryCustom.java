@@ -0,0 +1,118 @@
+package com.upday.news.model;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Data access methods which can not be expressed as derived queries. Implemented by
+ * {@link ArticleRepositoryCustomImpl} and mixed into the {@link ArticleRepository}.
+ */
+public interface ArticleRepositoryCustom {
+
+    /**
+     * Returns one page of article summaries of this author, ordered by publishDate (newest first) and articleId.
+     *
+     * @param author name of the author to look for
+     * @param after  the position of the last article of the previous page - null for the first page
+     * @param limit  the maximum number of articles to return
+     * @return a list of summaries - empty if no (more) match
+     */
+    List<ArticleSummary> findPageByAuthors(String author, ArticleCursor after, int limit);
+
+    /**
+     * Returns one page of article summaries containing a certain keyword, ordered by publishDate (newest first) and
+     * articleId.
+     *
+     * @param keyword one keyword to search for
+     * @param after   the position of the last article of the previous page - null for the first page
+     * @param limit   the maximum number of articles to return
+     * @return a list of summaries - empty if no (more) match
+     */
+    List<ArticleSummary> findPageByKeywords(String keyword, ArticleCursor after, int limit);
+
+    /**
+     * Returns one page of article summaries within a certain time period, ordered by publishDate (newest first) and
+     * articleId.
+     *
+     * @param from  the start date (excluded, like {@link ArticleRepository#findByPublishDateBetween})
+     * @param to    the end date (excluded)
+     * @param after the position of the last article of the previous page - null for the first page
+     * @param limit the maximum number of articles to return
+     * @return a list of summaries - empty if no (more) match
+     */
+    List<ArticleSummary> findPageByPublishDateBetween(Date from, Date to, ArticleCursor after, int limit);
+
+    /**
+     * Returns the summaries of all articles matching a boolean keyword/author query.
+     *
+     * @param query the query - at least one positive term must be set
+     * @return a list of summaries - empty if no match
+     */
+    List<ArticleSummary> findByQuery(ArticleQuery query);
+
+    /**
+     * Returns the summaries of the articles with these ids that were published within a period.
+     *
+     * @param articleIds the ids to look for
+     * @param from       the start date (excluded) - null for no restriction
+     * @param to         the end date (excluded) - null for no restriction
+     * @return a list of summaries - unknown ids are skipped
+     */
+    List<ArticleSummary> findByArticleIdInAndPeriod(Collection<String> articleIds, Date from, Date to);
+
+    /**
+     * Replaces an existing article and increments its version in one atomic operation. If the article has a
+     * version, it is only replaced if the stored article still has the same version - an article stored without
+     * a version has version 0. Never creates an article.
+     *
+     * @param article a valid article including its articleId
+     * @return the article as stored now - empty if there is no article with this id (and version)
+     */
+    Optional<Article> replaceExisting(Article article);
+
+    /**
+     * Deletes an article in one atomic operation.
+     *
+     * @param articleId the id of the article to delete
+     * @return the deleted article - empty if there is no article with this id
+     */
+    Optional<Article> removeExisting(String articleId);
+
+    /**
+     * Inserts the articles with one unordered bulk write. The articleIds must already be set.
+     *
+     * @param articles valid articles
+     * @return one result per article, in the same order - the index is the position in the list
+     */
+    List<BulkItemResult> bulkInsert(List<Article> articles);
+
+    /**
+     * Replaces the articles and increments their versions, one update per article in the order of the list.
+     * Articles that do not exist are not created. An article with a version is only replaced if the stored
+     * article still has the same version - otherwise its result is CONFLICT.
+     *
+     * @param articles valid articles including their articleId
+     * @return one result per article, in the same order - the index is the position in the list
+     */
+    List<BulkItemResult> bulkReplace(List<Article> articles);
+
+    /**
+     * Deletes the articles with one unordered bulk write.
+     *
+     * @param articleIds the ids of the articles to delete
+     * @return one result per id, in the same order - the index is the position in the list
+     */
+    List<BulkItemResult> bulkDelete(List<String> articleIds);
+
+    /**
+     * Streams all articles, reading only the given fields (and the id) from the database - all other fields of
+     * the returned articles are null. Used to build in-process indexes. The stream must be closed after use.
+     *
+     * @param fields the names of the fields to read
+     * @return a stream of partially filled articles
+     */
+    Stream<Article> streamAll(String... fields);
+}
@@ -0,0 +1,336 @@
+package com.upday.news.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.StreamUtils;
+
+/**
+ * Implementation of the custom data access methods based on the {@link MongoTemplate}.
+ */
+public class ArticleRepositoryCustomImpl implements ArticleRepositoryCustom {
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "publishDate", "articleId");
+
+    private static final String VERSION = "version";
+
+    private static final String LAST_MODIFIED = "lastModified";
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Constructor.
+     *
+     * @param mongoTemplate the template used for all queries
+     */
+    @Autowired
+    public ArticleRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<ArticleSummary> findPageByAuthors(String author, ArticleCursor after, int limit) {
+        return findPage(Criteria.where("authors").is(author), after, limit);
+    }
+
+    @Override
+    public List<ArticleSummary> findPageByKeywords(String keyword, ArticleCursor after, int limit) {
+        return findPage(Criteria.where("keywords").is(keyword), after, limit);
+    }
+
+    @Override
+    public List<ArticleSummary> findPageByPublishDateBetween(Date from, Date to, ArticleCursor after, int limit) {
+        return findPage(period(from, to), after, limit);
+    }
+
+    @Override
+    public List<ArticleSummary> findByQuery(ArticleQuery query) {
+
+        List<Criteria> criteria = new ArrayList<>();
+        if (!query.getAllAuthors().isEmpty()) {
+            criteria.add(Criteria.where("authors").all(query.getAllAuthors()));
+        }
+        if (!query.getAllKeywords().isEmpty()) {
+            criteria.add(Criteria.where("keywords").all(query.getAllKeywords()));
+        }
+        List<Criteria> anyOf = new ArrayList<>();
+        if (!query.getAnyAuthors().isEmpty()) {
+            anyOf.add(Criteria.where("authors").in(query.getAnyAuthors()));
+        }
+        if (!query.getAnyKeywords().isEmpty()) {
+            anyOf.add(Criteria.where("keywords").in(query.getAnyKeywords()));
+        }
+        if (!anyOf.isEmpty()) {
+            criteria.add(new Criteria().orOperator(anyOf.toArray(new Criteria[0])));
+        }
+        if (!query.getNotAuthors().isEmpty()) {
+            criteria.add(Criteria.where("authors").nin(query.getNotAuthors()));
+        }
+        if (!query.getNotKeywords().isEmpty()) {
+            criteria.add(Criteria.where("keywords").nin(query.getNotKeywords()));
+        }
+        if (query.hasPeriod()) {
+            criteria.add(period(query.getFrom(), query.getTo()));
+        }
+        return findSummaries(new Query(new Criteria().andOperator(criteria.toArray(new Criteria[0]))));
+    }
+
+    @Override
+    public List<ArticleSummary> findByArticleIdInAndPeriod(Collection<String> articleIds, Date from, Date to) {
+        return findSummaries(new Query(new Criteria().andOperator(
+                Criteria.where("articleId").in(articleIds), period(from, to))));
+    }
+
+    /**
+     * Uses findAndModify rather than findAndReplace: all fields are $set and the version is incremented by the
+     * database ($inc), so articles stored without a version, or updated without sending one, get a version too.
+     */
+    @Override
+    public Optional<Article> replaceExisting(Article article) {
+
+        Query query = byId(article.getArticleId());
+        if (article.getVersion() != null) {
+            query.addCriteria(versionIs(article.getVersion()));
+        }
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, toUpdate(article),
+                FindAndModifyOptions.options().returnNew(true).upsert(false), Article.class));
+    }
+
+    @Override
+    public Optional<Article> removeExisting(String articleId) {
+        return Optional.ofNullable(mongoTemplate.findAndRemove(byId(articleId), Article.class));
+    }
+
+    @Override
+    public List<BulkItemResult> bulkInsert(List<Article> articles) {
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Article.class);
+        bulk.insert(articles);
+        Map<Integer, String> errors = execute(bulk);
+
+        List<BulkItemResult> results = new ArrayList<>(articles.size());
+        for (int i = 0; i < articles.size(); i++) {
+            results.add(toResult(i, articles.get(i).getArticleId(), BulkItemResult.Status.CREATED, errors.get(i)));
+        }
+        return results;
+    }
+
+    /**
+     * Every article is updated on its own, in the order of the list: the matched count of an update tells
+     * whether exactly this article was replaced. An unordered bulk write only reports the matched count of all its
+     * updates, so an article changed by another writer during the bulk could not be told apart from one that was
+     * replaced and then changed - and several updates of the same article would run in any order. All fields are
+     * $set, which is the same as a replacement for a validated article, as all its fields are set. Only the
+     * articles that did not match are read afterwards, to tell missing ones from outdated ones.
+     */
+    @Override
+    public List<BulkItemResult> bulkReplace(List<Article> articles) {
+
+        List<BulkItemResult> results = new ArrayList<>(articles.size());
+        List<String> unmatchedIds = new ArrayList<>();
+        for (int i = 0; i < articles.size(); i++) {
+            Article article = articles.get(i);
+            Query query = byId(article.getArticleId());
+            if (article.getVersion() != null) {
+                query.addCriteria(versionIs(article.getVersion()));
+            }
+            try {
+                if (mongoTemplate.updateFirst(query, toUpdate(article), Article.class).getMatchedCount() > 0) {
+                    results.add(new BulkItemResult(i, article.getArticleId(), BulkItemResult.Status.UPDATED, null));
+                } else {
+                    unmatchedIds.add(article.getArticleId());
+                    results.add(null);
+                }
+            } catch (DataAccessException e) {
+                results.add(new BulkItemResult(i, article.getArticleId(), BulkItemResult.Status.FAILED,
+                        e.getMessage()));
+            }
+        }
+        if (unmatchedIds.isEmpty()) {
+            return results;
+        }
+        Set<String> existingIds = findExistingIds(unmatchedIds);
+        for (int i = 0; i < articles.size(); i++) {
+            if (results.get(i) == null) {
+                String articleId = articles.get(i).getArticleId();
+                results.set(i, existingIds.contains(articleId) ? conflict(i, articleId) : notFound(i, articleId));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public List<BulkItemResult> bulkDelete(List<String> articleIds) {
+
+        Set<String> existingIds = findExistingIds(articleIds);
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Article.class);
+        int[] operations = new int[articleIds.size()];
+        int operationCount = 0;
+        for (int i = 0; i < articleIds.size(); i++) {
+            operations[i] = -1;
+            if (existingIds.contains(articleIds.get(i))) {
+                bulk.remove(byId(articleIds.get(i)));
+                operations[i] = operationCount++;
+            }
+        }
+        Map<Integer, String> errors = operationCount == 0 ? Collections.emptyMap() : execute(bulk);
+
+        List<BulkItemResult> results = new ArrayList<>(articleIds.size());
+        for (int i = 0; i < articleIds.size(); i++) {
+            results.add(toResult(i, articleIds.get(i), existingIds, BulkItemResult.Status.DELETED,
+                    errors.get(operations[i])));
+        }
+        return results;
+    }
+
+    @Override
+    public Stream<Article> streamAll(String... fields) {
+
+        Query query = new Query();
+        for (String field : fields) {
+            query.fields().include(field);
+        }
+        return StreamUtils.createStreamFromIterator(mongoTemplate.stream(query, Article.class));
+    }
+
+    /**
+     * Keyset pagination: instead of skipping the articles of all previous pages, the query continues right
+     * behind the last returned (publishDate, articleId) pair. So every page costs the same, no matter how deep.
+     */
+    private List<ArticleSummary> findPage(Criteria filter, ArticleCursor after, int limit) {
+
+        Criteria criteria = filter;
+        if (after != null) {
+            criteria = new Criteria().andOperator(filter, new Criteria().orOperator(
+                    Criteria.where("publishDate").lt(after.getPublishDate()),
+                    Criteria.where("publishDate").is(after.getPublishDate())
+                            .and("articleId").lt(after.getArticleId())));
+        }
+        return findSummaries(Query.query(criteria).with(NEWEST_FIRST).limit(limit));
+    }
+
+    /**
+     * Only the summary fields (and the id) are read.
+     */
+    private List<ArticleSummary> findSummaries(Query query) {
+
+        query.fields().include("header").include("shortDescription").include("publishDate").include("authors")
+                .include(VERSION);
+        return mongoTemplate.find(query, ArticleSummary.class, mongoTemplate.getCollectionName(Article.class));
+    }
+
+    /**
+     * Both bounds are excluded, like in the derived findByPublishDateBetween query. Null means unbounded.
+     */
+    private Criteria period(Date from, Date to) {
+
+        Criteria period = Criteria.where("publishDate");
+        if (from != null) {
+            period.gt(from);
+        }
+        if (to != null) {
+            period.lt(to);
+        }
+        return period;
+    }
+
+    private Query byId(String articleId) {
+        return Query.query(Criteria.where("articleId").is(articleId));
+    }
+
+    /**
+     * Articles stored before versioning was introduced have no version - they match version 0.
+     */
+    private Criteria versionIs(long version) {
+        return version == 0
+                ? Criteria.where(VERSION).in(0L, null)
+                : Criteria.where(VERSION).is(version);
+    }
+
+    /**
+     * @return an update that sets all fields of the article, the modification time and increments its version
+     */
+    private Update toUpdate(Article article) {
+
+        Document document = new Document();
+        mongoTemplate.getConverter().write(article, document);
+        document.remove("_id");
+        document.remove(VERSION);
+        Update update = new Update();
+        document.forEach(update::set);
+        return update.set(LAST_MODIFIED, new Date()).inc(VERSION, 1);
+    }
+
+    /**
+     * One query for the whole chunk, reading only the ids.
+     */
+    private Set<String> findExistingIds(List<String> articleIds) {
+
+        Query query = Query.query(Criteria.where("articleId").in(articleIds));
+        query.fields().include("articleId");
+        return mongoTemplate.find(query, Article.class).stream()
+                .map(Article::getArticleId)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Executes an unordered bulk write: a failing operation does not stop the others.
+     *
+     * @return the error messages by position of the failed operation - empty if all operations succeeded
+     */
+    private Map<Integer, String> execute(BulkOperations bulk) {
+
+        try {
+            bulk.execute();
+            return Collections.emptyMap();
+        } catch (BulkOperationException e) {
+            Map<Integer, String> errors = new HashMap<>();
+            e.getErrors().forEach(error -> errors.put(error.getIndex(), error.getMessage()));
+            return errors;
+        }
+    }
+
+    private BulkItemResult toResult(int index, String articleId, Set<String> existingIds,
+                                    BulkItemResult.Status success, String error) {
+
+        if (!existingIds.contains(articleId)) {
+            return notFound(index, articleId);
+        }
+        return toResult(index, articleId, success, error);
+    }
+
+    private BulkItemResult toResult(int index, String articleId, BulkItemResult.Status success, String error) {
+        return error == null
+                ? new BulkItemResult(index, articleId, success, null)
+                : new BulkItemResult(index, articleId, BulkItemResult.Status.FAILED, error);
+    }
+
+    private static BulkItemResult notFound(int index, String articleId) {
+        return new BulkItemResult(index, articleId, BulkItemResult.Status.NOT_FOUND, "No article with this id.");
+    }
+
+    private static BulkItemResult conflict(int index, String articleId) {
+        return new BulkItemResult(index, articleId, BulkItemResult.Status.CONFLICT,
+                "The article was changed since the given version.");
+    }
+}
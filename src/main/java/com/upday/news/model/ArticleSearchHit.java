@@ -0,0 +1,19 @@
+package com.upday.news.model;
+
+import lombok.Value;
+import org.jsondoc.core.annotation.ApiObject;
+import org.jsondoc.core.annotation.ApiObjectField;
+
+/**
+ * One result of a full-text search.
+ */
+@Value
+@ApiObject(name = "ArticleSearchHit", description = "A matching article and its relevance.")
+public class ArticleSearchHit {
+
+    @ApiObjectField(description = "The summary of the matching article.")
+    private ArticleSummary article;
+
+    @ApiObjectField(description = "The relevance of the article (BM25) - higher is better.")
+    private double score;
+}
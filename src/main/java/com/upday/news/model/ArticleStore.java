@@ -0,0 +1,197 @@
+package com.upday.news.model;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * The storage of the articles, as used by the ArticleService. The backend is chosen with the property
+ * "news.store": "mongo" (default, {@link MongoArticleStore}) or "memory" ({@link InMemoryArticleStore}).
+ * With "news.write-behind.enabled" the mongo backend is wrapped by the
+ * {@link com.upday.news.writebehind.WriteBehindArticleStore}.
+ * All finders return summaries, periods exclude both bounds and pages are ordered by publishDate (newest first)
+ * and articleId - the same for every backend.
+ */
+public interface ArticleStore {
+
+    /**
+     * Stores a new article. The articleId is generated if it is not set, the version starts with 0.
+     *
+     * @param article a valid article
+     * @return the stored article including its articleId
+     * @throws org.springframework.dao.DuplicateKeyException if there already is an article with this id
+     */
+    Article insert(Article article);
+
+    /**
+     * Replaces an existing article and increments its version in one atomic operation. If the article has a
+     * version, it is only replaced if the stored article still has the same version - an article stored without
+     * a version has version 0. Never creates an article.
+     *
+     * @param article a valid article including its articleId
+     * @return the article as stored now - empty if there is no article with this id (and version)
+     */
+    Optional<Article> replaceExisting(Article article);
+
+    /**
+     * Deletes an article in one atomic operation.
+     *
+     * @param articleId the id of the article to delete
+     * @return the deleted article - empty if there is no article with this id
+     */
+    Optional<Article> removeExisting(String articleId);
+
+    /**
+     * Stores new articles. The articleIds must already be set.
+     *
+     * @param articles valid articles
+     * @return one result per article, in the same order - the index is the position in the list
+     */
+    List<BulkItemResult> bulkInsert(List<Article> articles);
+
+    /**
+     * Replaces the articles and increments their versions. Articles that do not exist are not created. Like in
+     * {@link #replaceExisting(Article)}, an article with a version is only replaced if the stored article still
+     * has the same version - otherwise its result is CONFLICT.
+     *
+     * @param articles valid articles including their articleId
+     * @return one result per article, in the same order - the index is the position in the list
+     */
+    List<BulkItemResult> bulkReplace(List<Article> articles);
+
+    /**
+     * Deletes the articles.
+     *
+     * @param articleIds the ids of the articles to delete
+     * @return one result per id, in the same order - the index is the position in the list
+     */
+    List<BulkItemResult> bulkDelete(List<String> articleIds);
+
+    /**
+     * @param articleId the id of the article
+     * @return true if there is an article with this id
+     */
+    boolean exists(String articleId);
+
+    /**
+     * @param articleId the id of the article
+     * @return the complete article - empty if there is no article with this id
+     */
+    Optional<Article> findById(String articleId);
+
+    /**
+     * @param articleId the id of the article
+     * @return only the version of the article - empty if there is no article with this id
+     */
+    Optional<ArticleVersion> findVersion(String articleId);
+
+    /**
+     * @param articleIds the ids to look for
+     * @return only the versions of the articles with these ids, in no particular order - unknown ids are skipped
+     */
+    List<ArticleVersion> findVersions(Collection<String> articleIds);
+
+    /**
+     * @param author name of the author to look for
+     * @return the summaries of all articles of this author - empty if no match
+     */
+    List<ArticleSummary> findByAuthor(String author);
+
+    /**
+     * @param keyword one keyword to search for
+     * @return the summaries of all articles containing this keyword - empty if no match
+     */
+    List<ArticleSummary> findByKeyword(String keyword);
+
+    /**
+     * @param from the start date (excluded)
+     * @param to   the end date (excluded)
+     * @return the summaries of all articles within this period - empty if no match
+     */
+    List<ArticleSummary> findByPublishDateBetween(Date from, Date to);
+
+    /**
+     * Used to hydrate the results of in-process index lookups.
+     *
+     * @param articleIds the ids to look for
+     * @return the summaries of the articles with these ids, in no particular order - unknown ids are skipped
+     */
+    List<ArticleSummary> findByArticleIds(Collection<String> articleIds);
+
+    /**
+     * @param articleIds the ids to look for
+     * @param from       the start date (excluded) - null for no restriction
+     * @param to         the end date (excluded) - null for no restriction
+     * @return the summaries of the articles with these ids that were published within the period
+     */
+    List<ArticleSummary> findByArticleIdsAndPeriod(Collection<String> articleIds, Date from, Date to);
+
+    /**
+     * @param query the query - at least one positive term must be set
+     * @return the summaries of all articles matching a boolean keyword/author query - empty if no match
+     */
+    List<ArticleSummary> findByQuery(ArticleQuery query);
+
+    /**
+     * @param author name of the author to look for
+     * @param after  the position of the last article of the previous page - null for the first page
+     * @param limit  the maximum number of articles to return
+     * @return one page of summaries of this author - empty if no (more) match
+     */
+    List<ArticleSummary> findPageByAuthor(String author, ArticleCursor after, int limit);
+
+    /**
+     * @param keyword one keyword to search for
+     * @param after   the position of the last article of the previous page - null for the first page
+     * @param limit   the maximum number of articles to return
+     * @return one page of summaries containing this keyword - empty if no (more) match
+     */
+    List<ArticleSummary> findPageByKeyword(String keyword, ArticleCursor after, int limit);
+
+    /**
+     * @param from  the start date (excluded)
+     * @param to    the end date (excluded)
+     * @param after the position of the last article of the previous page - null for the first page
+     * @param limit the maximum number of articles to return
+     * @return one page of summaries within this period - empty if no (more) match
+     */
+    List<ArticleSummary> findPageByPublishDateBetween(Date from, Date to, ArticleCursor after, int limit);
+
+    /**
+     * @param author name of the author to look for
+     * @return a stream of the summaries of this author - must be closed after use
+     */
+    Stream<ArticleSummary> streamByAuthor(String author);
+
+    /**
+     * @param keyword one keyword to search for
+     * @return a stream of the summaries containing this keyword - must be closed after use
+     */
+    Stream<ArticleSummary> streamByKeyword(String keyword);
+
+    /**
+     * @param from the start date (excluded)
+     * @param to   the end date (excluded)
+     * @return a stream of the summaries within this period - must be closed after use
+     */
+    Stream<ArticleSummary> streamByPublishDateBetween(Date from, Date to);
+
+    /**
+     * Streams all articles to build in-process indexes. A backend may read only the given fields (and the id),
+     * the other fields are then null. The stream must be closed after use.
+     *
+     * @param fields the names of the fields that are needed
+     * @return a stream of (possibly partially filled) articles
+     */
+    Stream<Article> streamAll(String... fields);
+
+    /**
+     * @return true if writes are acknowledged before they are stored in the backend - the store then publishes
+     * the changes to the other instances itself, once they are stored
+     */
+    default boolean isWriteBehind() {
+        return false;
+    }
+}
@@ -0,0 +1,54 @@
+package com.upday.news.model;
+
+import java.util.Date;
+import java.util.List;
+
+import lombok.Value;
+import org.jsondoc.core.annotation.ApiObject;
+import org.jsondoc.core.annotation.ApiObjectField;
+import org.springframework.data.annotation.Id;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * The summary of an article as returned by all list methods - everything but the text and the keywords.
+ * Used as a projection, so only these fields are read from the database.
+ * Note: the constructor parameters define which fields are read, so they must match the field names.
+ */
+@Value
+@ApiObject(name = "ArticleSummary", description = "Summary of an article. The text is only returned by display.")
+public class ArticleSummary {
+
+    @Id
+    @ApiObjectField(description = "The unique identifier of an article.")
+    private String articleId;
+
+    @ApiObjectField(description = "The header of the article.")
+    private String header;
+
+    @ApiObjectField(description = "A short text describing the article.")
+    private String shortDescription;
+
+    @ApiObjectField(description = "The publishDate of the article.")
+    private Date publishDate;
+
+    @ApiObjectField(description = "A list of authors.")
+    private List<String> authors;
+
+    /**
+     * The version of the article - not returned, but part of the ETag of a list.
+     */
+    @JsonIgnore
+    private Long version;
+
+    /**
+     * Creates the summary of a complete article.
+     *
+     * @param article the article
+     * @return the summary
+     */
+    public static ArticleSummary of(Article article) {
+        return new ArticleSummary(article.getArticleId(), article.getHeader(), article.getShortDescription(),
+                article.getPublishDate(), article.getAuthors(), article.getVersion());
+    }
+}
@@ -0,0 +1,38 @@
+package com.upday.news.model;
+
+import java.util.Date;
+
+import lombok.Value;
+import org.springframework.data.annotation.Id;
+
+/**
+ * The version and modification time of an article - all that is needed to answer a conditional request.
+ * Used as a projection, so only these fields are read from the database.
+ */
+@Value
+public class ArticleVersion {
+
+    @Id
+    private String articleId;
+
+    /**
+     * Null for articles stored before versioning was introduced and not updated since - updates of such an
+     * article are based on version 0.
+     */
+    private Long version;
+
+    /**
+     * Null for articles stored before the modification time was introduced and not updated since.
+     */
+    private Date lastModified;
+
+    /**
+     * Reads the version of a complete article.
+     *
+     * @param article the article
+     * @return the version
+     */
+    public static ArticleVersion of(Article article) {
+        return new ArticleVersion(article.getArticleId(), article.getVersion(), article.getLastModified());
+    }
+}
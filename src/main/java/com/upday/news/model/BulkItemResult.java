@@ -0,0 +1,41 @@
+package com.upday.news.model;
+
+import lombok.Value;
+import org.jsondoc.core.annotation.ApiObject;
+import org.jsondoc.core.annotation.ApiObjectField;
+
+/**
+ * The outcome of one item of a bulk operation.
+ */
+@Value
+@ApiObject(name = "BulkItemResult", description = "The outcome of one item of a bulk request.")
+public class BulkItemResult {
+
+    /**
+     * The outcome of an item.
+     */
+    public enum Status {
+        CREATED, UPDATED, DELETED, INVALID, NOT_FOUND, CONFLICT, FAILED
+    }
+
+    @ApiObjectField(description = "The position of the item in the request, starting with 0.")
+    private int index;
+
+    @ApiObjectField(description = "The id of the article - generated for created articles.")
+    private String articleId;
+
+    @ApiObjectField(description = "CREATED, UPDATED, DELETED, INVALID, NOT_FOUND, "
+            + "CONFLICT (changed since the given version) or FAILED.")
+    private Status status;
+
+    @ApiObjectField(description = "Details on why the item was not written. Not set on success.")
+    private String message;
+
+    /**
+     * @param newIndex the position of the item in the whole request
+     * @return a copy of this result with a different index
+     */
+    public BulkItemResult withIndex(int newIndex) {
+        return new BulkItemResult(newIndex, articleId, status, message);
+    }
+}
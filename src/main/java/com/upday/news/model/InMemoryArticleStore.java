@@ -0,0 +1,532 @@
+package com.upday.news.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.bson.types.ObjectId;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+/**
+ * A concurrent in-memory backend - nothing is persisted, all finders are answered without I/O.
+ * Articles are kept in an id map, plus a date index and one posting set per author and keyword. All indexes are
+ * concurrent skip list sets of (publishDate, articleId) keys in page order, so a page is a range scan.
+ * Reads never lock. Writes lock one of a fixed number of stripes by articleId, so writes of the same article are
+ * serialized and writes of different articles run in parallel. A write adds the new index keys before it swaps
+ * the map entry and removes the old keys afterwards; index keys that do not match the current map entry are
+ * skipped by the readers, so a reader sees either the old or the new version of an article.
+ */
+@Component
+@ConditionalOnProperty(name = "news.store", havingValue = "memory")
+public class InMemoryArticleStore implements ArticleStore {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final Map<String, StoredArticle> articles = new ConcurrentHashMap<>();
+
+    private final NavigableSet<ArticleKey> byPublishDate = new ConcurrentSkipListSet<>();
+
+    private final Map<String, NavigableSet<ArticleKey>> byAuthor = new ConcurrentHashMap<>();
+
+    private final Map<String, NavigableSet<ArticleKey>> byKeyword = new ConcurrentHashMap<>();
+
+    private final Lock[] locks = new Lock[LOCK_STRIPES];
+
+    /**
+     * Constructor.
+     */
+    public InMemoryArticleStore() {
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public Article insert(Article article) {
+
+        Article copy = copy(article);
+        if (copy.getArticleId() == null) {
+            copy.setArticleId(new ObjectId().toHexString());
+        }
+        if (copy.getVersion() == null) {
+            copy.setVersion(0L);
+        }
+        Lock lock = lockFor(copy.getArticleId());
+        lock.lock();
+        try {
+            if (articles.containsKey(copy.getArticleId())) {
+                throw new DuplicateKeyException("Duplicate articleId: " + copy.getArticleId());
+            }
+            return copy(write(new StoredArticle(copy), null).article);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<Article> replaceExisting(Article article) {
+        return replace(article);
+    }
+
+    @Override
+    public Optional<Article> removeExisting(String articleId) {
+
+        Lock lock = lockFor(articleId);
+        lock.lock();
+        try {
+            StoredArticle removed = articles.remove(articleId);
+            if (removed == null) {
+                return Optional.empty();
+            }
+            removePostings(removed, null);
+            return Optional.of(copy(removed.article));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<BulkItemResult> bulkInsert(List<Article> articles) {
+
+        List<BulkItemResult> results = new ArrayList<>(articles.size());
+        for (int i = 0; i < articles.size(); i++) {
+            String articleId = articles.get(i).getArticleId();
+            try {
+                insert(articles.get(i));
+                results.add(new BulkItemResult(i, articleId, BulkItemResult.Status.CREATED, null));
+            } catch (DuplicateKeyException e) {
+                results.add(new BulkItemResult(i, articleId, BulkItemResult.Status.FAILED, e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public List<BulkItemResult> bulkReplace(List<Article> articles) {
+
+        List<BulkItemResult> results = new ArrayList<>(articles.size());
+        for (int i = 0; i < articles.size(); i++) {
+            String articleId = articles.get(i).getArticleId();
+            if (replace(articles.get(i)).isPresent()) {
+                results.add(new BulkItemResult(i, articleId, BulkItemResult.Status.UPDATED, null));
+            } else {
+                results.add(exists(articleId)
+                        ? new BulkItemResult(i, articleId, BulkItemResult.Status.CONFLICT,
+                        "The article was changed since the given version.")
+                        : notFound(i, articleId));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public List<BulkItemResult> bulkDelete(List<String> articleIds) {
+
+        List<BulkItemResult> results = new ArrayList<>(articleIds.size());
+        for (int i = 0; i < articleIds.size(); i++) {
+            String articleId = articleIds.get(i);
+            results.add(removeExisting(articleId).isPresent()
+                    ? new BulkItemResult(i, articleId, BulkItemResult.Status.DELETED, null)
+                    : notFound(i, articleId));
+        }
+        return results;
+    }
+
+    @Override
+    public boolean exists(String articleId) {
+        return articles.containsKey(articleId);
+    }
+
+    @Override
+    public Optional<Article> findById(String articleId) {
+        return Optional.ofNullable(articles.get(articleId)).map(stored -> copy(stored.article));
+    }
+
+    @Override
+    public Optional<ArticleVersion> findVersion(String articleId) {
+        return Optional.ofNullable(articles.get(articleId)).map(stored -> ArticleVersion.of(stored.article));
+    }
+
+    @Override
+    public List<ArticleVersion> findVersions(Collection<String> articleIds) {
+        return articleIds.stream()
+                .map(articles::get)
+                .filter(Objects::nonNull)
+                .map(stored -> ArticleVersion.of(stored.article))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ArticleSummary> findByAuthor(String author) {
+        return toList(streamByAuthor(author));
+    }
+
+    @Override
+    public List<ArticleSummary> findByKeyword(String keyword) {
+        return toList(streamByKeyword(keyword));
+    }
+
+    @Override
+    public List<ArticleSummary> findByPublishDateBetween(Date from, Date to) {
+        return toList(streamByPublishDateBetween(from, to));
+    }
+
+    @Override
+    public List<ArticleSummary> findByArticleIds(Collection<String> articleIds) {
+        return findByArticleIdsAndPeriod(articleIds, null, null);
+    }
+
+    @Override
+    public List<ArticleSummary> findByArticleIdsAndPeriod(Collection<String> articleIds, Date from, Date to) {
+        return articleIds.stream()
+                .map(articles::get)
+                .filter(stored -> stored != null && inPeriod(stored.article, from, to))
+                .map(stored -> stored.summary)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Only the articles of the smallest "all" posting set - or of the union of the "any" posting sets - are
+     * candidates. The full query is then checked for every candidate.
+     */
+    @Override
+    public List<ArticleSummary> findByQuery(ArticleQuery query) {
+
+        Collection<ArticleKey> candidates = null;
+        for (NavigableSet<ArticleKey> postings : postings(query.getAllAuthors(), query.getAllKeywords())) {
+            if (candidates == null || postings.size() < candidates.size()) {
+                candidates = postings;
+            }
+        }
+        if (candidates == null) {
+            NavigableSet<ArticleKey> union = new TreeSet<>();
+            postings(query.getAnyAuthors(), query.getAnyKeywords()).forEach(union::addAll);
+            candidates = union;
+        }
+        return candidates.stream()
+                .map(this::resolve)
+                .filter(stored -> stored != null && matches(query, stored.article))
+                .map(stored -> stored.summary)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ArticleSummary> findPageByAuthor(String author, ArticleCursor after, int limit) {
+        return findPage(byAuthor.get(author), null, null, after, limit);
+    }
+
+    @Override
+    public List<ArticleSummary> findPageByKeyword(String keyword, ArticleCursor after, int limit) {
+        return findPage(byKeyword.get(keyword), null, null, after, limit);
+    }
+
+    @Override
+    public List<ArticleSummary> findPageByPublishDateBetween(Date from, Date to, ArticleCursor after, int limit) {
+        return findPage(byPublishDate, from, to, after, limit);
+    }
+
+    @Override
+    public Stream<ArticleSummary> streamByAuthor(String author) {
+        return summaries(byAuthor.getOrDefault(author, Collections.emptyNavigableSet()));
+    }
+
+    @Override
+    public Stream<ArticleSummary> streamByKeyword(String keyword) {
+        return summaries(byKeyword.getOrDefault(keyword, Collections.emptyNavigableSet()));
+    }
+
+    @Override
+    public Stream<ArticleSummary> streamByPublishDateBetween(Date from, Date to) {
+        return summaries(range(byPublishDate, from, to, null));
+    }
+
+    /**
+     * Always returns complete articles - there is nothing to save by reading fewer fields.
+     */
+    @Override
+    public Stream<Article> streamAll(String... fields) {
+        return articles.values().stream().map(stored -> copy(stored.article));
+    }
+
+    /**
+     * @return the number of stored articles
+     */
+    public int size() {
+        return articles.size();
+    }
+
+    private Optional<Article> replace(Article article) {
+
+        Lock lock = lockFor(article.getArticleId());
+        lock.lock();
+        try {
+            StoredArticle existing = articles.get(article.getArticleId());
+            if (existing == null) {
+                return Optional.empty();
+            }
+            // like $inc in mongo: an article stored without a version has version 0
+            long version = existing.article.getVersion() == null ? 0 : existing.article.getVersion();
+            if (article.getVersion() != null && article.getVersion() != version) {
+                return Optional.empty();
+            }
+            Article copy = copy(article);
+            copy.setVersion(version + 1);
+            copy.setLastModified(new Date());
+            return Optional.of(copy(write(new StoredArticle(copy), existing).article));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Must be called holding the lock of the article.
+     */
+    private StoredArticle write(StoredArticle stored, StoredArticle previous) {
+
+        byPublishDate.add(stored.key);
+        stored.article.getAuthors().forEach(author -> addPosting(byAuthor, author, stored.key));
+        stored.article.getKeywords().forEach(keyword -> addPosting(byKeyword, keyword, stored.key));
+        articles.put(stored.article.getArticleId(), stored);
+        if (previous != null) {
+            removePostings(previous, stored);
+        }
+        return stored;
+    }
+
+    /**
+     * Removes the index keys of a previous version, except the ones that are still valid for the current version.
+     */
+    private void removePostings(StoredArticle previous, StoredArticle current) {
+
+        boolean sameKey = current != null && previous.key.compareTo(current.key) == 0;
+        if (!sameKey) {
+            byPublishDate.remove(previous.key);
+        }
+        for (String author : previous.article.getAuthors()) {
+            if (!sameKey || !current.article.getAuthors().contains(author)) {
+                removePosting(byAuthor, author, previous.key);
+            }
+        }
+        for (String keyword : previous.article.getKeywords()) {
+            if (!sameKey || !current.article.getKeywords().contains(keyword)) {
+                removePosting(byKeyword, keyword, previous.key);
+            }
+        }
+    }
+
+    /**
+     * compute() is atomic per term, so an empty set is never removed while another writer adds to it.
+     */
+    private void addPosting(Map<String, NavigableSet<ArticleKey>> index, String term, ArticleKey key) {
+        index.compute(term, (t, postings) -> {
+            NavigableSet<ArticleKey> result = postings == null ? new ConcurrentSkipListSet<>() : postings;
+            result.add(key);
+            return result;
+        });
+    }
+
+    private void removePosting(Map<String, NavigableSet<ArticleKey>> index, String term, ArticleKey key) {
+        index.computeIfPresent(term, (t, postings) -> {
+            postings.remove(key);
+            return postings.isEmpty() ? null : postings;
+        });
+    }
+
+    private List<ArticleSummary> findPage(NavigableSet<ArticleKey> postings, Date from, Date to,
+                                          ArticleCursor after, int limit) {
+        if (postings == null) {
+            return Collections.emptyList();
+        }
+        return summaries(range(postings, from, to, after)).limit(limit).collect(Collectors.toList());
+    }
+
+    /**
+     * The keys between the bounds - all of them excluded, null means unbounded. The keys are ordered newest
+     * first, so the "to" date and the cursor are the lower bound of the range and the "from" date the upper one.
+     */
+    private NavigableSet<ArticleKey> range(NavigableSet<ArticleKey> postings, Date from, Date to,
+                                           ArticleCursor after) {
+
+        ArticleKey lower = to == null ? null : ArticleKey.after(to);
+        if (after != null) {
+            ArticleKey cursor = ArticleKey.of(after.getPublishDate(), after.getArticleId());
+            lower = lower == null || cursor.compareTo(lower) > 0 ? cursor : lower;
+        }
+        ArticleKey upper = from == null ? null : ArticleKey.before(from);
+        if (lower != null && upper != null) {
+            return lower.compareTo(upper) < 0
+                    ? postings.subSet(lower, false, upper, false)
+                    : Collections.emptyNavigableSet();
+        } else if (lower != null) {
+            return postings.tailSet(lower, false);
+        } else if (upper != null) {
+            return postings.headSet(upper, false);
+        }
+        return postings;
+    }
+
+    private Stream<ArticleSummary> summaries(Collection<ArticleKey> keys) {
+        return keys.stream()
+                .map(this::resolve)
+                .filter(Objects::nonNull)
+                .map(stored -> stored.summary);
+    }
+
+    /**
+     * @return the stored article of an index key - null if the key belongs to a replaced or deleted version
+     */
+    private StoredArticle resolve(ArticleKey key) {
+
+        StoredArticle stored = articles.get(key.articleId);
+        return stored != null && stored.key.compareTo(key) == 0 ? stored : null;
+    }
+
+    private List<NavigableSet<ArticleKey>> postings(List<String> authors, List<String> keywords) {
+
+        List<NavigableSet<ArticleKey>> postings = new ArrayList<>();
+        authors.forEach(author -> postings.add(byAuthor.getOrDefault(author, Collections.emptyNavigableSet())));
+        keywords.forEach(keyword -> postings.add(byKeyword.getOrDefault(keyword, Collections.emptyNavigableSet())));
+        return postings;
+    }
+
+    private Lock lockFor(String articleId) {
+        return locks[Math.floorMod(articleId.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static boolean matches(ArticleQuery query, Article article) {
+
+        List<String> authors = article.getAuthors();
+        List<String> keywords = article.getKeywords();
+        boolean anyMatches = query.getAnyAuthors().isEmpty() && query.getAnyKeywords().isEmpty()
+                || query.getAnyAuthors().stream().anyMatch(authors::contains)
+                || query.getAnyKeywords().stream().anyMatch(keywords::contains);
+        return anyMatches
+                && authors.containsAll(query.getAllAuthors())
+                && keywords.containsAll(query.getAllKeywords())
+                && query.getNotAuthors().stream().noneMatch(authors::contains)
+                && query.getNotKeywords().stream().noneMatch(keywords::contains)
+                && inPeriod(article, query.getFrom(), query.getTo());
+    }
+
+    private static boolean inPeriod(Article article, Date from, Date to) {
+        return (from == null || article.getPublishDate().after(from))
+                && (to == null || article.getPublishDate().before(to));
+    }
+
+    private static BulkItemResult notFound(int index, String articleId) {
+        return new BulkItemResult(index, articleId, BulkItemResult.Status.NOT_FOUND, "No article with this id.");
+    }
+
+    private static List<ArticleSummary> toList(Stream<ArticleSummary> summaries) {
+        return summaries.collect(Collectors.toList());
+    }
+
+    /**
+     * Stored articles are never handed out, so callers can not change them (and their index keys) behind the
+     * back of the store.
+     */
+    private static Article copy(Article article) {
+
+        Article copy = new Article();
+        copy.setArticleId(article.getArticleId());
+        copy.setHeader(article.getHeader());
+        copy.setShortDescription(article.getShortDescription());
+        copy.setText(article.getText());
+        copy.setPublishDate(copy(article.getPublishDate()));
+        copy.setAuthors(copy(article.getAuthors()));
+        copy.setKeywords(copy(article.getKeywords()));
+        copy.setVersion(article.getVersion());
+        copy.setLastModified(copy(article.getLastModified()));
+        return copy;
+    }
+
+    private static Date copy(Date date) {
+        return date == null ? null : new Date(date.getTime());
+    }
+
+    private static List<String> copy(List<String> terms) {
+        return terms == null ? new ArrayList<>() : new ArrayList<>(terms);
+    }
+
+    /**
+     * An article as stored, with its summary and index key computed once.
+     */
+    private static final class StoredArticle {
+
+        private final Article article;
+
+        private final ArticleSummary summary;
+
+        private final ArticleKey key;
+
+        private StoredArticle(Article article) {
+            article.setAuthors(Collections.unmodifiableList(article.getAuthors()));
+            article.setKeywords(Collections.unmodifiableList(article.getKeywords()));
+            this.article = article;
+            this.summary = ArticleSummary.of(article);
+            this.key = ArticleKey.of(article.getPublishDate(), article.getArticleId());
+        }
+    }
+
+    /**
+     * The position of an article in all indexes: publishDate descending, then articleId descending - the page
+     * order of {@link ArticleCursor}. The bound keys sort before / after all articles of their date.
+     */
+    private static final class ArticleKey implements Comparable<ArticleKey> {
+
+        private final long publishDate;
+
+        /**
+         * -1 before all articles of the date, 0 for an article, 1 after all articles of the date.
+         */
+        private final int bound;
+
+        private final String articleId;
+
+        private ArticleKey(long publishDate, int bound, String articleId) {
+            this.publishDate = publishDate;
+            this.bound = bound;
+            this.articleId = articleId;
+        }
+
+        private static ArticleKey of(Date publishDate, String articleId) {
+            return new ArticleKey(publishDate.getTime(), 0, articleId);
+        }
+
+        private static ArticleKey before(Date publishDate) {
+            return new ArticleKey(publishDate.getTime(), -1, null);
+        }
+
+        private static ArticleKey after(Date publishDate) {
+            return new ArticleKey(publishDate.getTime(), 1, null);
+        }
+
+        @Override
+        public int compareTo(ArticleKey other) {
+
+            int result = Long.compare(other.publishDate, publishDate);
+            if (result == 0) {
+                result = Integer.compare(bound, other.bound);
+            }
+            if (result == 0 && bound == 0) {
+                result = other.articleId.compareTo(articleId);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.upday.news.model;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * The default backend: all articles are stored in mongo. Delegates to the {@link ArticleRepository}, reading
+ * only the summary fields for all finders.
+ */
+@Component
+@ConditionalOnProperty(name = "news.store", havingValue = "mongo", matchIfMissing = true)
+public class MongoArticleStore implements ArticleStore {
+
+    @Autowired
+    ArticleRepository articleRepository;
+
+    @Override
+    public Article insert(Article article) {
+        return articleRepository.insert(article);
+    }
+
+    @Override
+    public Optional<Article> replaceExisting(Article article) {
+        return articleRepository.replaceExisting(article);
+    }
+
+    @Override
+    public Optional<Article> removeExisting(String articleId) {
+        return articleRepository.removeExisting(articleId);
+    }
+
+    @Override
+    public List<BulkItemResult> bulkInsert(List<Article> articles) {
+        return articleRepository.bulkInsert(articles);
+    }
+
+    @Override
+    public List<BulkItemResult> bulkReplace(List<Article> articles) {
+        return articleRepository.bulkReplace(articles);
+    }
+
+    @Override
+    public List<BulkItemResult> bulkDelete(List<String> articleIds) {
+        return articleRepository.bulkDelete(articleIds);
+    }
+
+    @Override
+    public boolean exists(String articleId) {
+        return articleRepository.existsById(articleId);
+    }
+
+    @Override
+    public Optional<Article> findById(String articleId) {
+        return articleRepository.findById(articleId);
+    }
+
+    @Override
+    public Optional<ArticleVersion> findVersion(String articleId) {
+        return articleRepository.findByArticleId(articleId, ArticleVersion.class);
+    }
+
+    @Override
+    public List<ArticleVersion> findVersions(Collection<String> articleIds) {
+        return articleRepository.findByArticleIdIn(articleIds, ArticleVersion.class);
+    }
+
+    @Override
+    public List<ArticleSummary> findByAuthor(String author) {
+        return articleRepository.findByAuthors(author, ArticleSummary.class);
+    }
+
+    @Override
+    public List<ArticleSummary> findByKeyword(String keyword) {
+        return articleRepository.findByKeywords(keyword, ArticleSummary.class);
+    }
+
+    @Override
+    public List<ArticleSummary> findByPublishDateBetween(Date from, Date to) {
+        return articleRepository.findByPublishDateBetween(from, to, ArticleSummary.class);
+    }
+
+    @Override
+    public List<ArticleSummary> findByArticleIds(Collection<String> articleIds) {
+        return articleRepository.findByArticleIdIn(articleIds, ArticleSummary.class);
+    }
+
+    @Override
+    public List<ArticleSummary> findByArticleIdsAndPeriod(Collection<String> articleIds, Date from, Date to) {
+        return articleRepository.findByArticleIdInAndPeriod(articleIds, from, to);
+    }
+
+    @Override
+    public List<ArticleSummary> findByQuery(ArticleQuery query) {
+        return articleRepository.findByQuery(query);
+    }
+
+    @Override
+    public List<ArticleSummary> findPageByAuthor(String author, ArticleCursor after, int limit) {
+        return articleRepository.findPageByAuthors(author, after, limit);
+    }
+
+    @Override
+    public List<ArticleSummary> findPageByKeyword(String keyword, ArticleCursor after, int limit) {
+        return articleRepository.findPageByKeywords(keyword, after, limit);
+    }
+
+    @Override
+    public List<ArticleSummary> findPageByPublishDateBetween(Date from, Date to, ArticleCursor after, int limit) {
+        return articleRepository.findPageByPublishDateBetween(from, to, after, limit);
+    }
+
+    @Override
+    public Stream<ArticleSummary> streamByAuthor(String author) {
+        return articleRepository.streamByAuthors(author, ArticleSummary.class);
+    }
+
+    @Override
+    public Stream<ArticleSummary> streamByKeyword(String keyword) {
+        return articleRepository.streamByKeywords(keyword, ArticleSummary.class);
+    }
+
+    @Override
+    public Stream<ArticleSummary> streamByPublishDateBetween(Date from, Date to) {
+        return articleRepository.streamByPublishDateBetween(from, to, ArticleSummary.class);
+    }
+
+    @Override
+    public Stream<Article> streamAll(String... fields) {
+        return articleRepository.streamAll(fields);
+    }
+}
@@ -0,0 +1,32 @@
+package com.upday.news.model;
+
+import javax.validation.Validator;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.event.ValidatingMongoEventListener;
+
+/**
+ * The mongo specific beans - only if the articles are stored in mongo (see {@link MongoArticleStore}).
+ */
+@Configuration
+@ConditionalOnProperty(name = "news.store", havingValue = "mongo", matchIfMissing = true)
+public class MongoConfig {
+
+    @Bean
+    public ValidatingMongoEventListener validatingMongoEventListener(Validator validator) {
+        return new ValidatingMongoEventListener(validator);
+    }
+
+    /**
+     * Creates missing indexes at startup and logs the query plans of all finder methods.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "news.mongo.verify-indexes", havingValue = "true", matchIfMissing = true)
+    public ArticleIndexVerifier articleIndexVerifier(MongoTemplate mongoTemplate, MongoMappingContext mappingContext) {
+        return new ArticleIndexVerifier(mongoTemplate, mappingContext);
+    }
+}
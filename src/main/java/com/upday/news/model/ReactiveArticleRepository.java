@@ -0,0 +1,59 @@
+package com.upday.news.model;
+
+import java.util.Collection;
+import java.util.Date;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+/**
+ * The non-blocking counterpart of the {@link ArticleRepository}, used by the "reactive" profile. The results
+ * are read from the database cursor as they are requested by the subscriber.
+ */
+public interface ReactiveArticleRepository extends ReactiveMongoRepository<Article, String> {
+
+    /**
+     * Returns all articles where the author is included in the list of authors.
+     * Only the fields of the projection type are read from the database.
+     *
+     * @param author name of the author to look for
+     * @param type   the projection, e.g. {@link ArticleSummary}
+     * @param <T>    the projection type
+     * @return the projections - empty if no match
+     */
+    <T> Flux<T> findByAuthors(String author, Class<T> type);
+
+    /**
+     * Returns all articles containing a certain keyword.
+     * Only the fields of the projection type are read from the database.
+     *
+     * @param keyword one keyword to search for
+     * @param type    the projection, e.g. {@link ArticleSummary}
+     * @param <T>     the projection type
+     * @return the projections - empty if no match
+     */
+    <T> Flux<T> findByKeywords(String keyword, Class<T> type);
+
+    /**
+     * Returns all articles within a certain time period.
+     * Only the fields of the projection type are read from the database.
+     *
+     * @param from the start date (included)
+     * @param to   the end date (excluded)
+     * @param type the projection, e.g. {@link ArticleSummary}
+     * @param <T>  the projection type
+     * @return the projections - empty if no match
+     */
+    <T> Flux<T> findByPublishDateBetween(Date from, Date to, Class<T> type);
+
+    /**
+     * Returns the projections of the articles with these ids, in no particular order.
+     * Used to hydrate the results of in-process index lookups.
+     *
+     * @param articleIds the ids to look for
+     * @param type       the projection, e.g. {@link ArticleSummary}
+     * @param <T>        the projection type
+     * @return the projections - unknown ids are skipped
+     */
+    <T> Flux<T> findByArticleIdIn(Collection<String> articleIds, Class<T> type);
+}
@@ -1,54 +1,186 @@
 package com.upday.news.service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.ValidationException;
+import javax.validation.Validator;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 
+import io.micrometer.core.annotation.Timed;
+import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import com.upday.news.cache.ArticleCache;
+import com.upday.news.cache.ArticleResponseCache;
+import com.upday.news.change.ArticleChangePublisher;
 import com.upday.news.error.ArticleNotFoundException;
+import com.upday.news.error.SearchUnavailableException;
+import com.upday.news.index.ArticleIndex;
+import com.upday.news.index.ArticleTermIndex;
+import com.upday.news.index.FullTextIndex;
+import com.upday.news.index.LatestArticleFeeds;
+import com.upday.news.index.PublishDateIndex;
 import com.upday.news.model.Article;
-import com.upday.news.model.ArticleRepository;
+import com.upday.news.model.ArticleCursor;
+import com.upday.news.model.ArticlePage;
+import com.upday.news.model.ArticleQuery;
+import com.upday.news.model.ArticleSearchHit;
+import com.upday.news.model.ArticleStore;
+import com.upday.news.model.ArticleSummary;
+import com.upday.news.model.ArticleVersion;
+import com.upday.news.model.BulkItemResult;
+import com.upday.news.writebehind.DroppedWriteEvent;
 
 @Service
 public class ArticleService {
 
+    /**
+     * The maximum number of articles a client may request per page.
+     */
+    public static final int MAX_PAGE_SIZE = 500;
+
+    /**
+     * All public lookup and write methods are timed with this name, tagged with class and method - the ones returning a stream by
+     * the StreamTimerAspect, until the stream is closed.
+     */
+    public static final String TIMER_NAME = "article.service";
+
+    private static final int INDEX_LOCK_STRIPES = 64;
+
+    /**
+     * The articleIds found by an in-process index are read in chunks of this size - a single query for all of
+     * them could exceed the 16MB limit of a mongo document (the query) or of a reply batch.
+     */
+    static final int HYDRATION_CHUNK_SIZE = 1000;
+
     private Logger log = LoggerFactory.getLogger(getClass());
 
     @Autowired
-    ArticleRepository articleRepository;
+    ArticleStore articleStore;
+
+    @Autowired
+    ArticleCache articleCache;
+
+    @Autowired
+    ArticleResponseCache articleResponseCache;
+
+    @Autowired
+    ArticleTermIndex articleTermIndex;
+
+    @Autowired
+    FullTextIndex fullTextIndex;
+
+    @Autowired
+    PublishDateIndex publishDateIndex;
+
+    @Autowired
+    LatestArticleFeeds latestArticleFeeds;
+
+    @Autowired
+    List<ArticleIndex> articleIndexes;
+
+    @Autowired
+    Validator validator;
+
+    @Autowired
+    SingleFlight singleFlight;
+
+    /**
+     * Only present if the change feed between instances is enabled.
+     */
+    @Autowired(required = false)
+    ArticleChangePublisher articleChangePublisher;
 
     /**
-     * This method stores a new article in the database. The newly created article is returned on success.
+     * Bulk requests are written in chunks of this size - one database round trip per chunk. Updates take one round
+     * trip per article, so each one gets its own outcome.
+     */
+    @Value("${news.bulk.chunk-size:500}")
+    int bulkChunkSize;
+
+    /**
+     * If set, updates must send the version they are based on. Switching it off lets updates without a version
+     * overwrite whatever is stored - only meant for clients that can not send the version yet.
+     */
+    @Value("${news.update.require-version:true}")
+    boolean requireVersion;
+
+    /**
+     * Serialize the index updates of an article, see {@link #reindex(String)}.
+     */
+    private final Object[] indexLocks = new Object[INDEX_LOCK_STRIPES];
+
+    {
+        for (int i = 0; i < indexLocks.length; i++) {
+            indexLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * This method stores a new article. The newly created article is returned on success.
      * Note that the result contains the generated articleId.
      *
      * @param article a valid article
      * @return the saved article including a generated articleId
      */
+    @Timed(TIMER_NAME)
     public Article create(@NotNull Article article) {
-        return articleRepository.insert(article);
+
+        checkValid(article);
+        article.setLastModified(new Date());
+        Article createdArticle = articleStore.insert(article);
+        onSaved(createdArticle);
+        return createdArticle;
     }
 
     /**
-     * This method updates an existing article. Identifier is the articleId.
+     * This method updates an existing article. Identifier is the articleId. The article is only updated if it
+     * still has the given version - an article stored without a version has version 0.
      *
-     * @param article a valid article
+     * @param article a valid article including the version it is based on
      * @return the updated article
      */
+    @Timed(TIMER_NAME)
     public Article update(@NotNull Article article) {
 
-        Optional<Article> currentArticle = articleRepository.findById(article.getArticleId());
+        checkValid(article);
+        String missingVersion = checkVersionSet(article);
+        if (missingVersion != null) {
+            throw new ValidationException(missingVersion);
+        }
+        Optional<Article> updatedArticle = articleStore.replaceExisting(article);
 
-        if (currentArticle.isPresent()) {
-            return articleRepository.save(article);
+        if (updatedArticle.isPresent()) {
+            onSaved(updatedArticle.get());
+            return updatedArticle.get();
+        } else if (article.getVersion() != null && articleStore.exists(article.getArticleId())) {
+            throw new OptimisticLockingFailureException("The article was changed in the meantime: "
+                    + article.getArticleId());
         } else {
-            throw new ArticleNotFoundException(("The article was not found and therefore not be deleted: ")
+            throw new ArticleNotFoundException(("The article was not found and therefore not be updated: ")
                     + article.getArticleId());
         }
     }
@@ -59,12 +191,13 @@ public class ArticleService {
      * @param articleId The id of the article to display.
      * @return the deleted article
      */
+    @Timed(TIMER_NAME)
     public Article delete(@NotBlank String articleId) {
 
-        Optional<Article> article = articleRepository.findById(articleId);
+        Optional<Article> article = articleStore.removeExisting(articleId);
 
         if (article.isPresent()) {
-            articleRepository.delete(article.get());
+            onDeleted(articleId);
             return article.get();
         } else {
             throw new ArticleNotFoundException(("The article was not found and therefore not be deleted: ")
@@ -72,31 +205,115 @@ public class ArticleService {
         }
     }
 
+    /**
+     * This method validates and stores new articles. Valid articles are written in chunks, invalid ones are
+     * skipped. Note that every chunk is written on its own - there is no transaction over the whole request.
+     *
+     * @param articles the articles to create, e.g. read one by one from the request
+     * @return one result per article, including the generated articleId
+     */
+    @Timed(TIMER_NAME)
+    public List<BulkItemResult> bulkCreate(@NotNull Iterator<Article> articles) {
+
+        return bulkWrite(articles, this::validate, articleStore::bulkInsert, Article::getArticleId, article -> {
+            // the id is generated here, so every item result can report it
+            article.setArticleId(new ObjectId().toHexString());
+            article.setVersion(0L);
+            article.setLastModified(new Date());
+            return article.getArticleId();
+        }, this::onSaved);
+    }
+
+    /**
+     * This method validates and updates existing articles. Valid articles are written in chunks, invalid ones
+     * are skipped. Like {@link #update(Article)}, an article is only updated if it still has the given version -
+     * otherwise its result is CONFLICT. There is no transaction over the whole request.
+     *
+     * @param articles the articles to update, identified by their articleId
+     * @return one result per article
+     */
+    @Timed(TIMER_NAME)
+    public List<BulkItemResult> bulkUpdate(@NotNull Iterator<Article> articles) {
+
+        return bulkWrite(articles, article -> article.getArticleId() == null || article.getArticleId().isEmpty()
+                        ? "articleId: The articleId must be set."
+                        : Optional.ofNullable(checkVersionSet(article)).orElseGet(() -> validate(article)),
+                articleStore::bulkReplace, Article::getArticleId, Article::getArticleId, this::onSaved);
+    }
+
+    /**
+     * This method deletes existing articles in chunks. There is no transaction over the whole request.
+     *
+     * @param articleIds the ids of the articles to delete
+     * @return one result per articleId
+     */
+    @Timed(TIMER_NAME)
+    public List<BulkItemResult> bulkDelete(@NotNull Iterator<String> articleIds) {
+
+        return bulkWrite(articleIds, articleId -> articleId == null || articleId.isEmpty()
+                        ? "articleId: The articleId must be set." : null,
+                articleStore::bulkDelete, Function.identity(), Function.identity(), this::onDeleted);
+    }
+
     /**
      * This method finds an article by its id.
      *
      * @param articleId The id of the article to display.
      * @return article with specified id
      */
+    @Timed(TIMER_NAME)
     public Article findById(@NotBlank String articleId) {
 
-        Optional<Article> articleById = articleRepository.findById(articleId);
+        Article cachedArticle = articleCache.get(articleId);
+        if (cachedArticle != null) {
+            log.debug("Displaying cached article: {}", cachedArticle);
+            return cachedArticle;
+        }
+
+        long stamp = articleCache.stamp(articleId);
+        // concurrent misses of a popular article share one database read
+        Optional<Article> articleById = singleFlight.execute("findById",
+                () -> articleStore.findById(articleId), articleId);
         if (articleById.isPresent()) {
             log.debug("Displaying article: {}", articleById.get());
+            articleCache.put(articleById.get(), stamp);
             return articleById.get();
         } else {
             throw new ArticleNotFoundException("ArticleId not found in DB: " + articleId);
         }
     }
 
+    /**
+     * This method returns the version of an article without reading the whole article from the database -
+     * enough to answer a conditional request.
+     *
+     * @param articleId The id of the article.
+     * @return the version and modification time of the article
+     */
+    @Timed(TIMER_NAME)
+    public ArticleVersion findVersion(@NotBlank String articleId) {
+
+        Article cachedArticle = articleCache.get(articleId);
+        if (cachedArticle != null) {
+            return ArticleVersion.of(cachedArticle);
+        }
+        return singleFlight.execute("findVersion", () -> articleStore.findVersion(articleId), articleId)
+                .orElseThrow(() -> new ArticleNotFoundException("ArticleId not found in DB: " + articleId));
+    }
+
     /**
      * This method returns all articles for this author.
      *
      * @param author The name of the author.
-     * @return list of articles for this author
+     * @return list of article summaries for this author
      */
-    public List<Article> findByAuthor(@NotBlank String author) {
-        return articleRepository.findByAuthors(author);
+    @Timed(TIMER_NAME)
+    public List<ArticleSummary> findByAuthor(@NotBlank String author) {
+
+        if (articleTermIndex.isActive()) {
+            return findSummaries(articleTermIndex.findByAuthor(author));
+        }
+        return singleFlight.execute("findByAuthor", () -> articleStore.findByAuthor(author), author);
     }
 
     /**
@@ -104,20 +321,462 @@ public class ArticleService {
      *
      * @param from Startdate of period, included
      * @param to   Enddate of period, excluded
-     * @return list of articles including this author
+     * @return list of article summaries within this period
      */
-    public List<Article> findByPublishDateBetween(@NotNull Date from, @NotNull Date to) {
-        return articleRepository.findByPublishDateBetween(from, to);
+    @Timed(TIMER_NAME)
+    public List<ArticleSummary> findByPublishDateBetween(@NotNull Date from, @NotNull Date to) {
+
+        if (publishDateIndex.isActive()) {
+            return findSummaries(publishDateIndex.findBetween(from, to));
+        }
+        return singleFlight.execute("findByPublishDateBetween",
+                () -> articleStore.findByPublishDateBetween(from, to), from, to);
     }
 
     /**
      * This method returns all articles with a certain keyword.
      *
      * @param keyword The keyword to look for.
-     * @return list of articles including this keyword
+     * @return list of article summaries including this keyword
+     */
+    @Timed(TIMER_NAME)
+    public List<ArticleSummary> findByKeyword(@NotBlank String keyword) {
+
+        if (articleTermIndex.isActive()) {
+            return findSummaries(articleTermIndex.findByKeyword(keyword));
+        }
+        return singleFlight.execute("findByKeyword", () -> articleStore.findByKeyword(keyword), keyword);
+    }
+
+    /**
+     * This method returns all articles matching a boolean combination of keywords and authors, optionally
+     * within a period. If the in-process index is active, the terms are evaluated locally and only the
+     * matching articles are read from the database.
+     *
+     * @param query The keywords and authors that must / may / must not match.
+     * @return list of article summaries matching the query
      */
-    public List<Article> findByKeyword(@NotBlank String keyword) {
-        return articleRepository.findByKeywords(keyword);
+    @Timed(TIMER_NAME)
+    public List<ArticleSummary> search(@NotNull ArticleQuery query) {
+
+        if (!query.hasPositiveTerms()) {
+            throw new ValidationException("query: At least one keyword or author must match.");
+        }
+        if (!articleTermIndex.isActive()) {
+            return articleStore.findByQuery(query);
+        }
+        List<String> articleIds = articleTermIndex.findMatching(query);
+        if (articleIds.isEmpty() || !query.hasPeriod()) {
+            return findSummaries(articleIds);
+        }
+        return findSummaries(articleIds,
+                chunk -> articleStore.findByArticleIdsAndPeriod(chunk, query.getFrom(), query.getTo()));
+    }
+
+    /**
+     * This method searches header, short description and text of all articles and returns the best matches.
+     *
+     * @param text  The search text.
+     * @param limit The maximum number of results.
+     * @return the best matching articles, best match first
+     */
+    @Timed(TIMER_NAME)
+    public List<ArticleSearchHit> fullTextSearch(@NotBlank String text, int limit) {
+
+        if (!fullTextIndex.isActive()) {
+            throw new SearchUnavailableException("The full-text index is not available.");
+        }
+        Map<String, Double> scores = fullTextIndex.search(text, checkLimit(limit));
+        if (scores.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<String, ArticleSummary> summaries = articleStore.findByArticleIds(scores.keySet()).stream()
+                .collect(Collectors.toMap(ArticleSummary::getArticleId, Function.identity()));
+
+        List<ArticleSearchHit> hits = new ArrayList<>(scores.size());
+        scores.forEach((articleId, score) -> {
+            ArticleSummary summary = summaries.get(articleId);
+            if (summary != null) {
+                hits.add(new ArticleSearchHit(summary, score));
+            }
+        });
+        return hits;
+    }
+
+    /**
+     * This method returns one page of articles for this author, newest first.
+     *
+     * @param author The name of the author.
+     * @param cursor The cursor returned with the previous page - null for the first page.
+     * @param limit  The maximum number of articles on this page.
+     * @return page of articles for this author
+     */
+    @Timed(TIMER_NAME)
+    public ArticlePage<ArticleSummary> findPageByAuthor(@NotBlank String author, String cursor, int limit) {
+        return toPage(articleStore.findPageByAuthor(author, decodeCursor(cursor), pageQueryLimit(limit)),
+                limit);
+    }
+
+    /**
+     * This method returns one page of articles within a period, newest first.
+     *
+     * @param from   Startdate of period, included
+     * @param to     Enddate of period, excluded
+     * @param cursor The cursor returned with the previous page - null for the first page.
+     * @param limit  The maximum number of articles on this page.
+     * @return page of articles within this period
+     */
+    @Timed(TIMER_NAME)
+    public ArticlePage<ArticleSummary> findPageByPublishDateBetween(@NotNull Date from, @NotNull Date to,
+                                                             String cursor, int limit) {
+        return toPage(articleStore.findPageByPublishDateBetween(from, to, decodeCursor(cursor),
+                pageQueryLimit(limit)), limit);
+    }
+
+    /**
+     * This method returns one page of articles with a certain keyword, newest first.
+     *
+     * @param keyword The keyword to look for.
+     * @param cursor  The cursor returned with the previous page - null for the first page.
+     * @param limit   The maximum number of articles on this page.
+     * @return page of articles including this keyword
+     */
+    @Timed(TIMER_NAME)
+    public ArticlePage<ArticleSummary> findPageByKeyword(@NotBlank String keyword, String cursor, int limit) {
+        return toPage(articleStore.findPageByKeyword(keyword, decodeCursor(cursor), pageQueryLimit(limit)),
+                limit);
+    }
+
+    /**
+     * This method returns the latest articles of this author - from the precomputed feed if possible.
+     *
+     * @param author    The name of the author.
+     * @param limit     The maximum number of articles.
+     * @param direction DESC for the latest articles newest first, ASC for the same articles oldest first.
+     * @return the latest article summaries of this author
+     */
+    @Timed(TIMER_NAME)
+    public List<ArticleSummary> findLatestByAuthor(@NotBlank String author, int limit,
+                                                   @NotNull Sort.Direction direction) {
+        return findLatest(() -> latestArticleFeeds.findLatestByAuthor(author, limit),
+                () -> articleStore.findPageByAuthor(author, null, limit), limit, direction);
+    }
+
+    /**
+     * This method returns the latest articles with a certain keyword - from the precomputed feed if possible.
+     *
+     * @param keyword   The keyword to look for.
+     * @param limit     The maximum number of articles.
+     * @param direction DESC for the latest articles newest first, ASC for the same articles oldest first.
+     * @return the latest article summaries including this keyword
+     */
+    @Timed(TIMER_NAME)
+    public List<ArticleSummary> findLatestByKeyword(@NotBlank String keyword, int limit,
+                                                    @NotNull Sort.Direction direction) {
+        return findLatest(() -> latestArticleFeeds.findLatestByKeyword(keyword, limit),
+                () -> articleStore.findPageByKeyword(keyword, null, limit), limit, direction);
+    }
+
+    /**
+     * This method streams all articles for this author. The stream must be closed after use.
+     *
+     * @param author The name of the author.
+     * @return stream of articles for this author
+     */
+    public Stream<ArticleSummary> streamByAuthor(@NotBlank String author) {
+        return articleStore.streamByAuthor(author);
+    }
+
+    /**
+     * This method streams all articles within a period. The stream must be closed after use.
+     *
+     * @param from Startdate of period, included
+     * @param to   Enddate of period, excluded
+     * @return stream of articles within this period
+     */
+    public Stream<ArticleSummary> streamByPublishDateBetween(@NotNull Date from, @NotNull Date to) {
+        return articleStore.streamByPublishDateBetween(from, to);
+    }
+
+    /**
+     * This method streams all articles with a certain keyword. The stream must be closed after use.
+     *
+     * @param keyword The keyword to look for.
+     * @return stream of articles including this keyword
+     */
+    public Stream<ArticleSummary> streamByKeyword(@NotBlank String keyword) {
+        return articleStore.streamByKeyword(keyword);
+    }
+
+    /**
+     * Reads the summaries of articles found by an in-process index. No query is needed if there is no match.
+     */
+    private List<ArticleSummary> findSummaries(List<String> articleIds) {
+        return findSummaries(articleIds, articleStore::findByArticleIds);
+    }
+
+    /**
+     * Reads the summaries in chunks of {@link #HYDRATION_CHUNK_SIZE} articleIds, one query per chunk.
+     */
+    private List<ArticleSummary> findSummaries(List<String> articleIds,
+                                               Function<List<String>, List<ArticleSummary>> reader) {
+
+        if (articleIds.size() <= HYDRATION_CHUNK_SIZE) {
+            return articleIds.isEmpty() ? Collections.emptyList() : reader.apply(articleIds);
+        }
+        List<ArticleSummary> summaries = new ArrayList<>(articleIds.size());
+        for (int from = 0; from < articleIds.size(); from += HYDRATION_CHUNK_SIZE) {
+            summaries.addAll(reader.apply(
+                    articleIds.subList(from, Math.min(from + HYDRATION_CHUNK_SIZE, articleIds.size()))));
+        }
+        return summaries;
+    }
+
+    /**
+     * The feed answers without a database query. If it is not active, or can not answer the limit (e.g. after
+     * deletions), the first page is read from the store instead - which has the same order.
+     */
+    private List<ArticleSummary> findLatest(Supplier<Optional<List<ArticleSummary>>> feed,
+                                            Supplier<List<ArticleSummary>> store, int limit,
+                                            Sort.Direction direction) {
+
+        checkLimit(limit);
+        Optional<List<ArticleSummary>> latest = latestArticleFeeds.isActive() ? feed.get() : Optional.empty();
+        List<ArticleSummary> articles = latest.isPresent() ? latest.get() : store.get();
+        if (direction.isAscending()) {
+            articles = new ArrayList<>(articles);
+            Collections.reverse(articles);
+        }
+        return articles;
+    }
+
+    /**
+     * Reads the items one by one and writes them in chunks, so a large request is never held in memory as a
+     * whole. Only the (small) item results are collected.
+     *
+     * @param items     the items of the request
+     * @param validator returns the validation errors of an item - null if it is valid
+     * @param writer    writes one chunk and returns a result per item
+     * @param givenIdOf returns the articleId as given in the request - reported for invalid items, so clients
+     *                  can match them
+     * @param idOf      returns (or generates) the articleId of a valid item
+     * @param onSuccess called for every successfully written item
+     * @return the results of all items, ordered by their position in the request
+     */
+    private <T> List<BulkItemResult> bulkWrite(Iterator<T> items, Function<T, String> validator,
+                                               Function<List<T>, List<BulkItemResult>> writer,
+                                               Function<T, String> givenIdOf,
+                                               Function<T, String> idOf,
+                                               Consumer<T> onSuccess) {
+
+        List<BulkItemResult> results = new ArrayList<>();
+        List<T> chunk = new ArrayList<>(bulkChunkSize);
+        List<Integer> chunkPositions = new ArrayList<>(bulkChunkSize);
+        int position = 0;
+        while (items.hasNext()) {
+            T item = items.next();
+            String violations = validator.apply(item);
+            if (violations == null) {
+                idOf.apply(item);
+                chunk.add(item);
+                chunkPositions.add(position);
+            } else {
+                results.add(new BulkItemResult(position, givenIdOf.apply(item), BulkItemResult.Status.INVALID,
+                        violations));
+            }
+            position++;
+            if (chunk.size() == bulkChunkSize || (!items.hasNext() && !chunk.isEmpty())) {
+                List<BulkItemResult> chunkResults = writer.apply(chunk);
+                for (int i = 0; i < chunkResults.size(); i++) {
+                    BulkItemResult result = chunkResults.get(i);
+                    results.add(result.withIndex(chunkPositions.get(i)));
+                    if (result.getStatus() == BulkItemResult.Status.CREATED
+                            || result.getStatus() == BulkItemResult.Status.UPDATED
+                            || result.getStatus() == BulkItemResult.Status.DELETED) {
+                        onSuccess.accept(chunk.get(i));
+                    }
+                }
+                log.debug("Wrote bulk chunk of {} items", chunk.size());
+                chunk.clear();
+                chunkPositions.clear();
+            }
+        }
+        results.sort(Comparator.comparingInt(BulkItemResult::getIndex));
+        return results;
+    }
+
+    /**
+     * Articles are validated here for every store - the ValidatingMongoEventListener only sees mongo inserts, not
+     * findAndModify or other backends.
+     */
+    private void checkValid(Article article) {
+
+        Set<ConstraintViolation<Article>> violations = validator.validate(article);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+    }
+
+    /**
+     * @return the constraint violations of the article in the same format as the ValidatingMongoEventListener
+     * - null if the article is valid
+     */
+    private String validate(Article article) {
+
+        Set<ConstraintViolation<Article>> violations = validator.validate(article);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * @return the error message if the version of an update is missing but required - null otherwise
+     */
+    private String checkVersionSet(Article article) {
+
+        if (requireVersion && article.getVersion() == null) {
+            return "version: The version the update is based on must be set.";
+        }
+        return null;
+    }
+
+    /**
+     * Forgets the coalesced lookups in flight that may have read an article before it was written, so a caller
+     * that arrives after the write runs a new lookup. Lists may contain any article, so all list lookups are
+     * forgotten. Must be called before the caches are invalidated - otherwise a caller could miss the cache and
+     * still join an old lookup.
+     *
+     * @param articleId the id of the written article
+     */
+    public void forgetLookups(String articleId) {
+
+        singleFlight.forget("findById", articleId);
+        singleFlight.forget("findVersion", articleId);
+        singleFlight.forgetAll("findByAuthor");
+        singleFlight.forgetAll("findByPublishDateBetween");
+        singleFlight.forgetAll("findByKeyword");
+    }
+
+    /**
+     * Forgets all coalesced lookups in flight, e.g. after the writes of other instances were missed. Like
+     * {@link #forgetLookups(String)}, must be called before the caches are invalidated.
+     */
+    public void forgetAllLookups() {
+        singleFlight.forgetAll();
+    }
+
+    /**
+     * Brings the caches and in-process indexes of this instance up to date with the stored article - after a
+     * write of this or another instance, or after an acknowledged write-behind write of it was dropped.
+     *
+     * @param articleId the id of the article
+     */
+    public void refresh(String articleId) {
+
+        forgetLookups(articleId);
+        articleCache.invalidate(articleId);
+        articleResponseCache.invalidate(articleId);
+        reindex(articleId);
+    }
+
+    /**
+     * The caches and indexes were updated with the dropped write when it was acknowledged.
+     *
+     * @param event the article of a dropped write-behind write
+     */
+    @EventListener
+    public void onDroppedWrite(DroppedWriteEvent event) {
+        refresh(event.getArticleId());
+    }
+
+    /**
+     * Indexes an article as it is stored now - or removes it from the indexes if it is gone. Concurrent writes of
+     * the same article may finish in any order, so the article a writer holds can be older than the stored one.
+     * The re-reads of an article are serialized and each one starts after its write: the last one reads the
+     * latest version, and no older version can be indexed after it.
+     *
+     * @param articleId the id of the written article
+     */
+    private void reindex(String articleId) {
+
+        if (articleIndexes.stream().noneMatch(ArticleIndex::isEnabled)) {
+            return;
+        }
+        synchronized (indexLock(articleId)) {
+            Optional<Article> article = articleStore.findById(articleId);
+            if (article.isPresent()) {
+                articleIndexes.forEach(articleIndex -> articleIndex.index(article.get()));
+            } else {
+                articleIndexes.forEach(articleIndex -> articleIndex.remove(articleId));
+            }
+        }
+    }
+
+    /**
+     * Keeps caches and in-process indexes up to date after an article was written - on this instance directly,
+     * on the others via the change feed. The caches are invalidated after the write; a concurrent read that
+     * loaded the old version before does not cache it, as its stamp is outdated then. A write-behind store
+     * publishes to the change feed itself, once the write is stored.
+     */
+    private void onSaved(Article article) {
+
+        refresh(article.getArticleId());
+        if (articleChangePublisher != null && !articleStore.isWriteBehind()) {
+            articleChangePublisher.publishSaved(article.getArticleId());
+        }
+    }
+
+    /**
+     * Keeps caches and in-process indexes up to date after an article was deleted. The removal waits for a
+     * re-read of an earlier write in progress, which could index the article again otherwise.
+     */
+    private void onDeleted(String articleId) {
+
+        forgetLookups(articleId);
+        articleCache.invalidate(articleId);
+        articleResponseCache.invalidate(articleId);
+        synchronized (indexLock(articleId)) {
+            articleIndexes.forEach(articleIndex -> articleIndex.remove(articleId));
+        }
+        if (articleChangePublisher != null && !articleStore.isWriteBehind()) {
+            articleChangePublisher.publishDeleted(articleId);
+        }
+    }
+
+    private Object indexLock(String articleId) {
+        return indexLocks[Math.floorMod(articleId.hashCode(), INDEX_LOCK_STRIPES)];
+    }
+
+    private ArticleCursor decodeCursor(String cursor) {
+        return cursor == null || cursor.isEmpty() ? null : ArticleCursor.decode(cursor);
+    }
+
+    private int checkLimit(int limit) {
+
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ValidationException("limit: The limit must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        return limit;
+    }
+
+    /**
+     * One more article than requested is read, so we know whether there is a next page without a count query.
+     */
+    private int pageQueryLimit(int limit) {
+        return checkLimit(limit) + 1;
+    }
+
+    private ArticlePage<ArticleSummary> toPage(List<ArticleSummary> articles, int limit) {
+
+        if (articles.size() <= limit) {
+            return new ArticlePage<>(articles, null);
+        }
+        List<ArticleSummary> items = articles.subList(0, limit);
+        return new ArticlePage<>(items, ArticleCursor.after(items.get(limit - 1)).encode());
     }
 
 }
@@ -0,0 +1,201 @@
+package com.upday.news.service;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+import javax.annotation.PostConstruct;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import com.upday.news.cache.ArticleCache;
+import com.upday.news.error.ArticleNotFoundException;
+import com.upday.news.index.ArticleTermIndex;
+import com.upday.news.index.PublishDateIndex;
+import com.upday.news.model.Article;
+import com.upday.news.model.ArticleStore;
+import com.upday.news.model.ArticleSummary;
+import com.upday.news.model.ReactiveArticleRepository;
+
+/**
+ * The non-blocking variant of the {@link ArticleService} for the "reactive" profile. Reads go through the
+ * {@link ReactiveArticleRepository}, so no thread waits for the database. Writes are rare and must keep the
+ * cache and the in-process indexes up to date - they are delegated to the ArticleService on a worker thread.
+ * The repository reads mongo directly, so the profile only works with the mongo store. With write-behind, the
+ * reads by id go through the {@link ArticleStore} on a worker thread, as the pending writes are only visible
+ * there.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveArticleService {
+
+    @Autowired
+    ReactiveArticleRepository reactiveArticleRepository;
+
+    @Autowired
+    ArticleStore articleStore;
+
+    @Autowired
+    ArticleService articleService;
+
+    @Autowired
+    ArticleCache articleCache;
+
+    @Autowired
+    ArticleTermIndex articleTermIndex;
+
+    @Autowired
+    PublishDateIndex publishDateIndex;
+
+    @Value("${news.store:mongo}")
+    String store;
+
+    /**
+     * Refuses to start with a store that the repository does not read - it would not find the stored articles.
+     */
+    @PostConstruct
+    public void checkStore() {
+
+        if (!"mongo".equals(store)) {
+            throw new IllegalStateException("The \"reactive\" profile reads the articles from mongo - it can not "
+                    + "be used with news.store=" + store + ".");
+        }
+    }
+
+    /**
+     * See {@link ArticleService#create(Article)}.
+     *
+     * @param article a valid article
+     * @return the saved article including a generated articleId
+     */
+    public Mono<Article> create(@NotNull Article article) {
+        return blocking(() -> articleService.create(article));
+    }
+
+    /**
+     * See {@link ArticleService#update(Article)}.
+     *
+     * @param article a valid article
+     * @return the updated article
+     */
+    public Mono<Article> update(@NotNull Article article) {
+        return blocking(() -> articleService.update(article));
+    }
+
+    /**
+     * See {@link ArticleService#delete(String)}.
+     *
+     * @param articleId The id of the article to delete.
+     * @return the deleted article
+     */
+    public Mono<Article> delete(@NotBlank String articleId) {
+        return blocking(() -> articleService.delete(articleId));
+    }
+
+    /**
+     * This method finds an article by its id - from the cache if possible.
+     *
+     * @param articleId The id of the article to display.
+     * @return the article - an ArticleNotFoundException if it does not exist
+     */
+    public Mono<Article> findById(@NotBlank String articleId) {
+
+        Article cachedArticle = articleCache.get(articleId);
+        if (cachedArticle != null) {
+            return Mono.just(cachedArticle);
+        }
+        if (articleStore.isWriteBehind()) {
+            return blocking(() -> articleService.findById(articleId));
+        }
+        Mono<Article> articleById = Mono.defer(() -> {
+            // taken on subscription, right before the read
+            long stamp = articleCache.stamp(articleId);
+            return reactiveArticleRepository.findById(articleId)
+                    .doOnNext(article -> articleCache.put(article, stamp));
+        });
+        return articleById
+                .switchIfEmpty(Mono.defer(() -> Mono.error(
+                        new ArticleNotFoundException("ArticleId not found in DB: " + articleId))));
+    }
+
+    /**
+     * This method returns the summaries of all articles for this author.
+     *
+     * @param author The name of the author.
+     * @return the article summaries of this author
+     */
+    public Flux<ArticleSummary> findByAuthor(@NotBlank String author) {
+
+        if (articleTermIndex.isActive()) {
+            return findSummaries(articleTermIndex.findByAuthor(author));
+        }
+        return reactiveArticleRepository.findByAuthors(author, ArticleSummary.class);
+    }
+
+    /**
+     * This method returns the summaries of all articles within a period.
+     *
+     * @param from Startdate of period, included
+     * @param to   Enddate of period, excluded
+     * @return the article summaries within this period
+     */
+    public Flux<ArticleSummary> findByPublishDateBetween(@NotNull Date from, @NotNull Date to) {
+
+        if (publishDateIndex.isActive()) {
+            return findSummaries(publishDateIndex.findBetween(from, to));
+        }
+        return reactiveArticleRepository.findByPublishDateBetween(from, to, ArticleSummary.class);
+    }
+
+    /**
+     * This method returns the summaries of all articles with a certain keyword.
+     *
+     * @param keyword The keyword to look for.
+     * @return the article summaries including this keyword
+     */
+    public Flux<ArticleSummary> findByKeyword(@NotBlank String keyword) {
+
+        if (articleTermIndex.isActive()) {
+            return findSummaries(articleTermIndex.findByKeyword(keyword));
+        }
+        return reactiveArticleRepository.findByKeywords(keyword, ArticleSummary.class);
+    }
+
+    /**
+     * Reads the summaries in chunks of {@link ArticleService#HYDRATION_CHUNK_SIZE} articleIds, one query after the
+     * other - like the ArticleService does.
+     */
+    private Flux<ArticleSummary> findSummaries(List<String> articleIds) {
+
+        int chunkSize = ArticleService.HYDRATION_CHUNK_SIZE;
+        return Flux.range(0, (articleIds.size() + chunkSize - 1) / chunkSize)
+                .map(chunk -> articleIds.subList(chunk * chunkSize,
+                        Math.min((chunk + 1) * chunkSize, articleIds.size())))
+                .concatMap(this::findChunk);
+    }
+
+    private Flux<ArticleSummary> findChunk(List<String> articleIds) {
+
+        if (articleStore.isWriteBehind()) {
+            // the indexes already contain the pending writes
+            return blocking(() -> articleStore.findByArticleIds(articleIds)).flatMapIterable(Function.identity());
+        }
+        return reactiveArticleRepository.findByArticleIdIn(articleIds, ArticleSummary.class);
+    }
+
+    /**
+     * Runs a blocking call on the elastic scheduler, so it never blocks an event loop thread.
+     */
+    private <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.elastic());
+    }
+}
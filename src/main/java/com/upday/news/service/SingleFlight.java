@@ -0,0 +1,139 @@
+package com.upday.news.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Request coalescing: concurrent identical lookups (same operation and arguments) share one call to the store.
+ * The first caller runs the lookup, all callers that arrive while it is in flight wait for its result (or its
+ * exception). Nothing is kept after the lookup finished - this is no cache, a later caller runs its own lookup.
+ * After a write, the lookups in flight that may have read the old state must be forgotten: a caller that arrives
+ * after the write must not join them.
+ * The number of collapsed callers is counted per operation ("article.service.coalesced", tag "method"), not per
+ * key, which would give one time series per article.
+ */
+@Component
+public class SingleFlight {
+
+    public static final String COUNTER_NAME = "article.service.coalesced";
+
+    private final boolean enabled;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<List<Object>, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param enabled       false to run every lookup on its own
+     * @param meterRegistry the registry of the coalesced counters
+     */
+    @Autowired
+    public SingleFlight(@Value("${news.service.coalesce-reads:true}") boolean enabled, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs the lookup, or waits for the identical lookup that is already in flight.
+     *
+     * @param operation the name of the operation - part of the key and the counter tag
+     * @param lookup    the lookup - its result must not be changed by the callers, as they all share it
+     * @param arguments the arguments of the lookup - part of the key, so they must implement equals and hashCode
+     * @param <T>       the result type
+     * @return the result of the lookup
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, Supplier<T> lookup, Object... arguments) {
+
+        if (!enabled) {
+            return lookup.get();
+        }
+        List<Object> key = Arrays.asList(operation, Arrays.asList(arguments));
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            coalescedCounter(operation).increment();
+            return (T) await(existing);
+        }
+        try {
+            T result = lookup.get();
+            future.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Forgets the lookup in flight, so later callers run their own lookup. The callers already waiting for it
+     * still get its result.
+     *
+     * @param operation the name of the operation
+     * @param arguments the arguments of the lookup
+     */
+    public void forget(String operation, Object... arguments) {
+
+        if (enabled) {
+            inFlight.remove(Arrays.asList(operation, Arrays.asList(arguments)));
+        }
+    }
+
+    /**
+     * Forgets all lookups of an operation that are in flight.
+     *
+     * @param operation the name of the operation
+     */
+    public void forgetAll(String operation) {
+
+        if (enabled) {
+            inFlight.keySet().removeIf(key -> operation.equals(key.get(0)));
+        }
+    }
+
+    /**
+     * Forgets all lookups in flight, e.g. after writes were missed - any of them may have read an old state.
+     */
+    public void forgetAll() {
+        inFlight.clear();
+    }
+
+    private Counter coalescedCounter(String operation) {
+        return meterRegistry.counter(COUNTER_NAME, "method", operation);
+    }
+
+    /**
+     * Rethrows the exception of the lookup unchanged, so e.g. a not found article gives a 404 to every caller.
+     */
+    private Object await(CompletableFuture<Object> future) {
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a coalesced lookup", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.upday.news.warmup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upday.news.cache.ArticleResponseCache;
+import com.upday.news.controller.ArticleResponseEncoder;
+import com.upday.news.controller.WireFormatConfig;
+import com.upday.news.model.Article;
+import com.upday.news.model.ArticleStore;
+import com.upday.news.model.ArticleSummary;
+import com.upday.news.service.ArticleService;
+
+/**
+ * Warms the instance up after startup - after the indexes were built - so the first requests do not pay for
+ * empty connection pools, empty caches and cold code: opens the mongo connections, loads the most recent articles
+ * into the article and response caches, looks up the most frequent authors and keywords and serializes all of
+ * it in every wire format. Until it is done, the {@link WarmupHealthIndicator} reports OUT_OF_SERVICE. The
+ * warm-up is best effort: if it fails, the instance is ready anyway.
+ */
+@Component
+public class ArticleWarmup implements ApplicationListener<ApplicationReadyEvent> {
+
+    /**
+     * Recorded once per startup.
+     */
+    public static final String TIMER_NAME = "news.warmup";
+
+    private static final List<MediaType> CONTENT_TYPES = Arrays.asList(MediaType.APPLICATION_JSON_UTF8,
+            MediaType.valueOf(WireFormatConfig.APPLICATION_SMILE_VALUE),
+            MediaType.valueOf(WireFormatConfig.APPLICATION_CBOR_VALUE));
+
+    private Logger log = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    WarmupProperties properties;
+
+    @Autowired
+    ArticleStore articleStore;
+
+    @Autowired
+    ArticleService articleService;
+
+    @Autowired
+    ArticleResponseCache articleResponseCache;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    /**
+     * Not present without mongo.
+     */
+    @Autowired
+    ObjectProvider<MongoTemplate> mongoTemplate;
+
+    /**
+     * Not present in the "reactive" profile.
+     */
+    @Autowired
+    ObjectProvider<ArticleResponseEncoder> articleResponseEncoder;
+
+    private volatile boolean finished;
+
+    private volatile Duration duration;
+
+    private volatile int warmedArticles;
+
+    private volatile String failure;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+
+        if (!properties.isEnabled()) {
+            log.info("Warm-up disabled.");
+            finished = true;
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            warmUp();
+        } catch (RuntimeException | JsonProcessingException e) {
+            log.warn("Warm-up failed - the instance is ready anyway", e);
+            failure = e.toString();
+        }
+        duration = Duration.ofNanos(System.nanoTime() - start);
+        meterRegistry.timer(TIMER_NAME).record(duration);
+        finished = true;
+        log.info("Warm-up of {} articles finished in {} ms", warmedArticles, duration.toMillis());
+    }
+
+    /**
+     * @return true if the warm-up is done (or disabled) - successful or not
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * @return how long the warm-up took - null if it is not finished or disabled
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * @return the number of articles loaded into the caches
+     */
+    public int getWarmedArticles() {
+        return warmedArticles;
+    }
+
+    /**
+     * @return why the warm-up failed - null if it did not
+     */
+    public String getFailure() {
+        return failure;
+    }
+
+    private void warmUp() throws JsonProcessingException {
+
+        openConnections();
+
+        List<ArticleSummary> latest = articleStore.findPageByPublishDateBetween(new Date(Long.MIN_VALUE),
+                new Date(Long.MAX_VALUE), null, properties.getArticles());
+        List<Article> articles = new ArrayList<>();
+        List<Long> responseStamps = new ArrayList<>();
+        for (ArticleSummary summary : latest) {
+            responseStamps.add(articleResponseCache.stamp(summary.getArticleId()));
+            // fills the article cache
+            articles.add(articleService.findById(summary.getArticleId()));
+            warmedArticles = articles.size();
+        }
+        objectMapper.writeValueAsBytes(latest);
+
+        ArticleResponseEncoder encoder = articleResponseEncoder.getIfAvailable();
+        if (encoder != null) {
+            for (int i = 0; i < articles.size(); i++) {
+                for (MediaType contentType : CONTENT_TYPES) {
+                    articleResponseCache.put(encoder.encode(articles.get(i), contentType), responseStamps.get(i));
+                }
+            }
+        }
+
+        for (String author : topTerms(articles, Article::getAuthors, properties.getTerms())) {
+            objectMapper.writeValueAsBytes(articleService.findByAuthor(author));
+            objectMapper.writeValueAsBytes(articleService.findLatestByAuthor(author, 10, Sort.Direction.DESC));
+        }
+        for (String keyword : topTerms(articles, Article::getKeywords, properties.getTerms())) {
+            objectMapper.writeValueAsBytes(articleService.findByKeyword(keyword));
+            objectMapper.writeValueAsBytes(articleService.findLatestByKeyword(keyword, 10, Sort.Direction.DESC));
+        }
+    }
+
+    /**
+     * A pool only opens connections on demand - concurrent pings make it open several at once.
+     */
+    private void openConnections() {
+
+        MongoTemplate template = mongoTemplate.getIfAvailable();
+        if (template == null) {
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getConnections());
+        try {
+            CompletableFuture.allOf(IntStream.range(0, properties.getConnections())
+                    .mapToObj(i -> CompletableFuture.runAsync(
+                            () -> template.executeCommand(new Document("ping", 1)), executor))
+                    .toArray(CompletableFuture[]::new))
+                    .join();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * @param articles the articles
+     * @param terms    the terms of an article, e.g. its authors
+     * @param limit    the maximum number of terms to return
+     * @return the most frequent terms, most frequent first
+     */
+    static List<String> topTerms(Collection<Article> articles, Function<Article, List<String>> terms, int limit) {
+
+        Map<String, Long> counts = articles.stream()
+                .map(terms)
+                .filter(Objects::nonNull)
+                .flatMap(List::stream)
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,43 @@
+package com.upday.news.warmup;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Part of /actuator/health (as "warmup"): OUT_OF_SERVICE - and so the whole health 503 - until the
+ * {@link ArticleWarmup} is finished, so a readiness probe on /actuator/health only sends traffic to warm
+ * instances.
+ */
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final ArticleWarmup articleWarmup;
+
+    /**
+     * Constructor.
+     *
+     * @param articleWarmup the warm-up to observe
+     */
+    @Autowired
+    public WarmupHealthIndicator(ArticleWarmup articleWarmup) {
+        this.articleWarmup = articleWarmup;
+    }
+
+    @Override
+    public Health health() {
+
+        if (!articleWarmup.isFinished()) {
+            return Health.outOfService().withDetail("articles", articleWarmup.getWarmedArticles()).build();
+        }
+        Health.Builder health = Health.up().withDetail("articles", articleWarmup.getWarmedArticles());
+        if (articleWarmup.getDuration() != null) {
+            health.withDetail("durationMillis", articleWarmup.getDuration().toMillis());
+        }
+        if (articleWarmup.getFailure() != null) {
+            health.withDetail("failure", articleWarmup.getFailure());
+        }
+        return health.build();
+    }
+}
@@ -0,0 +1,34 @@
+package com.upday.news.warmup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration of the warm-up after startup (prefix "news.warmup" in application.properties).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "news.warmup")
+public class WarmupProperties {
+
+    /**
+     * Switches the warm-up on or off. If off, the instance is ready as soon as it is started.
+     */
+    private boolean enabled = true;
+
+    /**
+     * The number of connections opened to mongo - up to the size of the connection pool.
+     */
+    private int connections = 10;
+
+    /**
+     * The number of most recent articles loaded into the caches.
+     */
+    private int articles = 1000;
+
+    /**
+     * The number of most frequent authors and keywords (of the most recent articles) that are looked up.
+     */
+    private int terms = 20;
+}
@@ -0,0 +1,42 @@
+package com.upday.news.writebehind;
+
+import java.util.Date;
+
+import lombok.Value;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.upday.news.model.Article;
+
+/**
+ * An acknowledged write that was not applied by mongo - kept in its own collection, so the editors' changes that
+ * were lost can be found and applied again.
+ */
+@Value
+@Document(collection = DroppedWrite.COLLECTION)
+class DroppedWrite {
+
+    static final String COLLECTION = "write_behind_dropped";
+
+    @Id
+    private ObjectId id;
+
+    private String articleId;
+
+    private PendingWrite.Type type;
+
+    /**
+     * The article as it would have been stored - null for a delete.
+     */
+    private Article article;
+
+    private String reason;
+
+    private Date droppedAt;
+
+    static DroppedWrite of(PendingWrite write, String reason) {
+        return new DroppedWrite(new ObjectId(), write.getArticleId(), write.getType(), write.getArticle(), reason,
+                new Date());
+    }
+}
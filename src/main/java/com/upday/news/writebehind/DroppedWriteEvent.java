@@ -0,0 +1,13 @@
+package com.upday.news.writebehind;
+
+import lombok.Value;
+
+/**
+ * Published after an acknowledged write was dropped - the caches and in-process indexes of this instance still
+ * hold the article as it was written, not as it is stored.
+ */
+@Value
+public class DroppedWriteEvent {
+
+    private String articleId;
+}
@@ -0,0 +1,15 @@
+package com.upday.news.writebehind;
+
+/**
+ * Keeps the acknowledged writes that the backend did not apply when they were flushed, e.g. because another
+ * instance changed or deleted the article in the meantime.
+ */
+interface DroppedWriteLog {
+
+    /**
+     * @param write  the dropped write
+     * @param reason why the backend did not apply it
+     * @throws RuntimeException if the write could not be recorded - it is recorded again
+     */
+    void record(PendingWrite write, String reason);
+}
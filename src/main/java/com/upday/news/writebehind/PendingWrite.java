@@ -0,0 +1,33 @@
+package com.upday.news.writebehind;
+
+import lombok.Value;
+
+import com.upday.news.model.Article;
+
+/**
+ * An accepted write that is not flushed to the store yet.
+ */
+@Value
+class PendingWrite {
+
+    /**
+     * The kind of a write - matches the bulk operations of the store.
+     */
+    enum Type {
+        INSERT, REPLACE, DELETE
+    }
+
+    /**
+     * The position in the journal - writes are flushed in this order.
+     */
+    private long sequence;
+
+    private Type type;
+
+    private String articleId;
+
+    /**
+     * The article as it will be stored, including its new version - null for a delete.
+     */
+    private Article article;
+}
@@ -0,0 +1,970 @@
+package com.upday.news.writebehind;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+
+import com.upday.news.change.ArticleChangePublisher;
+import com.upday.news.error.WriteQueueFullException;
+import com.upday.news.model.Article;
+import com.upday.news.model.ArticleCursor;
+import com.upday.news.model.ArticleQuery;
+import com.upday.news.model.ArticleStore;
+import com.upday.news.model.ArticleSummary;
+import com.upday.news.model.ArticleVersion;
+import com.upday.news.model.BulkItemResult;
+
+/**
+ * Write-behind mode: writes are acknowledged before they are stored in the backend. A write is checked (id,
+ * version) and appended to the local {@link WriteBehindJournal} synchronously, then it is visible at once in an
+ * in-process overlay of the pending writes. A background writer collects the pending writes into batches (up to
+ * the batch size, or whatever arrived within the max delay) and flushes them with the bulk operations of the
+ * backend - in journal order, split into runs of the same kind without repeated ids.
+ * Reads by id (findById, findVersion, exists and the hydration of index lookups) see the overlay first, so an
+ * editor reads its own writes. All other finders ask the backend and see a write once it is flushed.
+ * The number of pending writes is bounded: a write waits up to the offer timeout for a free slot, then it is
+ * rejected. The items of a bulk chunk are accepted or rejected as a whole, and appended to the journal together.
+ * After a flush the changes are published to the other instances and the overlay entries are dropped.
+ * Updates are only applied to the version they were based on. If another instance changed or deleted the article
+ * before the flush (or inserted the same id), the backend does not apply the write: it is dropped. A dropped write
+ * is not published; it is recorded by the {@link DroppedWriteLog} - with the article as it would have been
+ * stored - and a {@link DroppedWriteEvent} lets this instance reload its caches and indexes from the backend.
+ * Writes that were acknowledged but not flushed (crash, or the backend was down on shutdown) are replayed from
+ * the journal on the next start, before the instance serves requests. The replay is idempotent: a write that
+ * does not apply any more counts as applied if the backend holds exactly the written article - otherwise it is
+ * dropped.
+ */
+public class WriteBehindArticleStore implements ArticleStore, Closeable {
+
+    public static final String PENDING_GAUGE = "article.writebehind.pending";
+
+    public static final String DROPPED_COUNTER = "article.writebehind.dropped";
+
+    private static final int LOCK_STRIPES = 64;
+
+    private static final long POLL_MILLIS = 100;
+
+    private Logger log = LoggerFactory.getLogger(getClass());
+
+    private final ArticleStore delegate;
+
+    private final WriteBehindJournal journal;
+
+    private final WriteBehindProperties properties;
+
+    private final ArticleChangePublisher articleChangePublisher;
+
+    private final DroppedWriteLog droppedWriteLog;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * The latest pending write per article - removed once it is flushed, unless there is a newer one.
+     */
+    private final Map<String, PendingWrite> overlay = new ConcurrentHashMap<>();
+
+    private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+
+    /**
+     * One permit per write that may be pending.
+     */
+    private final Semaphore slots;
+
+    private final Lock[] locks = new Lock[LOCK_STRIPES];
+
+    /**
+     * The sequence of the last journaled write - guarded by the journal.
+     */
+    private long sequence;
+
+    private volatile boolean running;
+
+    private Thread writer;
+
+    /**
+     * Constructor. Call {@link #start()} before use.
+     *
+     * @param delegate               the backend the writes are flushed to
+     * @param journal                the journal of the accepted writes
+     * @param properties             the configuration
+     * @param articleChangePublisher publishes the flushed writes to the other instances - null if there is no
+     *                               change feed
+     * @param droppedWriteLog        records the writes the backend did not apply
+     * @param eventPublisher         publishes a {@link DroppedWriteEvent} for every dropped write
+     */
+    WriteBehindArticleStore(ArticleStore delegate, WriteBehindJournal journal, WriteBehindProperties properties,
+                            ArticleChangePublisher articleChangePublisher, DroppedWriteLog droppedWriteLog,
+                            ApplicationEventPublisher eventPublisher) {
+
+        this.delegate = delegate;
+        this.journal = journal;
+        this.properties = properties;
+        this.articleChangePublisher = articleChangePublisher;
+        this.droppedWriteLog = droppedWriteLog;
+        this.eventPublisher = eventPublisher;
+        this.slots = new Semaphore(properties.getQueueCapacity());
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Replays the unflushed writes of the journal and starts the writer.
+     *
+     * @throws RuntimeException if the backend is not available - the instance must not start, as it would serve
+     *                          the state before the replayed writes
+     */
+    public synchronized void start() {
+
+        List<PendingWrite> unflushed = journal.readUnflushed();
+        if (!unflushed.isEmpty()) {
+            log.info("Replaying {} unflushed writes from the write-behind journal", unflushed.size());
+            for (PendingWrite write : unflushed) {
+                String reason = replay(write);
+                if (reason == null) {
+                    publish(write);
+                } else {
+                    drop(write, reason);
+                }
+            }
+        }
+        synchronized (journal) {
+            journal.truncate();
+            sequence = 0;
+        }
+        running = true;
+        writer = new Thread(this::writeUntilStopped, "article-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stops accepting writes and flushes the pending ones. If the backend is not available, they stay in the
+     * journal for the next start.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+
+        running = false;
+        if (writer != null) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writer = null;
+        }
+        journal.close();
+    }
+
+    /**
+     * @return the number of accepted writes that are not flushed yet
+     */
+    public int getPendingCount() {
+        return properties.getQueueCapacity() - slots.availablePermits();
+    }
+
+    @Override
+    public boolean isWriteBehind() {
+        return true;
+    }
+
+    @Override
+    public Article insert(Article article) {
+
+        boolean generated = article.getArticleId() == null;
+        return insert(article, articleId -> !generated && delegate.exists(articleId));
+    }
+
+    @Override
+    public Optional<Article> replaceExisting(Article article) {
+        return replace(article, delegate::findVersion);
+    }
+
+    @Override
+    public Optional<Article> removeExisting(String articleId) {
+        return remove(articleId, delegate::findById, WriteBehindArticleStore::copy);
+    }
+
+    @Override
+    public List<BulkItemResult> bulkInsert(List<Article> articles) {
+
+        List<Article> copies = articles.stream().map(WriteBehindArticleStore::toInsert).collect(Collectors.toList());
+        return bulkWrite(copies, Article::getArticleId, (index, copy, pending, storedVersion, writes) -> {
+            String articleId = copy.getArticleId();
+            if (exists(articleId, pending, id -> storedVersion.apply(id).isPresent())) {
+                return new BulkItemResult(index, articleId, BulkItemResult.Status.FAILED,
+                        "Duplicate articleId: " + articleId);
+            }
+            writes.add(new PendingWrite(0, PendingWrite.Type.INSERT, articleId, copy));
+            return new BulkItemResult(index, articleId, BulkItemResult.Status.CREATED, null);
+        });
+    }
+
+    @Override
+    public List<BulkItemResult> bulkReplace(List<Article> articles) {
+
+        return bulkWrite(articles, Article::getArticleId, (index, article, pending, storedVersion, writes) -> {
+            String articleId = article.getArticleId();
+            Optional<Article> replacement = toReplace(article, pending, storedVersion);
+            if (replacement.isPresent()) {
+                writes.add(new PendingWrite(0, PendingWrite.Type.REPLACE, articleId, replacement.get()));
+                return new BulkItemResult(index, articleId, BulkItemResult.Status.UPDATED, null);
+            }
+            return exists(articleId, pending, id -> storedVersion.apply(id).isPresent())
+                    ? new BulkItemResult(index, articleId, BulkItemResult.Status.CONFLICT,
+                    "The article was changed since the given version.")
+                    : notFound(index, articleId);
+        });
+    }
+
+    @Override
+    public List<BulkItemResult> bulkDelete(List<String> articleIds) {
+
+        return bulkWrite(articleIds, Function.identity(), (index, articleId, pending, storedVersion, writes) -> {
+            if (!toRemove(articleId, pending, storedVersion, ArticleVersion::of).isPresent()) {
+                return notFound(index, articleId);
+            }
+            writes.add(new PendingWrite(0, PendingWrite.Type.DELETE, articleId, null));
+            return new BulkItemResult(index, articleId, BulkItemResult.Status.DELETED, null);
+        });
+    }
+
+    @Override
+    public boolean exists(String articleId) {
+
+        PendingWrite pending = overlay.get(articleId);
+        return pending == null ? delegate.exists(articleId) : pending.getArticle() != null;
+    }
+
+    @Override
+    public Optional<Article> findById(String articleId) {
+
+        PendingWrite pending = overlay.get(articleId);
+        return pending == null ? delegate.findById(articleId) : Optional.ofNullable(pending.getArticle())
+                .map(WriteBehindArticleStore::copy);
+    }
+
+    @Override
+    public Optional<ArticleVersion> findVersion(String articleId) {
+
+        PendingWrite pending = overlay.get(articleId);
+        return pending == null ? delegate.findVersion(articleId) : Optional.ofNullable(pending.getArticle())
+                .map(ArticleVersion::of);
+    }
+
+    @Override
+    public List<ArticleVersion> findVersions(Collection<String> articleIds) {
+        return merge(articleIds, delegate::findVersions, article -> true, ArticleVersion::of);
+    }
+
+    @Override
+    public List<ArticleSummary> findByAuthor(String author) {
+        return delegate.findByAuthor(author);
+    }
+
+    @Override
+    public List<ArticleSummary> findByKeyword(String keyword) {
+        return delegate.findByKeyword(keyword);
+    }
+
+    @Override
+    public List<ArticleSummary> findByPublishDateBetween(Date from, Date to) {
+        return delegate.findByPublishDateBetween(from, to);
+    }
+
+    @Override
+    public List<ArticleSummary> findByArticleIds(Collection<String> articleIds) {
+        return merge(articleIds, delegate::findByArticleIds, article -> true, ArticleSummary::of);
+    }
+
+    @Override
+    public List<ArticleSummary> findByArticleIdsAndPeriod(Collection<String> articleIds, Date from, Date to) {
+        return merge(articleIds, storedIds -> delegate.findByArticleIdsAndPeriod(storedIds, from, to),
+                article -> (from == null || article.getPublishDate().after(from))
+                        && (to == null || article.getPublishDate().before(to)),
+                ArticleSummary::of);
+    }
+
+    @Override
+    public List<ArticleSummary> findByQuery(ArticleQuery query) {
+        return delegate.findByQuery(query);
+    }
+
+    @Override
+    public List<ArticleSummary> findPageByAuthor(String author, ArticleCursor after, int limit) {
+        return delegate.findPageByAuthor(author, after, limit);
+    }
+
+    @Override
+    public List<ArticleSummary> findPageByKeyword(String keyword, ArticleCursor after, int limit) {
+        return delegate.findPageByKeyword(keyword, after, limit);
+    }
+
+    @Override
+    public List<ArticleSummary> findPageByPublishDateBetween(Date from, Date to, ArticleCursor after, int limit) {
+        return delegate.findPageByPublishDateBetween(from, to, after, limit);
+    }
+
+    @Override
+    public Stream<ArticleSummary> streamByAuthor(String author) {
+        return delegate.streamByAuthor(author);
+    }
+
+    @Override
+    public Stream<ArticleSummary> streamByKeyword(String keyword) {
+        return delegate.streamByKeyword(keyword);
+    }
+
+    @Override
+    public Stream<ArticleSummary> streamByPublishDateBetween(Date from, Date to) {
+        return delegate.streamByPublishDateBetween(from, to);
+    }
+
+    /**
+     * Includes the pending writes, so in-process indexes that are rebuilt while writes are pending contain them.
+     */
+    @Override
+    public Stream<Article> streamAll(String... fields) {
+
+        Map<String, PendingWrite> pending = new HashMap<>(overlay);
+        return Stream.concat(
+                delegate.streamAll(fields).filter(article -> !pending.containsKey(article.getArticleId())),
+                pending.values().stream()
+                        .filter(write -> write.getArticle() != null)
+                        .map(write -> copy(write.getArticle())));
+    }
+
+    private Article insert(Article article, Predicate<String> isStored) {
+
+        Article copy = toInsert(article);
+        acquireSlots(1);
+        boolean accepted = false;
+        Lock lock = lockFor(copy.getArticleId());
+        lock.lock();
+        try {
+            if (exists(copy.getArticleId(), overlay.get(copy.getArticleId()), isStored)) {
+                throw new DuplicateKeyException("Duplicate articleId: " + copy.getArticleId());
+            }
+            enqueue(Collections.singletonList(new PendingWrite(0, PendingWrite.Type.INSERT, copy.getArticleId(),
+                    copy)));
+            accepted = true;
+            return copy(copy);
+        } finally {
+            lock.unlock();
+            if (!accepted) {
+                slots.release();
+            }
+        }
+    }
+
+    private Optional<Article> replace(Article article, Function<String, Optional<ArticleVersion>> storedVersion) {
+
+        String articleId = article.getArticleId();
+        acquireSlots(1);
+        boolean accepted = false;
+        Lock lock = lockFor(articleId);
+        lock.lock();
+        try {
+            Optional<Article> replacement = toReplace(article, overlay.get(articleId), storedVersion);
+            if (replacement.isPresent()) {
+                enqueue(Collections.singletonList(new PendingWrite(0, PendingWrite.Type.REPLACE, articleId,
+                        replacement.get())));
+                accepted = true;
+            }
+            return replacement.map(WriteBehindArticleStore::copy);
+        } finally {
+            lock.unlock();
+            if (!accepted) {
+                slots.release();
+            }
+        }
+    }
+
+    private <T> Optional<T> remove(String articleId, Function<String, Optional<T>> stored,
+                                   Function<Article, T> fromPending) {
+
+        acquireSlots(1);
+        boolean accepted = false;
+        Lock lock = lockFor(articleId);
+        lock.lock();
+        try {
+            Optional<T> removed = toRemove(articleId, overlay.get(articleId), stored, fromPending);
+            if (removed.isPresent()) {
+                enqueue(Collections.singletonList(new PendingWrite(0, PendingWrite.Type.DELETE, articleId, null)));
+                accepted = true;
+            }
+            return removed;
+        } finally {
+            lock.unlock();
+            if (!accepted) {
+                slots.release();
+            }
+        }
+    }
+
+    /**
+     * Checks and accepts the items of a bulk chunk as a whole: the slots of all items are taken up front, the
+     * locks of all their articles are held while the items are checked, and the accepted writes are appended to
+     * the journal together. If the queue has no room for the whole chunk, nothing of it is accepted and every
+     * item is reported as FAILED.
+     */
+    private <T> List<BulkItemResult> bulkWrite(List<T> items, Function<T, String> articleIdOf,
+                                               BulkItemCheck<T> check) {
+
+        try {
+            acquireSlots(items.size());
+        } catch (WriteQueueFullException e) {
+            List<BulkItemResult> rejected = new ArrayList<>(items.size());
+            for (int i = 0; i < items.size(); i++) {
+                rejected.add(new BulkItemResult(i, articleIdOf.apply(items.get(i)), BulkItemResult.Status.FAILED,
+                        e.getMessage()));
+            }
+            return rejected;
+        }
+        int accepted = 0;
+        List<String> articleIds = items.stream().map(articleIdOf).collect(Collectors.toList());
+        List<Lock> chunkLocks = locksFor(articleIds);
+        chunkLocks.forEach(Lock::lock);
+        try {
+            // read under the locks, so no write of this instance can change the versions before the check
+            Function<String, Optional<ArticleVersion>> storedVersion = findStoredVersions(articleIds);
+            // a later item of the same article is checked against the write of the earlier one
+            Map<String, PendingWrite> chunkOverlay = new HashMap<>();
+            List<PendingWrite> writes = new ArrayList<>(items.size());
+            List<BulkItemResult> results = new ArrayList<>(items.size());
+            for (int i = 0; i < items.size(); i++) {
+                String articleId = articleIds.get(i);
+                PendingWrite pending = chunkOverlay.containsKey(articleId) ? chunkOverlay.get(articleId)
+                        : overlay.get(articleId);
+                int writeCount = writes.size();
+                results.add(check.check(i, items.get(i), pending, storedVersion, writes));
+                if (writes.size() > writeCount) {
+                    chunkOverlay.put(articleId, writes.get(writeCount));
+                }
+            }
+            enqueue(writes);
+            accepted = writes.size();
+            return results;
+        } finally {
+            for (int i = chunkLocks.size() - 1; i >= 0; i--) {
+                chunkLocks.get(i).unlock();
+            }
+            slots.release(items.size() - accepted);
+        }
+    }
+
+    private void acquireSlots(int count) {
+
+        if (!running) {
+            throw new WriteQueueFullException("The writer is stopped - no more writes are accepted.");
+        }
+        try {
+            if (!slots.tryAcquire(count, properties.getOfferTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new WriteQueueFullException("The write queue is full - " + properties.getQueueCapacity()
+                        + " writes are waiting to be stored.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WriteQueueFullException("Interrupted while waiting for a free slot in the write queue.");
+        }
+    }
+
+    /**
+     * Journal, overlay and queue are changed under one lock, so the queue is in journal order and the writer
+     * never sees a write before it is in the overlay. The writes get their sequence here and are appended to the
+     * journal with one write (and one force).
+     *
+     * @param writes the accepted writes, in order - their sequence is not set yet
+     */
+    private void enqueue(List<PendingWrite> writes) {
+
+        if (writes.isEmpty()) {
+            return;
+        }
+        synchronized (journal) {
+            List<PendingWrite> sequenced = new ArrayList<>(writes.size());
+            for (PendingWrite write : writes) {
+                sequenced.add(new PendingWrite(sequence + sequenced.size() + 1, write.getType(),
+                        write.getArticleId(), write.getArticle()));
+            }
+            journal.append(sequenced);
+            sequence += sequenced.size();
+            for (PendingWrite write : sequenced) {
+                overlay.put(write.getArticleId(), write);
+            }
+            queue.addAll(sequenced);
+        }
+    }
+
+    /**
+     * A batch that could not be flushed is kept and flushed again after the retry interval, as long as the store
+     * is running - the writes behind it wait meanwhile, so the journal order is kept.
+     */
+    private void writeUntilStopped() {
+
+        int batchSize = properties.getBatchSize();
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    collect(batch, batchSize);
+                }
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    log.error("Stopped flushing with {} pending writes - they are replayed from the journal on "
+                            + "the next start", getPendingCount(), e);
+                    return;
+                }
+                log.error("Flushing {} writes failed, retrying in {}", batch.size(), properties.getRetryInterval(),
+                        e);
+                try {
+                    Thread.sleep(properties.getRetryInterval().toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Collects up to batchSize writes - whatever arrived within the max delay after the first one.
+     */
+    private void collect(List<PendingWrite> batch, int batchSize) throws InterruptedException {
+
+        PendingWrite first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + properties.getMaxDelay().toNanos();
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                return;
+            }
+            PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    /**
+     * Flushes the batch run by run and removes every flushed run from it - if a run fails, the batch only holds
+     * the writes that are not flushed yet.
+     */
+    private void flush(List<PendingWrite> batch) throws InterruptedException {
+
+        long flushed = batch.get(batch.size() - 1).getSequence();
+        while (!batch.isEmpty()) {
+            List<PendingWrite> run = batch.subList(0, endOfRun(batch, 0));
+            Map<Integer, String> dropped = write(run);
+            for (Map.Entry<Integer, String> reason : dropped.entrySet()) {
+                dropUntilRecorded(run.get(reason.getKey()), reason.getValue());
+            }
+            for (int i = 0; i < run.size(); i++) {
+                PendingWrite write = run.get(i);
+                overlay.remove(write.getArticleId(), write);
+                slots.release();
+                if (dropped.containsKey(i)) {
+                    reload(write);
+                } else {
+                    publish(write);
+                }
+            }
+            run.clear();
+        }
+        synchronized (journal) {
+            if (flushed == sequence) {
+                journal.truncate();
+            } else {
+                journal.markFlushed(flushed);
+            }
+        }
+    }
+
+    /**
+     * A run ends before the first write of another kind, or of an article that is already part of the run.
+     */
+    private static int endOfRun(List<PendingWrite> batch, int start) {
+
+        Set<String> articleIds = new HashSet<>();
+        int end = start;
+        while (end < batch.size() && batch.get(end).getType() == batch.get(start).getType()
+                && articleIds.add(batch.get(end).getArticleId())) {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Writes a run with one bulk operation. If that fails, the run is replayed write by write until the backend
+     * is available again - the replay is idempotent, so writes that made it before the failure are skipped.
+     *
+     * @return why the backend did not apply a write, by its position in the run - empty if all were applied
+     */
+    private Map<Integer, String> write(List<PendingWrite> run) throws InterruptedException {
+
+        Map<Integer, String> dropped = new HashMap<>();
+        try {
+            for (BulkItemResult result : bulkWrite(run)) {
+                if (result.getStatus() == BulkItemResult.Status.FAILED
+                        || result.getStatus() == BulkItemResult.Status.CONFLICT
+                        // deleting an article that is gone already has the same outcome
+                        || result.getStatus() == BulkItemResult.Status.NOT_FOUND
+                        && run.get(0).getType() != PendingWrite.Type.DELETE) {
+                    dropped.put(result.getIndex(), result.getStatus() + ": " + result.getMessage());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Flushing {} writes failed, retrying one by one", run.size(), e);
+            for (int i = 0; i < run.size(); i++) {
+                String reason = replayUntilApplied(run.get(i));
+                if (reason != null) {
+                    dropped.put(i, reason);
+                }
+            }
+        }
+        return dropped;
+    }
+
+    private List<BulkItemResult> bulkWrite(List<PendingWrite> run) {
+
+        switch (run.get(0).getType()) {
+            case INSERT:
+                return delegate.bulkInsert(run.stream().map(PendingWrite::getArticle).collect(Collectors.toList()));
+            case REPLACE:
+                return delegate.bulkReplace(run.stream().map(WriteBehindArticleStore::expected)
+                        .collect(Collectors.toList()));
+            default:
+                return delegate.bulkDelete(run.stream().map(PendingWrite::getArticleId).collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * @return why the write was not applied - null if it is applied
+     */
+    private String replayUntilApplied(PendingWrite write) throws InterruptedException {
+
+        while (true) {
+            try {
+                return replay(write);
+            } catch (RuntimeException e) {
+                if (!running) {
+                    throw e;
+                }
+                log.warn("Flushing the {} of {} failed, retrying in {}", write.getType(), write.getArticleId(),
+                        properties.getRetryInterval(), e);
+                Thread.sleep(properties.getRetryInterval().toMillis());
+            }
+        }
+    }
+
+    /**
+     * @return why the write was not applied - null if it is applied now, or was applied before
+     */
+    private String replay(PendingWrite write) {
+
+        switch (write.getType()) {
+            case INSERT:
+                try {
+                    delegate.insert(write.getArticle());
+                } catch (DuplicateKeyException e) {
+                    if (!isStored(write)) {
+                        return "CONFLICT: Another article with this id exists.";
+                    }
+                    log.debug("Skipping the replayed insert of {} - it exists already", write.getArticleId());
+                }
+                return null;
+            case REPLACE:
+                if (!delegate.replaceExisting(expected(write)).isPresent()) {
+                    if (!isStored(write)) {
+                        return "CONFLICT: The article was changed or deleted elsewhere.";
+                    }
+                    log.debug("Skipping the replayed update of {} - it is applied already", write.getArticleId());
+                }
+                return null;
+            default:
+                delegate.removeExisting(write.getArticleId());
+                return null;
+        }
+    }
+
+    /**
+     * A write that does not apply any more may have been applied before - then the backend holds exactly the
+     * written article, apart from the modification time the backend sets itself.
+     */
+    private boolean isStored(PendingWrite write) {
+
+        Optional<Article> stored = delegate.findById(write.getArticleId());
+        if (!stored.isPresent()) {
+            return false;
+        }
+        Article written = copy(write.getArticle());
+        written.setLastModified(null);
+        Article storedArticle = copy(stored.get());
+        storedArticle.setLastModified(null);
+        return written.equals(storedArticle);
+    }
+
+    /**
+     * Records the dropped write, as long as the store is running - otherwise it stays in the journal, and the
+     * replay on the next start drops it again.
+     */
+    private void dropUntilRecorded(PendingWrite write, String reason) throws InterruptedException {
+
+        while (true) {
+            try {
+                drop(write, reason);
+                return;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    throw e;
+                }
+                log.warn("Recording the dropped {} of {} failed, retrying in {}", write.getType(),
+                        write.getArticleId(), properties.getRetryInterval(), e);
+                Thread.sleep(properties.getRetryInterval().toMillis());
+            }
+        }
+    }
+
+    private void drop(PendingWrite write, String reason) {
+
+        log.error("Dropped the acknowledged {} of {} - {}", write.getType(), write.getArticleId(), reason);
+        droppedWriteLog.record(write, reason);
+    }
+
+    /**
+     * Lets this instance reload the article of a dropped write - the overlay entry is removed already, so the
+     * backend is read.
+     */
+    private void reload(PendingWrite write) {
+
+        try {
+            eventPublisher.publishEvent(new DroppedWriteEvent(write.getArticleId()));
+        } catch (RuntimeException e) {
+            log.warn("Reloading the article {} of the dropped {} failed", write.getArticleId(), write.getType(), e);
+        }
+    }
+
+    private void publish(PendingWrite write) {
+
+        if (articleChangePublisher == null) {
+            return;
+        }
+        try {
+            if (write.getType() == PendingWrite.Type.DELETE) {
+                articleChangePublisher.publishDeleted(write.getArticleId());
+            } else {
+                articleChangePublisher.publishSaved(write.getArticleId());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Publishing the flushed {} of {} failed", write.getType(), write.getArticleId(), e);
+        }
+    }
+
+    /**
+     * Reads the versions of the articles without pending writes in one round trip. An article whose pending write
+     * is flushed after this read is looked up on its own.
+     */
+    private Function<String, Optional<ArticleVersion>> findStoredVersions(List<String> articleIds) {
+
+        Set<String> storedIds = articleIds.stream()
+                .filter(articleId -> articleId != null && !overlay.containsKey(articleId))
+                .collect(Collectors.toSet());
+        Map<String, ArticleVersion> versions = storedIds.isEmpty() ? new HashMap<>()
+                : delegate.findVersions(storedIds).stream()
+                .collect(Collectors.toMap(ArticleVersion::getArticleId, Function.identity()));
+        return articleId -> storedIds.contains(articleId) ? Optional.ofNullable(versions.get(articleId))
+                : delegate.findVersion(articleId);
+    }
+
+    /**
+     * Answers the ids with pending writes from the overlay and all others from the backend.
+     */
+    private <T> List<T> merge(Collection<String> articleIds, Function<Collection<String>, List<T>> lookup,
+                              Predicate<Article> filter, Function<Article, T> fromPending) {
+
+        List<T> results = new ArrayList<>(articleIds.size());
+        List<String> storedIds = new ArrayList<>(articleIds.size());
+        for (String articleId : articleIds) {
+            PendingWrite pending = overlay.get(articleId);
+            if (pending == null) {
+                storedIds.add(articleId);
+            } else if (pending.getArticle() != null && filter.test(pending.getArticle())) {
+                results.add(fromPending.apply(copy(pending.getArticle())));
+            }
+        }
+        if (!storedIds.isEmpty()) {
+            results.addAll(lookup.apply(storedIds));
+        }
+        return results;
+    }
+
+    private Lock lockFor(String articleId) {
+        return locks[stripe(articleId)];
+    }
+
+    /**
+     * @return the locks of the articles, in stripe order - so two chunks can not deadlock
+     */
+    private List<Lock> locksFor(List<String> articleIds) {
+        return articleIds.stream()
+                .map(WriteBehindArticleStore::stripe)
+                .distinct()
+                .sorted()
+                .map(stripe -> locks[stripe])
+                .collect(Collectors.toList());
+    }
+
+    private static int stripe(String articleId) {
+        return Math.floorMod(articleId.hashCode(), LOCK_STRIPES);
+    }
+
+    /**
+     * @param pending the latest pending write of the article - null if there is none
+     */
+    private static boolean exists(String articleId, PendingWrite pending, Predicate<String> isStored) {
+        return pending == null ? isStored.test(articleId) : pending.getArticle() != null;
+    }
+
+    /**
+     * Checks the version against the latest pending write, or the stored article, and predicts the new version
+     * - the backend increments the same version when the write is flushed.
+     *
+     * @param pending the latest pending write of the article - null if there is none
+     * @return the article as it will be stored - empty if it does not exist or has another version
+     */
+    private static Optional<Article> toReplace(Article article, PendingWrite pending,
+                                               Function<String, Optional<ArticleVersion>> storedVersion) {
+
+        Optional<ArticleVersion> current = pending == null ? storedVersion.apply(article.getArticleId())
+                : Optional.ofNullable(pending.getArticle()).map(ArticleVersion::of);
+        if (!current.isPresent()) {
+            return Optional.empty();
+        }
+        long version = current.get().getVersion() == null ? 0 : current.get().getVersion();
+        if (article.getVersion() != null && article.getVersion() != version) {
+            return Optional.empty();
+        }
+        Article replacement = copy(article);
+        replacement.setVersion(version + 1);
+        replacement.setLastModified(new Date());
+        return Optional.of(replacement);
+    }
+
+    /**
+     * @param pending the latest pending write of the article - null if there is none
+     * @return the removed article - empty if it does not exist
+     */
+    private static <T> Optional<T> toRemove(String articleId, PendingWrite pending,
+                                            Function<String, Optional<T>> stored, Function<Article, T> fromPending) {
+        return pending == null ? stored.apply(articleId) : Optional.ofNullable(pending.getArticle()).map(fromPending);
+    }
+
+    private static Article toInsert(Article article) {
+
+        Article copy = copy(article);
+        if (copy.getArticleId() == null) {
+            copy.setArticleId(new ObjectId().toHexString());
+        }
+        if (copy.getVersion() == null) {
+            copy.setVersion(0L);
+        }
+        return copy;
+    }
+
+    /**
+     * @return the article of a pending replace with the version it is based on - the backend only replaces the
+     * stored article if it still has this version, so a write is never applied twice
+     */
+    private static Article expected(PendingWrite write) {
+
+        Article expected = copy(write.getArticle());
+        expected.setVersion(write.getArticle().getVersion() - 1);
+        return expected;
+    }
+
+    private static BulkItemResult notFound(int index, String articleId) {
+        return new BulkItemResult(index, articleId, BulkItemResult.Status.NOT_FOUND, "No article with this id.");
+    }
+
+    /**
+     * Pending articles are never handed out, so callers can not change them behind the back of the writer.
+     */
+    private static Article copy(Article article) {
+
+        Article copy = new Article();
+        copy.setArticleId(article.getArticleId());
+        copy.setHeader(article.getHeader());
+        copy.setShortDescription(article.getShortDescription());
+        copy.setText(article.getText());
+        copy.setPublishDate(copy(article.getPublishDate()));
+        copy.setAuthors(article.getAuthors() == null ? null : new ArrayList<>(article.getAuthors()));
+        copy.setKeywords(article.getKeywords() == null ? null : new ArrayList<>(article.getKeywords()));
+        copy.setVersion(article.getVersion());
+        copy.setLastModified(copy(article.getLastModified()));
+        return copy;
+    }
+
+    private static Date copy(Date date) {
+        return date == null ? null : new Date(date.getTime());
+    }
+
+    /**
+     * Checks one item of a bulk chunk.
+     *
+     * @param <T> the type of the items
+     */
+    @FunctionalInterface
+    private interface BulkItemCheck<T> {
+
+        /**
+         * @param index         the index of the item in the chunk
+         * @param item          the item
+         * @param pending       the latest pending write of the article, including the earlier items of the chunk -
+         *                      null if there is none
+         * @param storedVersion the stored version of an article without pending write
+         * @param writes        the accepted writes of the chunk - the write of the item is added if it is accepted
+         * @return the result of the item
+         */
+        BulkItemResult check(int index, T item, PendingWrite pending,
+                             Function<String, Optional<ArticleVersion>> storedVersion, List<PendingWrite> writes);
+    }
+}
@@ -0,0 +1,61 @@
+package com.upday.news.writebehind;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upday.news.change.ArticleChangePublisher;
+import com.upday.news.model.MongoArticleStore;
+
+/**
+ * Wraps the mongo backend in the {@link WriteBehindArticleStore} if "news.write-behind.enabled" is set. The
+ * wrapper is the primary {@link com.upday.news.model.ArticleStore}, so all users of the store get it.
+ */
+@Configuration
+@ConditionalOnProperty(name = "news.write-behind.enabled", havingValue = "true")
+public class WriteBehindConfig {
+
+    /**
+     * Replays the journal before the store is handed out, so the in-process indexes are built from the complete
+     * state. On shutdown the pending writes are flushed.
+     */
+    @Bean(destroyMethod = "close")
+    @Primary
+    public WriteBehindArticleStore writeBehindArticleStore(MongoArticleStore mongoArticleStore,
+                                                           WriteBehindProperties properties,
+                                                           ObjectMapper objectMapper,
+                                                           ObjectProvider<ArticleChangePublisher> publisher,
+                                                           MongoTemplate mongoTemplate,
+                                                           ApplicationEventPublisher eventPublisher,
+                                                           MeterRegistry meterRegistry) throws IOException {
+
+        WriteBehindJournal journal = new WriteBehindJournal(Paths.get(properties.getJournal()), objectMapper,
+                properties.isJournalSync());
+        Counter droppedCounter = Counter.builder(WriteBehindArticleStore.DROPPED_COUNTER)
+                .description("The number of acknowledged writes that mongo did not apply - see the collection "
+                        + DroppedWrite.COLLECTION)
+                .register(meterRegistry);
+        DroppedWriteLog droppedWriteLog = (write, reason) -> {
+            mongoTemplate.insert(DroppedWrite.of(write, reason));
+            droppedCounter.increment();
+        };
+        WriteBehindArticleStore store = new WriteBehindArticleStore(mongoArticleStore, journal, properties,
+                publisher.getIfAvailable(), droppedWriteLog, eventPublisher);
+        store.start();
+        Gauge.builder(WriteBehindArticleStore.PENDING_GAUGE, store, WriteBehindArticleStore::getPendingCount)
+                .description("The number of accepted writes that are not stored in mongo yet")
+                .register(meterRegistry);
+        return store;
+    }
+}
@@ -0,0 +1,195 @@
+package com.upday.news.writebehind;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.upday.news.model.Article;
+
+/**
+ * An append-only file of the accepted writes, one JSON object per line. After a batch was flushed, a watermark
+ * line ({"flushed": sequence}) is appended; once every accepted write is flushed the file is truncated. On start,
+ * the writes after the last watermark are the ones that were acknowledged but not flushed. A torn last line -
+ * the instance died while appending - is skipped, its write was never acknowledged.
+ * Not thread-safe: the caller serializes all calls.
+ */
+class WriteBehindJournal implements Closeable {
+
+    private static final String SEQUENCE = "sequence";
+
+    private static final String TYPE = "type";
+
+    private static final String ARTICLE_ID = "articleId";
+
+    private static final String ARTICLE = "article";
+
+    private static final String FLUSHED = "flushed";
+
+    private Logger log = LoggerFactory.getLogger(getClass());
+
+    private final Path path;
+
+    private final ObjectMapper objectMapper;
+
+    private final boolean sync;
+
+    private final FileChannel channel;
+
+    /**
+     * Constructor. Opens the file for appending - it is created if it does not exist.
+     *
+     * @param path         the journal file
+     * @param objectMapper the mapper of the articles
+     * @param sync         true to force every entry to disk before append returns
+     * @throws IOException if the file can not be opened
+     */
+    WriteBehindJournal(Path path, ObjectMapper objectMapper, boolean sync) throws IOException {
+
+        this.path = path;
+        this.objectMapper = objectMapper;
+        this.sync = sync;
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    /**
+     * @return the writes that were appended after the last watermark, in journal order
+     */
+    List<PendingWrite> readUnflushed() {
+
+        Map<Long, PendingWrite> unflushed = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                JsonNode entry;
+                try {
+                    entry = objectMapper.readTree(line);
+                } catch (IOException e) {
+                    log.warn("Skipping a torn entry of the write-behind journal {}: {}", path, line);
+                    continue;
+                }
+                if (entry == null) {
+                    continue;
+                }
+                if (entry.has(FLUSHED)) {
+                    long flushed = entry.get(FLUSHED).asLong();
+                    unflushed.keySet().removeIf(sequence -> sequence <= flushed);
+                } else {
+                    PendingWrite write = toWrite(entry);
+                    unflushed.put(write.getSequence(), write);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Reading the write-behind journal failed: " + path, e);
+        }
+        return new ArrayList<>(unflushed.values());
+    }
+
+    /**
+     * @param write an accepted write - durable once this method returns (if sync is on)
+     */
+    void append(PendingWrite write) {
+        append(Collections.singletonList(write));
+    }
+
+    /**
+     * Appends several writes with one write and one force - a group commit of e.g. a bulk chunk.
+     *
+     * @param writes accepted writes - durable once this method returns (if sync is on)
+     */
+    void append(List<PendingWrite> writes) {
+
+        StringBuilder lines = new StringBuilder();
+        for (PendingWrite write : writes) {
+            ObjectNode entry = objectMapper.createObjectNode();
+            entry.put(SEQUENCE, write.getSequence());
+            entry.put(TYPE, write.getType().name());
+            entry.put(ARTICLE_ID, write.getArticleId());
+            if (write.getArticle() != null) {
+                entry.set(ARTICLE, objectMapper.valueToTree(write.getArticle()));
+            }
+            lines.append(toLine(entry));
+        }
+        write(lines.toString());
+    }
+
+    /**
+     * @param sequence all writes up to this sequence are flushed
+     */
+    void markFlushed(long sequence) {
+        write(toLine(objectMapper.createObjectNode().put(FLUSHED, sequence)));
+    }
+
+    /**
+     * Empties the journal - only when every accepted write is flushed.
+     */
+    void truncate() {
+
+        try {
+            channel.truncate(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Truncating the write-behind journal failed: " + path, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private String toLine(JsonNode entry) {
+
+        try {
+            return objectMapper.writeValueAsString(entry) + "\n";
+        } catch (IOException e) {
+            throw new UncheckedIOException("Encoding a write-behind journal entry failed: " + path, e);
+        }
+    }
+
+    private void write(String lines) {
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (sync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Appending to the write-behind journal failed: " + path, e);
+        }
+    }
+
+    private PendingWrite toWrite(JsonNode entry) throws IOException {
+
+        JsonNode article = entry.get(ARTICLE);
+        return new PendingWrite(
+                entry.get(SEQUENCE).asLong(),
+                PendingWrite.Type.valueOf(entry.get(TYPE).asText()),
+                entry.get(ARTICLE_ID).asText(),
+                article == null ? null : objectMapper.treeToValue(article, Article.class));
+    }
+}
@@ -0,0 +1,58 @@
+package com.upday.news.writebehind;
+
+import java.time.Duration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration of the write-behind mode (prefix "news.write-behind" in application.properties).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "news.write-behind")
+public class WriteBehindProperties {
+
+    /**
+     * Switches the write-behind mode on or off. If off, every write is stored in mongo before it is acknowledged.
+     */
+    private boolean enabled = false;
+
+    /**
+     * The maximum number of writes flushed to mongo in one batch.
+     */
+    private int batchSize = 500;
+
+    /**
+     * The maximum time the writer waits for more writes before it flushes an incomplete batch.
+     */
+    private Duration maxDelay = Duration.ofMillis(200);
+
+    /**
+     * The maximum number of accepted writes that are not flushed yet. Further writes wait for a free slot.
+     */
+    private int queueCapacity = 10000;
+
+    /**
+     * The maximum time a write waits for a free slot before it is rejected with 503 - Service unavailable.
+     */
+    private Duration offerTimeout = Duration.ofSeconds(1);
+
+    /**
+     * The local file all accepted writes are appended to before they are acknowledged. Writes that were not
+     * flushed when the instance stopped are replayed from it on the next start.
+     */
+    private String journal = "write-behind.journal";
+
+    /**
+     * Forces every journal entry to disk before the write is acknowledged. Without it, a crash of the operating
+     * system (not only of the instance) can lose the last acknowledged writes.
+     */
+    private boolean journalSync = true;
+
+    /**
+     * The pause before a failed flush is retried.
+     */
+    private Duration retryInterval = Duration.ofSeconds(1);
+}
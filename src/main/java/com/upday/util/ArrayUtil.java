@@ -1,36 +1,243 @@
 package com.upday.util;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
 
 import javax.validation.constraints.NotNull;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
 /**
  * A utility class offering some methods for arrays.
  */
 public class ArrayUtil {
 
+    private static final int INITIAL_STACK_SIZE = 16;
+
+    /**
+     * The number of parts per worker thread a parallel flatten is split into - more parts than threads, so
+     * sublists of different sizes still keep all threads busy.
+     */
+    private static final int PARTS_PER_THREAD = 4;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
     private ArrayUtil() {
     }
 
     /**
      * This method will "flatten" an array of integers and nested arrays of integers into an array of integers
      * only. (E.g. [[1,2,[3]],4] -> [1,2,3,4]). Note that elements which are not of type Integer of List are ignored.
+     * Kept for compatibility - {@link #flattenArray(List)} does not box the integers.
      *
      * @param originalArray the array to flatten
      * @param resultArray   the array to which results are added
      */
     public static void flattenArray(@NotNull List<Object> originalArray, @NotNull List<Integer> resultArray) {
 
-        originalArray.forEach(element -> {
+        int[] values = flattenArray(originalArray);
+        if (resultArray instanceof ArrayList) {
+            ((ArrayList<Integer>) resultArray).ensureCapacity(resultArray.size() + values.length);
+        }
+        for (int value : values) {
+            resultArray.add(value);
+        }
+    }
+
+    /**
+     * This method will "flatten" an array of integers and nested arrays of integers into a primitive array.
+     * (E.g. [[1,2,[3]],4] -> [1,2,3,4]). Note that elements which are not of type Integer or List are ignored.
+     * The nesting depth is only limited by the heap: nested arrays are walked with an explicit stack instead of
+     * recursion. A first pass counts the integers, so the result is allocated once with its exact size.
+     * The array must not contain itself.
+     *
+     * @param originalArray the array to flatten
+     * @return the integers in their order of occurrence
+     */
+    public static int[] flattenArray(@NotNull List<?> originalArray) {
+
+        int[] result = new int[walk(originalArray, null, 0)];
+        walk(originalArray, result, 0);
+        return result;
+    }
+
+    /**
+     * Like {@link #flattenArray(List)}, but the work is split at the top-level elements and done in the common
+     * fork-join pool: first all parts count their integers in parallel, then each part writes them into the
+     * result at its own offset - so the order is kept and the result is allocated once.
+     * Only worth it for large arrays. Top-level arrays with a single nested array are unwrapped first.
+     *
+     * @param originalArray the array to flatten
+     * @return the integers in their order of occurrence
+     */
+    public static int[] flattenArrayParallel(@NotNull List<?> originalArray) {
+
+        List<?> array = originalArray;
+        while (array.size() == 1 && array.get(0) instanceof List) {
+            array = (List<?>) array.get(0);
+        }
+        int parts = Math.min(array.size(), ForkJoinPool.getCommonPoolParallelism() * PARTS_PER_THREAD);
+        if (parts < 2) {
+            return flattenArray(array);
+        }
+
+        List<?>[] partArrays = new List<?>[parts];
+        for (int i = 0; i < parts; i++) {
+            partArrays[i] = array.subList((int) ((long) array.size() * i / parts),
+                    (int) ((long) array.size() * (i + 1) / parts));
+        }
+        int[] offsets = new int[parts + 1];
+        IntStream.range(0, parts).parallel().forEach(i -> offsets[i + 1] = walk(partArrays[i], null, 0));
+        Arrays.parallelPrefix(offsets, Integer::sum);
+
+        int[] result = new int[offsets[parts]];
+        IntStream.range(0, parts).parallel().forEach(i -> walk(partArrays[i], result, offsets[i]));
+        return result;
+    }
+
+    /**
+     * Flattens a json array of integers and nested arrays, e.g. [[1,2,[3]],4], without building it in memory:
+     * the integers are passed to the sink while the json is read token by token. Other values (strings,
+     * objects, decimals, numbers beyond int) are skipped.
+     *
+     * @param parser a parser positioned before or at the start of the array - it is read up to the end of the
+     *               array and not closed
+     * @param sink   receives the integers in their order of occurrence
+     * @return the number of integers
+     * @throws IOException if the json can not be read or is no array
+     */
+    public static long flattenJsonArray(@NotNull JsonParser parser, @NotNull IntConsumer sink) throws IOException {
+
+        JsonIntSpliterator integers = new JsonIntSpliterator(parser);
+        long count = 0;
+        try {
+            while (integers.tryAdvance(sink)) {
+                count++;
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return count;
+    }
 
+    /**
+     * Flattens a json array of integers and nested arrays to a lazy stream - the json is read while the stream
+     * is consumed. See {@link #flattenJsonArray(JsonParser, IntConsumer)}.
+     * The stream must be closed after use, which closes the input stream.
+     *
+     * @param json a json array
+     * @return the integers in their order of occurrence
+     * @throws IOException if the json can not be read - errors while the stream is consumed are thrown as
+     *                     UncheckedIOException
+     */
+    public static IntStream flattenJsonArray(@NotNull InputStream json) throws IOException {
+
+        JsonParser parser = JSON_FACTORY.createParser(json);
+        return StreamSupport.intStream(new JsonIntSpliterator(parser), false)
+                .onClose(() -> {
+                    try {
+                        parser.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * Walks the nested arrays depth first, keeping one iterator per open level on a stack.
+     *
+     * @param array  the array to walk
+     * @param result the array the integers are written to - null to only count them
+     * @param offset the position in the result of the first integer
+     * @return the number of integers
+     */
+    private static int walk(List<?> array, int[] result, int offset) {
+
+        Iterator<?>[] stack = new Iterator<?>[INITIAL_STACK_SIZE];
+        int depth = 0;
+        stack[0] = array.iterator();
+        int count = 0;
+        while (depth >= 0) {
+            Iterator<?> level = stack[depth];
+            if (!level.hasNext()) {
+                stack[depth--] = null;
+                continue;
+            }
+            Object element = level.next();
             if (element instanceof List) {
-                // recursion
-                flattenArray((List<Object>) element, resultArray);
+                if (++depth == stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[depth] = ((List<?>) element).iterator();
             } else if (element instanceof Integer) {
-                // add to result list -> end of recursion
-                resultArray.add((Integer) element);
+                if (result != null) {
+                    result[offset + count] = (Integer) element;
+                }
+                count++;
             }
-        });
+        }
+        return count;
     }
 
-}
\ No newline at end of file
+    /**
+     * Reads the integers of a json array token by token. Only the nesting depth is tracked, so no stack is
+     * needed at all.
+     */
+    private static final class JsonIntSpliterator extends Spliterators.AbstractIntSpliterator {
+
+        private final JsonParser parser;
+
+        private int depth = -1;
+
+        private JsonIntSpliterator(JsonParser parser) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.parser = parser;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+
+            try {
+                if (depth < 0) {
+                    JsonToken first = parser.currentToken() == null ? parser.nextToken() : parser.currentToken();
+                    if (first != JsonToken.START_ARRAY) {
+                        throw new IOException("The json is no array: " + first);
+                    }
+                    depth = 1;
+                }
+                while (depth > 0) {
+                    JsonToken token = parser.nextToken();
+                    if (token == null) {
+                        throw new IOException("Unexpected end of the json array.");
+                    } else if (token == JsonToken.START_ARRAY) {
+                        depth++;
+                    } else if (token == JsonToken.END_ARRAY) {
+                        depth--;
+                    } else if (token == JsonToken.START_OBJECT) {
+                        parser.skipChildren();
+                    } else if (token == JsonToken.VALUE_NUMBER_INT
+                            && parser.getNumberType() == JsonParser.NumberType.INT) {
+                        action.accept(parser.getIntValue());
+                        return true;
+                    }
+                }
+                return false;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
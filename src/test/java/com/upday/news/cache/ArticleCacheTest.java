@@ -0,0 +1,65 @@
+package com.upday.news.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.upday.news.model.Article;
+
+/**
+ * This tests verify that an article loaded before an invalidation is not cached after it.
+ */
+public class ArticleCacheTest {
+
+    private final ArticleCache articleCache = new ArticleCache(new ArticleCacheProperties());
+
+    @Test
+    public void putLoadedArticle() {
+
+        // prepare
+        long stamp = articleCache.stamp("a1");
+
+        // test
+        articleCache.put(createArticle("a1", 0L), stamp);
+
+        // verify
+        Assert.assertEquals(Long.valueOf(0), articleCache.get("a1").getVersion());
+    }
+
+    @Test
+    public void skipArticleLoadedBeforeInvalidation() {
+
+        // prepare - a reader loads version 0, meanwhile version 1 is stored
+        long stamp = articleCache.stamp("a1");
+        articleCache.invalidate("a1");
+
+        // test
+        articleCache.put(createArticle("a1", 0L), stamp);
+
+        // verify
+        Assert.assertNull(articleCache.get("a1"));
+        articleCache.put(createArticle("a1", 1L), articleCache.stamp("a1"));
+        Assert.assertEquals(Long.valueOf(1), articleCache.get("a1").getVersion());
+    }
+
+    @Test
+    public void skipArticleLoadedBeforeInvalidateAll() {
+
+        // prepare
+        long stamp = articleCache.stamp("a1");
+        articleCache.invalidateAll();
+
+        // test
+        articleCache.put(createArticle("a1", 0L), stamp);
+
+        // verify
+        Assert.assertNull(articleCache.get("a1"));
+    }
+
+    private static Article createArticle(String articleId, Long version) {
+
+        Article article = new Article();
+        article.setArticleId(articleId);
+        article.setVersion(version);
+        return article;
+    }
+}
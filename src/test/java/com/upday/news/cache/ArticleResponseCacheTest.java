@@ -0,0 +1,41 @@
+package com.upday.news.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import com.upday.news.model.Article;
+import com.upday.news.model.ArticleVersion;
+
+/**
+ * This tests verify that a response encoded from an article loaded before an invalidation is not cached after it.
+ */
+public class ArticleResponseCacheTest {
+
+    private final ArticleResponseCache articleResponseCache = new ArticleResponseCache(new ArticleCacheProperties());
+
+    @Test
+    public void skipResponseLoadedBeforeInvalidation() {
+
+        // prepare - a reader loads version 0, meanwhile version 1 is stored
+        long stamp = articleResponseCache.stamp("a1");
+        articleResponseCache.invalidate("a1");
+
+        // test
+        articleResponseCache.put(createResponse("a1", 0L), stamp);
+
+        // verify
+        Assert.assertNull(articleResponseCache.get("a1", MediaType.APPLICATION_JSON));
+        articleResponseCache.put(createResponse("a1", 1L), articleResponseCache.stamp("a1"));
+        Assert.assertEquals(Long.valueOf(1),
+                articleResponseCache.get("a1", MediaType.APPLICATION_JSON).getVersion().getVersion());
+    }
+
+    private static EncodedArticle createResponse(String articleId, Long version) {
+
+        Article article = new Article();
+        article.setArticleId(articleId);
+        article.setVersion(version);
+        return new EncodedArticle(ArticleVersion.of(article), MediaType.APPLICATION_JSON, new byte[0]);
+    }
+}
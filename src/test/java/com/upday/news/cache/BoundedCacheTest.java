@@ -0,0 +1,131 @@
+package com.upday.news.cache;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This tests verify the eviction and the counters of the bounded cache.
+ */
+public class BoundedCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    public void getAndPut() {
+
+        // prepare
+        BoundedCache<String, String> cache = new BoundedCache<>(10, 1000, now::get);
+
+        // test
+        String missed = cache.get("a");
+        cache.put("a", "value a");
+        String hit = cache.get("a");
+
+        // verify
+        Assert.assertNull(missed);
+        Assert.assertEquals("value a", hit);
+        Assert.assertEquals(1, cache.getStatistics().getHitCount());
+        Assert.assertEquals(1, cache.getStatistics().getMissCount());
+        Assert.assertEquals(0.5, cache.getStatistics().getHitRate(), 0.0001);
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() {
+
+        // prepare
+        BoundedCache<String, String> cache = new BoundedCache<>(2, 1000, now::get);
+        cache.put("a", "value a");
+        cache.put("b", "value b");
+        cache.get("a");
+
+        // test
+        cache.put("c", "value c");
+
+        // verify
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals("value a", cache.get("a"));
+        Assert.assertNull(cache.get("b"));
+        Assert.assertEquals("value c", cache.get("c"));
+        Assert.assertEquals(1, cache.getStatistics().getEvictionCount());
+    }
+
+    @Test
+    public void expireAfterTtl() {
+
+        // prepare
+        BoundedCache<String, String> cache = new BoundedCache<>(10, 1000, now::get);
+        cache.put("a", "value a");
+
+        // test
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        String beforeExpiry = cache.get("a");
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        String afterExpiry = cache.get("a");
+
+        // verify
+        Assert.assertEquals("value a", beforeExpiry);
+        Assert.assertNull(afterExpiry);
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(1, cache.getStatistics().getEvictionCount());
+    }
+
+    @Test
+    public void invalidate() {
+
+        // prepare
+        BoundedCache<String, String> cache = new BoundedCache<>(10, 1000, now::get);
+        cache.put("a", "value a");
+
+        // test
+        cache.invalidate("a");
+
+        // verify
+        Assert.assertNull(cache.get("a"));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void evictByWeight() {
+
+        // prepare
+        BoundedCache<String, String> cache = new BoundedCache<>(10L, String::length, 1000, now::get);
+        cache.put("a", "aaaa");
+        cache.put("b", "bbbb");
+        cache.get("a");
+
+        // test - 12 > 10, so the least recently used entry goes
+        cache.put("c", "cccc");
+
+        // verify
+        Assert.assertEquals(8, cache.weight());
+        Assert.assertEquals("aaaa", cache.get("a"));
+        Assert.assertNull(cache.get("b"));
+        Assert.assertEquals("cccc", cache.get("c"));
+
+        // test - replacing an entry replaces its weight
+        cache.put("a", "a");
+
+        // verify
+        Assert.assertEquals(5, cache.weight());
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void skipValueHeavierThanCache() {
+
+        // prepare
+        BoundedCache<String, String> cache = new BoundedCache<>(10L, String::length, 1000, now::get);
+        cache.put("a", "aaaa");
+
+        // test
+        cache.put("a", "aaaaaaaaaaaa");
+
+        // verify - the old value is gone, nothing else was evicted for it
+        Assert.assertNull(cache.get("a"));
+        Assert.assertEquals(0, cache.weight());
+        Assert.assertEquals(0, cache.getStatistics().getEvictionCount());
+    }
+}
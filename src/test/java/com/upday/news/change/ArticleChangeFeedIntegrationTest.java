@@ -0,0 +1,106 @@
+package com.upday.news.change;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.function.BooleanSupplier;
+
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.upday.news.index.ArticleTermIndex;
+import com.upday.news.model.Article;
+import com.upday.news.model.ArticleRepository;
+import com.upday.news.service.ArticleService;
+
+/**
+ * This test plays the other instance: it writes directly to the database and to the change feed, and verifies
+ * that cache and index of this instance follow.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"news.changes.enabled=true", "news.index.enabled=true"})
+public class ArticleChangeFeedIntegrationTest {
+
+    private static final long TIMEOUT_MILLIS = 10000;
+
+    @Autowired
+    ArticleService articleService;
+
+    @Autowired
+    ArticleRepository articleRepository;
+
+    @Autowired
+    ArticleTermIndex articleTermIndex;
+
+    @Autowired
+    MongoTemplate mongoTemplate;
+
+    @Test
+    public void applyChangesOfOtherInstances() throws Exception {
+
+        // prepare
+        Article article = articleService.create(createArticle());
+        String articleId = article.getArticleId();
+        // cached now
+        articleService.findById(articleId);
+
+        // test
+        Article changedArticle = articleRepository.findById(articleId).get();
+        changedArticle.setHeader("changed elsewhere");
+        changedArticle.setAuthors(Collections.singletonList("otherAuthor"));
+        articleRepository.save(changedArticle);
+        mongoTemplate.insert(new ArticleChange(new ObjectId(), articleId, ArticleChange.Type.SAVED, "other"));
+
+        // verify
+        awaitTrue(() -> "changed elsewhere".equals(articleService.findById(articleId).getHeader()));
+        awaitTrue(() -> articleTermIndex.findByAuthor("otherAuthor").contains(articleId));
+
+        // test
+        articleRepository.deleteById(articleId);
+        mongoTemplate.insert(new ArticleChange(new ObjectId(), articleId, ArticleChange.Type.DELETED, "other"));
+
+        // verify
+        awaitTrue(() -> articleTermIndex.findByAuthor("otherAuthor").isEmpty());
+    }
+
+    @Test
+    public void rebuildOnDroppedChangesOfOtherInstances() throws Exception {
+
+        // prepare - the other instance wrote an article, but could not publish the change
+        Article article = createArticle();
+        article.setAuthors(Collections.singletonList("unpublishedAuthor"));
+        String articleId = articleRepository.save(article).getArticleId();
+
+        // test
+        mongoTemplate.insert(new ArticleChange(new ObjectId(), null, ArticleChange.Type.MISSED, "other"));
+
+        // verify
+        awaitTrue(() -> articleTermIndex.findByAuthor("unpublishedAuthor").contains(articleId));
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+
+        long end = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            Assert.assertTrue("Change was not applied in time", System.currentTimeMillis() < end);
+            Thread.sleep(50);
+        }
+    }
+
+    private static Article createArticle() {
+
+        Article article = new Article();
+        article.setHeader("header");
+        article.setShortDescription("short");
+        article.setText("text");
+        article.setPublishDate(new Date());
+        article.setAuthors(Collections.singletonList("author"));
+        article.setKeywords(Collections.singletonList("keyword"));
+        return article;
+    }
+}
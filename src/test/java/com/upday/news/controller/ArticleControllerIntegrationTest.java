@@ -4,31 +4,43 @@ import java.util.Arrays;
 import java.util.List;
 
 import org.bson.Document;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
 import com.upday.news.model.ArticleRepository;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
  * This tests verify the behaviour of the actual REST- Api for articles.
  */
 @RunWith(SpringRunner.class)
-@SpringBootTest
+@SpringBootTest(properties = "news.index.full-text-enabled=true")
 @AutoConfigureMockMvc
 public class ArticleControllerIntegrationTest {
 
@@ -78,6 +90,7 @@ public class ArticleControllerIntegrationTest {
                 .getResponse().getContentAsString()).get("articleId").toString();
         String articleUpdate = "{\n" +
                 "    \"articleId\": \"" + articleId + "\",\n" +
+                "    \"version\": 0,\n" +
                 "    \"header\": \"header3333\",\n" +
                 "    \"shortDescription\": \"A short description of the article\",\n" +
                 "    \"text\": \"Here it comes - the actual article\",\n" +
@@ -107,6 +120,195 @@ public class ArticleControllerIntegrationTest {
                 .andExpect(jsonPath("$.header").value("header3333"));
     }
 
+    @Test
+    public void updateArticle_concurrentChange() throws Exception {
+
+        // prepare
+        String article = "{\"header\": \"header1111\", \"shortDescription\": \"short\", \"text\": \"text\", "
+                + "\"publishDate\": 1547733791804, \"authors\": [\"author1\"], \"keywords\": [\"keyword1\"]}";
+        String articleId = Document.parse(mockMvc.perform(
+                post("/article/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(article))
+                .andExpect(jsonPath("$.version").value(0))
+                .andReturn().getResponse().getContentAsString()).get("articleId").toString();
+        String articleUpdate = "{\"articleId\": \"" + articleId + "\", \"version\": 0, \"header\": \"header2222\", "
+                + "\"shortDescription\": \"short\", \"text\": \"text\", \"publishDate\": 1547733791804, "
+                + "\"authors\": [\"author1\"], \"keywords\": [\"keyword1\"]}";
+
+        // test and verify
+        mockMvc.perform(
+                put("/article/update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(articleUpdate))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1));
+
+        mockMvc.perform(
+                put("/article/update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(articleUpdate))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(
+                put("/article/update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(articleUpdate.replace(articleId, "doesNotExist")))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void createAndDisplayArticle_binaryFormats() throws Exception {
+
+        // prepare
+        ObjectMapper jsonMapper = new ObjectMapper();
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+        byte[] article = cborMapper.writeValueAsBytes(jsonMapper.readTree(
+                "{\"header\": \"header1111\", \"shortDescription\": \"short\", \"text\": \"text\", "
+                + "\"publishDate\": 1547733791804, \"authors\": [\"author1\"], \"keywords\": [\"keyword1\"]}"));
+
+        // test
+        MvcResult created = mockMvc.perform(
+                post("/article/create")
+                        .contentType(WireFormatConfig.APPLICATION_CBOR_VALUE)
+                        .accept(WireFormatConfig.APPLICATION_CBOR_VALUE)
+                        .content(article))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(WireFormatConfig.APPLICATION_CBOR_VALUE))
+                .andReturn();
+        String articleId = cborMapper.readTree(created.getResponse().getContentAsByteArray())
+                .get("articleId").asText();
+        MvcResult displayed = mockMvc.perform(
+                get("/article/display")
+                        .param("articleId", articleId)
+                        .accept(WireFormatConfig.APPLICATION_SMILE_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(WireFormatConfig.APPLICATION_SMILE_VALUE))
+                .andReturn();
+
+        // verify - same document as json
+        JsonNode displayedArticle = smileMapper.readTree(displayed.getResponse().getContentAsByteArray());
+        JsonNode jsonArticle = jsonMapper.readTree(mockMvc.perform(
+                get("/article/display")
+                        .param("articleId", articleId))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString());
+        Assert.assertEquals("header1111", displayedArticle.get("header").asText());
+        Assert.assertEquals(jsonArticle.get("publishDate").asText(), displayedArticle.get("publishDate").asText());
+        Assert.assertEquals("author1", displayedArticle.get("authors").get(0).asText());
+    }
+
+    @Test
+    public void displayArticle_cachedResponse() throws Exception {
+
+        // prepare
+        String article = "{\"header\": \"header1111\", \"shortDescription\": \"short\", \"text\": \"text\", "
+                + "\"publishDate\": 1547733791804, \"authors\": [\"author1\"], \"keywords\": [\"keyword1\"]}";
+        String articleId = Document.parse(mockMvc.perform(
+                post("/article/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(article))
+                .andReturn().getResponse().getContentAsString()).get("articleId").toString();
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(
+                    get("/article/display")
+                            .param("articleId", articleId))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                    .andExpect(header().string(HttpHeaders.ETAG, "W/\"0\""))
+                    .andExpect(jsonPath("$.header").value("header1111"));
+        }
+
+        // test - the cached response is invalidated by the update
+        mockMvc.perform(
+                put("/article/update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(article.replace("{", "{\"articleId\": \"" + articleId + "\", \"version\": 0, ")
+                                .replace("header1111", "header2222")))
+                .andExpect(status().isOk());
+
+        // verify
+        mockMvc.perform(
+                get("/article/display")
+                        .param("articleId", articleId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"1\""))
+                .andExpect(jsonPath("$.header").value("header2222"));
+        mockMvc.perform(
+                get("/article/display")
+                        .param("articleId", articleId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"1\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void displayArticle_notModified() throws Exception {
+
+        // prepare
+        String article = "{\"header\": \"header1111\", \"shortDescription\": \"short\", \"text\": \"text\", "
+                + "\"publishDate\": 1547733791804, \"authors\": [\"author1\"], \"keywords\": [\"keyword1\"]}";
+        String articleId = Document.parse(mockMvc.perform(
+                post("/article/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(article))
+                .andReturn().getResponse().getContentAsString()).get("articleId").toString();
+
+        // test and verify
+        MvcResult displayed = mockMvc.perform(
+                get("/article/display")
+                        .param("articleId", articleId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"0\""))
+                .andReturn();
+
+        mockMvc.perform(
+                get("/article/display")
+                        .param("articleId", articleId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(
+                get("/article/display")
+                        .param("articleId", articleId)
+                        .header(HttpHeaders.IF_MODIFIED_SINCE,
+                                displayed.getResponse().getHeader(HttpHeaders.LAST_MODIFIED)))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(
+                get("/article/display")
+                        .param("articleId", articleId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"7\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.header").value("header1111"));
+
+        String eTag = mockMvc.perform(
+                get("/article/listForAuthor")
+                        .param("author", "author1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(
+                get("/article/listForAuthor")
+                        .param("author", "author1")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        // a changed summary changes the ETag of the list
+        mockMvc.perform(
+                put("/article/update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(article.replace("{", "{\"articleId\": \"" + articleId + "\", \"version\": 0, ")
+                                .replace("header1111", "header2222")))
+                .andExpect(status().isOk());
+        mockMvc.perform(
+                get("/article/listForAuthor")
+                        .param("author", "author1")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].header").value("header2222"));
+    }
+
     @Test
     public void createArticle_incompleteData() throws Exception {
 
@@ -164,7 +366,9 @@ public class ArticleControllerIntegrationTest {
                         .param("author", "author6"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()")
-                        .value(3));
+                        .value(3))
+                .andExpect(jsonPath("$[0].header").exists())
+                .andExpect(jsonPath("$[0].text").doesNotExist());
     }
 
     @Test
@@ -198,6 +402,229 @@ public class ArticleControllerIntegrationTest {
                         .value(3));
     }
 
+    @Test
+    public void listForAuthor_paged() throws Exception {
+
+        // prepare
+        generateSomeTestData();
+
+        // test and verify
+        ResultActions firstPage = mockMvc.perform(
+                get("/article/listForAuthor")
+                        .param("author", "author6")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].header").value("header4444"))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+
+        String cursor = Document.parse(firstPage.andReturn()
+                .getResponse().getContentAsString()).get("nextCursor").toString();
+
+        mockMvc.perform(
+                get("/article/listForAuthor")
+                        .param("author", "author6")
+                        .param("limit", "2")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].header").value("header1111"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    public void latestForAuthor() throws Exception {
+
+        // prepare
+        generateSomeTestData();
+
+        // test and verify
+        mockMvc.perform(
+                get("/article/latestForAuthor")
+                        .param("author", "author6")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].header").value("header4444"));
+
+        mockMvc.perform(
+                get("/article/latestForAuthor")
+                        .param("author", "author6")
+                        .param("sort", "ASC"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].header").value("header1111"))
+                .andExpect(jsonPath("$[2].header").value("header4444"));
+    }
+
+    @Test
+    public void listForAuthor_invalidCursor() throws Exception {
+
+        // test and verify
+        mockMvc.perform(
+                get("/article/listForAuthor")
+                        .param("author", "author6")
+                        .param("limit", "2")
+                        .param("cursor", "no-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("cursor: The cursor is invalid."));
+    }
+
+    @Test
+    public void listForKeyword_streamed() throws Exception {
+
+        // prepare
+        generateSomeTestData();
+
+        // test
+        MvcResult streamedResult = mockMvc.perform(
+                get("/article/findByKeyword")
+                        .param("keyword", "keywordx")
+                        .accept(ArticleController.APPLICATION_NDJSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(streamedResult))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // verify
+        Assert.assertEquals(3, body.split("\n").length);
+    }
+
+    @Test
+    public void search() throws Exception {
+
+        // prepare
+        generateSomeTestData();
+
+        // test and verify
+        mockMvc.perform(
+                get("/article/search")
+                        .param("allKeywords", "keyword1")
+                        .param("anyAuthors", "author3", "author6")
+                        .param("notKeywords", "keyword2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+    }
+
+    @Test
+    public void search_noPositiveTerm() throws Exception {
+
+        // test and verify
+        mockMvc.perform(
+                get("/article/search")
+                        .param("notKeywords", "keyword2"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void fullTextSearch() throws Exception {
+
+        // prepare
+        generateSomeTestData();
+
+        // test and verify
+        mockMvc.perform(
+                get("/article/fullTextSearch")
+                        .param("text", "Header3333 actual")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].article.header").value("header3333"));
+    }
+
+    @Test
+    public void bulkCreateUpdateDelete() throws Exception {
+
+        // prepare
+        String articles = "{\"header\": \"header1111\", \"shortDescription\": \"short\", \"text\": \"text\", "
+                + "\"publishDate\": 1547733791804, \"authors\": [\"author1\"], \"keywords\": [\"keyword1\"]}\n"
+                + "{\"header\": \"header2222\", \"text\": \"text\"}\n"
+                + "{\"header\": \"header3333\", \"shortDescription\": \"short\", \"text\": \"text\", "
+                + "\"publishDate\": 1547733791804, \"authors\": [\"author1\"], \"keywords\": [\"keyword1\"]}\n";
+
+        // test and verify
+        mockMvc.perform(
+                post("/article/bulk/create")
+                        .contentType(ArticleController.APPLICATION_NDJSON_VALUE)
+                        .content(articles))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].status").value("INVALID"))
+                .andExpect(jsonPath("$[2].status").value("CREATED"));
+        Assert.assertEquals(2, articleRepository.count());
+
+        String articleId = articleRepository.findAll().get(0).getArticleId();
+        String update = "[{\"articleId\": \"" + articleId + "\", \"version\": 0, \"header\": \"changed\", "
+                + "\"shortDescription\": \"short\", \"text\": \"text\", \"publishDate\": 1547733791804, "
+                + "\"authors\": [\"author1\"], \"keywords\": [\"keyword1\"]},"
+                + "{\"articleId\": \"doesNotExist\", \"version\": 0, \"header\": \"changed\", "
+                + "\"shortDescription\": \"short\", \"text\": \"text\", \"publishDate\": 1547733791804, "
+                + "\"authors\": [\"author1\"], \"keywords\": [\"keyword1\"]},"
+                + "{\"articleId\": \"" + articleId + "\", \"version\": 0, \"text\": \"text\"},"
+                + "{\"articleId\": \"" + articleId + "\", \"version\": 0, \"header\": \"outdated\", "
+                + "\"shortDescription\": \"short\", \"text\": \"text\", \"publishDate\": 1547733791804, "
+                + "\"authors\": [\"author1\"], \"keywords\": [\"keyword1\"]},"
+                + "{\"articleId\": \"" + articleId + "\", \"header\": \"unversioned\", "
+                + "\"shortDescription\": \"short\", \"text\": \"text\", \"publishDate\": 1547733791804, "
+                + "\"authors\": [\"author1\"], \"keywords\": [\"keyword1\"]}]";
+        mockMvc.perform(
+                put("/article/bulk/update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(update))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("UPDATED"))
+                .andExpect(jsonPath("$[1].status").value("NOT_FOUND"))
+                .andExpect(jsonPath("$[2].status").value("INVALID"))
+                .andExpect(jsonPath("$[2].articleId").value(articleId))
+                .andExpect(jsonPath("$[3].status").value("CONFLICT"))
+                .andExpect(jsonPath("$[4].status").value("INVALID"));
+        mockMvc.perform(
+                get("/article/display")
+                        .param("articleId", articleId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.header").value("changed"));
+
+        mockMvc.perform(
+                post("/article/bulk/delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"" + articleId + "\", \"doesNotExist\", \"\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("DELETED"))
+                .andExpect(jsonPath("$[1].status").value("NOT_FOUND"))
+                .andExpect(jsonPath("$[2].status").value("INVALID"))
+                .andExpect(jsonPath("$[2].articleId").value(""));
+        Assert.assertEquals(1, articleRepository.count());
+    }
+
+    @Test
+    public void prometheusMetrics() throws Exception {
+
+        // prepare
+        generateSomeTestData();
+        mockMvc.perform(
+                get("/article/listForAuthor")
+                        .param("author", "author1"))
+                .andExpect(status().isOk());
+
+        // test
+        String metrics = mockMvc.perform(
+                get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // verify
+        Assert.assertTrue(metrics.contains("article_service_seconds_bucket{"));
+        Assert.assertTrue(metrics.contains("method=\"findByAuthor\""));
+        Assert.assertTrue(metrics.contains("article_service_results_count{"));
+        Assert.assertTrue(metrics.contains("mongodb_driver_commands_seconds_bucket{"));
+        Assert.assertTrue(metrics.contains("http_server_payload_size_bytes_count{"));
+        Assert.assertTrue(metrics.contains("cache_gets_total{"));
+    }
+
     private void generateSomeTestData() throws Exception {
 
         List<String> articles = Arrays.asList(
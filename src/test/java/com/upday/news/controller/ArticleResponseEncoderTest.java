@@ -0,0 +1,79 @@
+package com.upday.news.controller;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.Optional;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.upday.news.cache.EncodedArticle;
+import com.upday.news.model.Article;
+
+public class ArticleResponseEncoderTest {
+
+    private static final MediaType APPLICATION_SMILE = MediaType.valueOf(WireFormatConfig.APPLICATION_SMILE_VALUE);
+
+    private static final MediaType APPLICATION_CBOR = MediaType.valueOf(WireFormatConfig.APPLICATION_CBOR_VALUE);
+
+    private final ArticleResponseEncoder encoder = new ArticleResponseEncoder(
+            new MappingJackson2HttpMessageConverter(), new MappingJackson2SmileHttpMessageConverter(),
+            new MappingJackson2CborHttpMessageConverter());
+
+    @Test
+    public void negotiate() {
+
+        // verify - json is preferred for missing and wildcard Accept headers
+        Assert.assertEquals(Optional.of(MediaType.APPLICATION_JSON_UTF8), encoder.negotiate(request(null)));
+        Assert.assertEquals(Optional.of(MediaType.APPLICATION_JSON_UTF8), encoder.negotiate(request("*/*")));
+        Assert.assertEquals(Optional.of(MediaType.APPLICATION_JSON_UTF8),
+                encoder.negotiate(request("application/json")));
+        Assert.assertEquals(Optional.of(APPLICATION_SMILE),
+                encoder.negotiate(request("application/x-jackson-smile")));
+        Assert.assertEquals(Optional.of(APPLICATION_CBOR),
+                encoder.negotiate(request("application/json;q=0.5, application/cbor")));
+        // left to the message converters
+        Assert.assertEquals(Optional.empty(), encoder.negotiate(request("text/html")));
+        Assert.assertEquals(Optional.empty(), encoder.negotiate(request("no media type")));
+    }
+
+    @Test
+    public void encode() throws Exception {
+
+        // prepare
+        Article article = new Article();
+        article.setArticleId("a1");
+        article.setVersion(3L);
+        article.setHeader("header");
+        article.setPublishDate(new Date(1000));
+        article.setAuthors(Collections.singletonList("author"));
+
+        // test
+        EncodedArticle encodedArticle = encoder.encode(article, APPLICATION_SMILE);
+
+        // verify
+        Assert.assertEquals("a1", encodedArticle.getVersion().getArticleId());
+        Assert.assertEquals(Long.valueOf(3), encodedArticle.getVersion().getVersion());
+        Assert.assertEquals(APPLICATION_SMILE, encodedArticle.getContentType());
+        Assert.assertEquals("header",
+                new ObjectMapper(new SmileFactory()).readTree(encodedArticle.getBody()).get("header").asText());
+    }
+
+    private static ServletWebRequest request(String accept) {
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (accept != null) {
+            request.addHeader(HttpHeaders.ACCEPT, accept);
+        }
+        return new ServletWebRequest(request);
+    }
+}
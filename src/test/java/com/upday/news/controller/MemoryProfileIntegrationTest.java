@@ -0,0 +1,72 @@
+package com.upday.news.controller;
+
+import org.bson.Document;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.upday.news.model.ArticleStore;
+import com.upday.news.model.InMemoryArticleStore;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * This tests verify that the "memory" profile starts and serves the article API without any mongo.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("memory")
+public class MemoryProfileIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private ArticleStore articleStore;
+
+    @Test
+    public void createAndDisplayArticle() throws Exception {
+
+        // prepare
+        String article = "{\"header\": \"header1111\", \"shortDescription\": \"short\", \"text\": \"text\", "
+                + "\"publishDate\": 1547733791804, \"authors\": [\"author1\"], \"keywords\": [\"keyword1\"]}";
+
+        // test
+        String articleId = Document.parse(mockMvc.perform(
+                post("/article/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(article))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).get("articleId").toString();
+
+        // verify
+        mockMvc.perform(
+                get("/article/display")
+                        .param("articleId", articleId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.header").value("header1111"));
+        mockMvc.perform(
+                get("/article/listForAuthor")
+                        .param("author", "author1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].articleId").value(articleId));
+        Assert.assertTrue(articleStore instanceof InMemoryArticleStore);
+        Assert.assertTrue(applicationContext.getBeansOfType(MongoTemplate.class).isEmpty());
+    }
+}
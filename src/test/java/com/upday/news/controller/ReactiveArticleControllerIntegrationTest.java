@@ -0,0 +1,99 @@
+package com.upday.news.controller;
+
+import org.bson.Document;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.upday.news.model.ArticleRepository;
+
+/**
+ * This tests verify the behaviour of the reactive REST- Api for articles (profile "reactive").
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "spring.main.web-application-type=reactive")
+@ActiveProfiles("reactive")
+@AutoConfigureWebTestClient
+public class ReactiveArticleControllerIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    ArticleRepository articleRepository;
+
+    /**
+     * This method removes all data from the storage before each test is executed.
+     */
+    @Before
+    public void clearRepository() {
+        articleRepository.deleteAll();
+    }
+
+    @Test
+    public void createDisplayDeleteArticle() {
+
+        // prepare
+        String article = "{\"header\": \"header1111\", \"shortDescription\": \"short\", \"text\": \"text\", "
+                + "\"publishDate\": 1547733791804, \"authors\": [\"author1\"], \"keywords\": [\"keyword1\"]}";
+
+        // test and verify
+        String articleId = Document.parse(webTestClient.post().uri("/article/create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .syncBody(article)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult().getResponseBody()).get("articleId").toString();
+
+        webTestClient.get().uri("/article/display?articleId={articleId}", articleId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.header").isEqualTo("header1111");
+
+        webTestClient.delete().uri("/article/delete?articleId={articleId}", articleId)
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.get().uri("/article/display?articleId={articleId}", articleId)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void listForAuthor_streamed() {
+
+        // prepare
+        for (int i = 0; i < 3; i++) {
+            webTestClient.post().uri("/article/create")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .syncBody("{\"header\": \"header" + i + "\", \"shortDescription\": \"short\", \"text\": \"text\", "
+                            + "\"publishDate\": 1547733791804, \"authors\": [\"author1\"], \"keywords\": [\"keyword1\"]}")
+                    .exchange()
+                    .expectStatus().isOk();
+        }
+
+        // test and verify
+        webTestClient.get().uri("/article/listForAuthor?author=author1")
+                .accept(MediaType.valueOf(ArticleController.APPLICATION_NDJSON_VALUE))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(ArticleController.APPLICATION_NDJSON_VALUE)
+                .expectBody(String.class)
+                .value(body -> Assert.assertEquals(3, body.trim().split("\n").length));
+
+        webTestClient.get().uri("/article/listForAuthor?author=author1")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.length()").isEqualTo(3);
+    }
+}
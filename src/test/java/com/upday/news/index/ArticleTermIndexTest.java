@@ -0,0 +1,146 @@
+package com.upday.news.index;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.upday.news.model.Article;
+import com.upday.news.model.ArticleQuery;
+
+public class ArticleTermIndexTest {
+
+    private ArticleTermIndex articleTermIndex;
+
+    @Before
+    public void createIndex() {
+
+        ArticleIndexProperties properties = new ArticleIndexProperties();
+        properties.setEnabled(true);
+        articleTermIndex = new ArticleTermIndex(properties);
+        articleTermIndex.rebuild(Stream.of(
+                createArticle("a1", "author1", "keyword1"),
+                createArticle("a2", "author1", "keyword2")));
+    }
+
+    @Test
+    public void findAfterRebuild() {
+
+        // verify
+        Assert.assertTrue(articleTermIndex.isActive());
+        Assert.assertEquals(Arrays.asList("a1", "a2"), articleTermIndex.findByAuthor("author1"));
+        Assert.assertEquals(Collections.singletonList("a2"), articleTermIndex.findByKeyword("keyword2"));
+        Assert.assertEquals(Collections.emptyList(), articleTermIndex.findByKeyword("keyword3"));
+    }
+
+    @Test
+    public void updateReplacesTerms() {
+
+        // test
+        articleTermIndex.index(createArticle("a1", "author2", "keyword2"));
+
+        // verify
+        Assert.assertEquals(Collections.singletonList("a2"), articleTermIndex.findByAuthor("author1"));
+        Assert.assertEquals(Collections.singletonList("a1"), articleTermIndex.findByAuthor("author2"));
+        Assert.assertEquals(Arrays.asList("a1", "a2"), articleTermIndex.findByKeyword("keyword2"));
+        Assert.assertEquals(Collections.emptyList(), articleTermIndex.findByKeyword("keyword1"));
+    }
+
+    @Test
+    public void remove() {
+
+        // test
+        articleTermIndex.remove("a1");
+
+        // verify
+        Assert.assertEquals(1, articleTermIndex.size());
+        Assert.assertEquals(Collections.singletonList("a2"), articleTermIndex.findByAuthor("author1"));
+    }
+
+    @Test
+    public void reuseDocumentIdOfRemovedArticle() {
+
+        // prepare
+        articleTermIndex.remove("a1");
+
+        // test
+        articleTermIndex.index(createArticle("a3", "author1", "keyword3"));
+
+        // verify - a3 got the document id of a1, nothing of a1 is left
+        Assert.assertEquals(Arrays.asList("a3", "a2"), articleTermIndex.findByAuthor("author1"));
+        Assert.assertEquals(Collections.singletonList("a3"), articleTermIndex.findByKeyword("keyword3"));
+        Assert.assertEquals(Collections.emptyList(), articleTermIndex.findByKeyword("keyword1"));
+        Assert.assertEquals(2, articleTermIndex.size());
+    }
+
+    @Test
+    public void findMatching() {
+
+        // prepare
+        articleTermIndex.index(createArticle("a3", "author2", "keyword2"));
+        ArticleQuery allAndNot = new ArticleQuery();
+        allAndNot.setAllKeywords(Collections.singletonList("keyword2"));
+        allAndNot.setNotAuthors(Collections.singletonList("author2"));
+        ArticleQuery any = new ArticleQuery();
+        any.setAnyKeywords(Collections.singletonList("keyword1"));
+        any.setAnyAuthors(Collections.singletonList("author2"));
+        ArticleQuery unknownTerm = new ArticleQuery();
+        unknownTerm.setAllKeywords(Arrays.asList("keyword2", "keyword9"));
+
+        // test and verify
+        Assert.assertEquals(Collections.singletonList("a2"), articleTermIndex.findMatching(allAndNot));
+        Assert.assertEquals(Arrays.asList("a1", "a3"), articleTermIndex.findMatching(any));
+        Assert.assertEquals(Collections.emptyList(), articleTermIndex.findMatching(unknownTerm));
+    }
+
+    @Test
+    public void keepWritesDuringRebuild() {
+
+        // prepare - the writes happen while the rebuild reads the articles
+        Stream<Article> articles = Stream.of(
+                createArticle("a1", "author1", "keyword1"),
+                createArticle("a2", "author1", "keyword2"))
+                .peek(article -> {
+                    if ("a1".equals(article.getArticleId())) {
+                        // the current content still answers
+                        Assert.assertEquals(Arrays.asList("a1", "a2"), articleTermIndex.findByAuthor("author1"));
+                        articleTermIndex.index(createArticle("a3", "author1", "keyword3"));
+                        articleTermIndex.remove("a2");
+                    }
+                });
+
+        // test
+        int size = articleTermIndex.rebuild(articles);
+
+        // verify - a2 was read before it was removed, but the removal is applied to the new content as well
+        Assert.assertEquals(2, size);
+        Assert.assertEquals(Arrays.asList("a1", "a3"), articleTermIndex.findByAuthor("author1"));
+        Assert.assertEquals(Collections.emptyList(), articleTermIndex.findByKeyword("keyword2"));
+    }
+
+    @Test
+    public void disabledIndexIsNeverActive() {
+
+        // prepare
+        ArticleTermIndex disabledIndex = new ArticleTermIndex(new ArticleIndexProperties());
+
+        // test
+        disabledIndex.rebuild(Stream.of(createArticle("a1", "author1", "keyword1")));
+
+        // verify
+        Assert.assertFalse(disabledIndex.isActive());
+        Assert.assertEquals(0, disabledIndex.size());
+    }
+
+    private Article createArticle(String articleId, String author, String keyword) {
+
+        Article article = new Article();
+        article.setArticleId(articleId);
+        article.setAuthors(Collections.singletonList(author));
+        article.setKeywords(Collections.singletonList(keyword));
+        return article;
+    }
+}
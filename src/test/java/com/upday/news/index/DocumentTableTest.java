@@ -0,0 +1,49 @@
+package com.upday.news.index;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DocumentTableTest {
+
+    @Test
+    public void reuseFreedDocumentIds() {
+
+        // prepare
+        DocumentTable<String> documents = new DocumentTable<>();
+        int first = documents.put("a1", "document1");
+        int second = documents.put("a2", "document2");
+
+        // test - many writes of short-lived articles
+        for (int i = 0; i < 1000; i++) {
+            documents.put("tmp" + i, "temporary");
+            documents.remove("tmp" + i);
+        }
+        documents.remove("a1");
+        int third = documents.put("a3", "document3");
+
+        // verify
+        Assert.assertEquals(0, first);
+        Assert.assertEquals(1, second);
+        Assert.assertEquals(first, third);
+        Assert.assertEquals(3, documents.capacity());
+        Assert.assertEquals(2, documents.size());
+        Assert.assertEquals("document3", documents.get(third));
+        Assert.assertNull(documents.docId("a1"));
+    }
+
+    @Test
+    public void updateKeepsDocumentId() {
+
+        // prepare
+        DocumentTable<String> documents = new DocumentTable<>();
+        int docId = documents.put("a1", "document1");
+
+        // test
+        int updatedDocId = documents.put("a1", "changed");
+
+        // verify
+        Assert.assertEquals(docId, updatedDocId);
+        Assert.assertEquals("changed", documents.get(docId));
+        Assert.assertEquals(1, documents.capacity());
+    }
+}
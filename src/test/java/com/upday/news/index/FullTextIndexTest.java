@@ -0,0 +1,109 @@
+package com.upday.news.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.upday.news.model.Article;
+
+public class FullTextIndexTest {
+
+    private FullTextIndex fullTextIndex;
+
+    @Before
+    public void createIndex() {
+
+        ArticleIndexProperties properties = new ArticleIndexProperties();
+        properties.setFullTextEnabled(true);
+        fullTextIndex = new FullTextIndex(properties);
+        fullTextIndex.rebuild(Stream.of(
+                createArticle("a1", "Election results", "The votes are counted", "Long text about the weather"),
+                createArticle("a2", "Weather", "Sunny days ahead", "The election is next week"),
+                createArticle("a3", "Football", "Cup final", "Nothing about politics")));
+    }
+
+    @Test
+    public void headerMatchRanksFirst() {
+
+        // test
+        Map<String, Double> scores = fullTextIndex.search("elections", 10);
+
+        // verify
+        Assert.assertTrue(fullTextIndex.isActive());
+        Assert.assertEquals(Arrays.asList("a1", "a2"), new ArrayList<>(scores.keySet()));
+        Assert.assertTrue(scores.get("a1") > scores.get("a2"));
+    }
+
+    @Test
+    public void limitToTopK() {
+
+        // prepare
+        IntStream.range(0, 100).forEach(i -> fullTextIndex.index(
+                createArticle("b" + i, "Header " + i, "Short " + i, i % 2 == 0 ? "weather" : "weather weather")));
+
+        // test
+        Map<String, Double> scores = fullTextIndex.search("weather football", 3);
+
+        // verify
+        Assert.assertEquals(3, scores.size());
+        Assert.assertEquals("a3", scores.keySet().iterator().next());
+    }
+
+    @Test
+    public void updateAndRemove() {
+
+        // test
+        fullTextIndex.index(createArticle("a3", "Election special", "Cup final", "Nothing about politics"));
+        fullTextIndex.remove("a1");
+
+        // verify
+        Assert.assertEquals(2, fullTextIndex.size());
+        Assert.assertEquals(Arrays.asList("a3", "a2"), new ArrayList<>(fullTextIndex.search("election", 10).keySet()));
+        Assert.assertEquals(Collections.emptyMap(), fullTextIndex.search("football", 10));
+    }
+
+    @Test
+    public void prunedTopKEqualsExhaustiveRanking() {
+
+        // prepare
+        Random random = new Random(42);
+        String[] words = {"alpha", "beta", "gamma", "delta", "epsilon", "zeta", "theta", "kappa"};
+        IntStream.range(0, 500).forEach(i -> fullTextIndex.index(createArticle("r" + i,
+                words[random.nextInt(words.length)], words[random.nextInt(4)],
+                words[random.nextInt(words.length)] + " " + words[random.nextInt(2)])));
+
+        for (int run = 0; run < 20; run++) {
+            String query = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)]
+                    + " " + words[random.nextInt(words.length)];
+
+            // test
+            List<Double> topK = new ArrayList<>(fullTextIndex.search(query, 10).values());
+            List<Double> exhaustive = new ArrayList<>(fullTextIndex.search(query, 1000).values());
+
+            // verify
+            Assert.assertEquals(10, topK.size());
+            for (int i = 0; i < topK.size(); i++) {
+                Assert.assertEquals(query, exhaustive.get(i), topK.get(i), 1e-9);
+            }
+        }
+    }
+
+    private Article createArticle(String articleId, String header, String shortDescription, String text) {
+
+        Article article = new Article();
+        article.setArticleId(articleId);
+        article.setHeader(header);
+        article.setShortDescription(shortDescription);
+        article.setText(text);
+        return article;
+    }
+}
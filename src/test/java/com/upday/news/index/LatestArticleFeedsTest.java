@@ -0,0 +1,120 @@
+package com.upday.news.index;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.upday.news.model.Article;
+import com.upday.news.model.ArticleSummary;
+
+public class LatestArticleFeedsTest {
+
+    private LatestArticleFeeds latestArticleFeeds;
+
+    @Before
+    public void createFeeds() {
+
+        ArticleIndexProperties properties = new ArticleIndexProperties();
+        properties.setFeedsEnabled(true);
+        properties.setFeedSize(3);
+        latestArticleFeeds = new LatestArticleFeeds(properties);
+        latestArticleFeeds.rebuild(Stream.of(
+                createArticle("a2", 2000, "author1", "keyword1"),
+                createArticle("a4", 4000, "author1", "keyword1"),
+                createArticle("a1", 1000, "author1", "keyword2"),
+                createArticle("a3", 3000, "author1", "keyword1")));
+    }
+
+    @Test
+    public void findLatest() {
+
+        // verify - only the newest 3 articles are kept
+        Assert.assertTrue(latestArticleFeeds.isActive());
+        Assert.assertEquals(Arrays.asList("a4", "a3"), ids(latestArticleFeeds.findLatestByAuthor("author1", 2)));
+        Assert.assertEquals(Arrays.asList("a4", "a3", "a2"),
+                ids(latestArticleFeeds.findLatestByKeyword("keyword1", 3)));
+        Assert.assertEquals(Collections.singletonList("a1"),
+                ids(latestArticleFeeds.findLatestByKeyword("keyword2", 3)));
+        Assert.assertEquals(Collections.emptyList(), ids(latestArticleFeeds.findLatestByKeyword("keyword9", 3)));
+        // more than the feed size can not be answered
+        Assert.assertFalse(latestArticleFeeds.findLatestByAuthor("author1", 4).isPresent());
+    }
+
+    @Test
+    public void newerArticlesPushOutOlderOnes() {
+
+        // test
+        latestArticleFeeds.index(createArticle("a5", 5000, "author1", "keyword2"));
+        latestArticleFeeds.index(createArticle("a0", 500, "author1", "keyword2"));
+
+        // verify
+        Assert.assertEquals(Arrays.asList("a5", "a4", "a3"), ids(latestArticleFeeds.findLatestByAuthor("author1", 3)));
+        Assert.assertEquals(Arrays.asList("a5", "a1", "a0"),
+                ids(latestArticleFeeds.findLatestByKeyword("keyword2", 3)));
+    }
+
+    @Test
+    public void updateMovesArticle() {
+
+        // test
+        latestArticleFeeds.index(createArticle("a2", 6000, "author2", "keyword1"));
+
+        // verify
+        Assert.assertEquals(Collections.singletonList("a2"), ids(latestArticleFeeds.findLatestByAuthor("author2", 3)));
+        Assert.assertEquals(Arrays.asList("a2", "a4", "a3"),
+                ids(latestArticleFeeds.findLatestByKeyword("keyword1", 3)));
+        // a2 left the full author1 feed, so the next older article is unknown now
+        Assert.assertEquals(Arrays.asList("a4", "a3"), ids(latestArticleFeeds.findLatestByAuthor("author1", 2)));
+        Assert.assertFalse(latestArticleFeeds.findLatestByAuthor("author1", 3).isPresent());
+    }
+
+    @Test
+    public void removeFromCompleteFeed() {
+
+        // test
+        latestArticleFeeds.remove("a1");
+
+        // verify - the feed held all articles of keyword2, so it is still known to be empty
+        Assert.assertEquals(Collections.emptyList(), ids(latestArticleFeeds.findLatestByKeyword("keyword2", 3)));
+    }
+
+    @Test
+    public void refillFeedEmptiedByRemovals() {
+
+        // prepare - a1 was dropped from the full author1 feed, then all kept articles are removed
+        latestArticleFeeds.remove("a4");
+        latestArticleFeeds.remove("a3");
+        latestArticleFeeds.remove("a2");
+
+        // test
+        latestArticleFeeds.index(createArticle("a0", 500, "author1", "keyword3"));
+        latestArticleFeeds.index(createArticle("a5", 1500, "author1", "keyword3"));
+
+        // verify - a5 is newer than the dropped a1, a0 is not
+        Assert.assertEquals(Collections.singletonList("a5"), ids(latestArticleFeeds.findLatestByAuthor("author1", 1)));
+        Assert.assertFalse(latestArticleFeeds.findLatestByAuthor("author1", 2).isPresent());
+    }
+
+    private static List<String> ids(Optional<List<ArticleSummary>> summaries) {
+        return summaries.get().stream().map(ArticleSummary::getArticleId).collect(Collectors.toList());
+    }
+
+    private static Article createArticle(String articleId, long publishDate, String author, String keyword) {
+
+        Article article = new Article();
+        article.setArticleId(articleId);
+        article.setHeader("header " + articleId);
+        article.setPublishDate(new Date(publishDate));
+        article.setAuthors(Collections.singletonList(author));
+        article.setKeywords(Collections.singletonList(keyword));
+        return article;
+    }
+}
@@ -0,0 +1,43 @@
+package com.upday.news.index;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PostingListTest {
+
+    @Test
+    public void addKeepsOrderWithoutDuplicates() {
+
+        // prepare
+        PostingList postingList = new PostingList();
+
+        // test
+        for (int id : new int[]{5, 1, 9, 3, 5, 7, 11, 2}) {
+            postingList.add(id);
+        }
+
+        // verify
+        Assert.assertArrayEquals(new int[]{1, 2, 3, 5, 7, 9, 11}, postingList.toArray());
+        Assert.assertTrue(postingList.contains(7));
+        Assert.assertFalse(postingList.contains(4));
+    }
+
+    @Test
+    public void remove() {
+
+        // prepare
+        PostingList postingList = new PostingList();
+        postingList.add(1);
+        postingList.add(2);
+        postingList.add(3);
+
+        // test
+        boolean removed = postingList.remove(2);
+        boolean removedAgain = postingList.remove(2);
+
+        // verify
+        Assert.assertTrue(removed);
+        Assert.assertFalse(removedAgain);
+        Assert.assertArrayEquals(new int[]{1, 3}, postingList.toArray());
+    }
+}
@@ -0,0 +1,79 @@
+package com.upday.news.index;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PostingListsTest {
+
+    @Test
+    public void intersect() {
+
+        // prepare
+        PostingList evenNumbers = createRange(0, 1000, 2);
+        PostingList selective = createPostingList(3, 4, 10, 11, 500, 998, 999);
+
+        // test
+        PostingList result = PostingLists.intersect(evenNumbers, selective);
+
+        // verify
+        Assert.assertArrayEquals(new int[]{4, 10, 500, 998}, result.toArray());
+    }
+
+    @Test
+    public void difference() {
+
+        // prepare
+        PostingList ids = createPostingList(1, 2, 3, 4, 5);
+        PostingList excluded = createPostingList(0, 2, 4, 6);
+
+        // test
+        PostingList result = PostingLists.difference(ids, excluded);
+
+        // verify
+        Assert.assertArrayEquals(new int[]{1, 3, 5}, result.toArray());
+    }
+
+    @Test
+    public void union() {
+
+        // prepare
+        PostingList first = createPostingList(1, 5, 9);
+        PostingList second = createPostingList(2, 5, 10);
+
+        // test
+        PostingList result = PostingLists.union(Arrays.asList(first, second, new PostingList()));
+
+        // verify
+        Assert.assertArrayEquals(new int[]{1, 2, 5, 9, 10}, result.toArray());
+    }
+
+    @Test
+    public void advanceUsesSkips() {
+
+        // prepare
+        PostingList evenNumbers = createRange(0, 100, 2);
+
+        // test and verify
+        Assert.assertEquals(25, PostingLists.advance(evenNumbers, 0, 50, 10));
+        Assert.assertEquals(26, PostingLists.advance(evenNumbers, 0, 51, 10));
+        Assert.assertEquals(50, PostingLists.advance(evenNumbers, 30, 1000, 10));
+    }
+
+    private PostingList createPostingList(int... ids) {
+
+        PostingList postingList = new PostingList();
+        Arrays.stream(ids).forEach(postingList::add);
+        return postingList;
+    }
+
+    private PostingList createRange(int from, int to, int step) {
+
+        PostingList postingList = new PostingList();
+        for (int id = from; id < to; id += step) {
+            postingList.add(id);
+        }
+        return postingList;
+    }
+}
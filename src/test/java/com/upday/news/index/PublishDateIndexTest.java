@@ -0,0 +1,112 @@
+package com.upday.news.index;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.stream.Stream;
+
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.upday.news.model.Article;
+
+public class PublishDateIndexTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    private PublishDateIndex publishDateIndex;
+
+    @Before
+    public void createIndex() {
+
+        ArticleIndexProperties properties = new ArticleIndexProperties();
+        properties.setPeriodEnabled(true);
+        properties.setPeriodBucket(Duration.ofHours(1));
+        // nothing is compacted automatically - the tests compact explicitly
+        properties.setPeriodCompactAfter(Duration.ofDays(365 * 1000));
+        publishDateIndex = new PublishDateIndex(properties);
+        publishDateIndex.rebuild(Stream.of(
+                createArticle("a1", 10),
+                createArticle("a2", HOUR),
+                createArticle("a3", HOUR + 10),
+                createArticle("a4", 2 * HOUR + 10),
+                createArticle("a5", HOUR + 10)));
+    }
+
+    @Test
+    public void findBetween() {
+
+        // verify - both bounds are excluded, newest first
+        Assert.assertTrue(publishDateIndex.isActive());
+        Assert.assertEquals(Arrays.asList("a4", "a5", "a3", "a2", "a1"),
+                publishDateIndex.findBetween(new Date(0), new Date(3 * HOUR)));
+        Assert.assertEquals(Arrays.asList("a5", "a3"),
+                publishDateIndex.findBetween(new Date(HOUR), new Date(2 * HOUR + 10)));
+        Assert.assertEquals(Collections.singletonList("a1"),
+                publishDateIndex.findBetween(new Date(-HOUR), new Date(HOUR)));
+        Assert.assertEquals(Collections.emptyList(),
+                publishDateIndex.findBetween(new Date(HOUR + 10), new Date(HOUR + 10)));
+        Assert.assertEquals(Collections.emptyList(),
+                publishDateIndex.findBetween(new Date(3 * HOUR), new Date(4 * HOUR)));
+    }
+
+    @Test
+    public void updateAndRemove() {
+
+        // test
+        publishDateIndex.index(createArticle("a1", 2 * HOUR + 20));
+        publishDateIndex.remove("a3");
+
+        // verify
+        Assert.assertEquals(4, publishDateIndex.size());
+        Assert.assertEquals(Arrays.asList("a1", "a4", "a5", "a2"),
+                publishDateIndex.findBetween(new Date(0), new Date(3 * HOUR)));
+    }
+
+    @Test
+    public void compactedBucketsAnswerTheSame() {
+
+        // test
+        publishDateIndex.compactBefore(2 * HOUR);
+
+        // verify
+        Assert.assertEquals(2, publishDateIndex.compactedBuckets());
+        Assert.assertEquals(Arrays.asList("a5", "a3"),
+                publishDateIndex.findBetween(new Date(HOUR), new Date(2 * HOUR + 10)));
+
+        // a change to a compacted bucket makes it mutable again
+        publishDateIndex.remove("a5");
+        Assert.assertEquals(1, publishDateIndex.compactedBuckets());
+        Assert.assertEquals(Arrays.asList("a4", "a3", "a2", "a1"),
+                publishDateIndex.findBetween(new Date(0), new Date(3 * HOUR)));
+    }
+
+    @Test
+    public void compactedObjectIds() {
+
+        // prepare
+        String first = new ObjectId(new Date(5 * HOUR)).toHexString();
+        String second = new ObjectId(new Date(5 * HOUR)).toHexString();
+        publishDateIndex.index(createArticle(second, 5 * HOUR + 1));
+        publishDateIndex.index(createArticle(first, 5 * HOUR + 1));
+
+        // test
+        publishDateIndex.compactBefore(6 * HOUR);
+
+        // verify
+        Assert.assertEquals(4, publishDateIndex.compactedBuckets());
+        Assert.assertEquals(Arrays.asList(second, first),
+                publishDateIndex.findBetween(new Date(5 * HOUR), new Date(6 * HOUR)));
+    }
+
+    private static Article createArticle(String articleId, long publishDate) {
+
+        Article article = new Article();
+        article.setArticleId(articleId);
+        article.setPublishDate(new Date(publishDate));
+        return article;
+    }
+}
@@ -0,0 +1,56 @@
+package com.upday.news.index;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PublishDateTableTest {
+
+    @Test
+    public void putAndRemove() {
+
+        // prepare
+        PublishDateTable publishDates = new PublishDateTable();
+        String objectId = new ObjectId().toHexString();
+
+        // test and verify
+        Assert.assertNull(publishDates.put(objectId, 10));
+        Assert.assertNull(publishDates.put("a1", 20));
+        Assert.assertEquals(Long.valueOf(10), publishDates.put(objectId, 11));
+        // an upper case ObjectId is a different articleId
+        Assert.assertNull(publishDates.put(objectId.toUpperCase(), 30));
+        Assert.assertEquals(3, publishDates.size());
+        Assert.assertEquals(Long.valueOf(11), publishDates.remove(objectId));
+        Assert.assertNull(publishDates.remove(objectId));
+        Assert.assertEquals(Long.valueOf(20), publishDates.remove("a1"));
+        Assert.assertEquals(1, publishDates.size());
+    }
+
+    @Test
+    public void manyObjectIds() {
+
+        // prepare
+        PublishDateTable publishDates = new PublishDateTable();
+        List<String> objectIds = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            objectIds.add(new ObjectId().toHexString());
+            publishDates.put(objectIds.get(i), i);
+        }
+
+        // test - every other entry is removed, the remaining ones must still be found after the shifts
+        for (int i = 0; i < 1000; i += 2) {
+            Assert.assertEquals(Long.valueOf(i), publishDates.remove(objectIds.get(i)));
+        }
+
+        // verify
+        Assert.assertEquals(500, publishDates.size());
+        Assert.assertEquals(2048, publishDates.capacity());
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(i % 2 == 0 ? null : Long.valueOf(i), publishDates.remove(objectIds.get(i)));
+        }
+        Assert.assertEquals(0, publishDates.size());
+    }
+}
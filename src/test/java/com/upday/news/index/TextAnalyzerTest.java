@@ -0,0 +1,31 @@
+package com.upday.news.index;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TextAnalyzerTest {
+
+    @Test
+    public void analyze() {
+
+        // test
+        List<String> terms = TextAnalyzer.analyze("The Elections: voters stopped counting, 2019!");
+
+        // verify
+        Assert.assertEquals(Arrays.asList("election", "voter", "stop", "count", "2019"), terms);
+    }
+
+    @Test
+    public void stem() {
+
+        // test and verify
+        Assert.assertEquals("story", TextAnalyzer.stem("stories"));
+        Assert.assertEquals("class", TextAnalyzer.stem("classes"));
+        Assert.assertEquals("fall", TextAnalyzer.stem("falling"));
+        Assert.assertEquals("bus", TextAnalyzer.stem("bus"));
+        Assert.assertEquals("quick", TextAnalyzer.stem("quickly"));
+    }
+}
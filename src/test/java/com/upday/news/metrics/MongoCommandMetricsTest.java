@@ -0,0 +1,69 @@
+package com.upday.news.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonInt64;
+import org.bson.BsonString;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MongoCommandMetricsTest {
+
+    private final ConnectionDescription connection =
+            new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    private final MongoCommandMetrics metrics = new MongoCommandMetrics(registry);
+
+    @Test
+    public void recordCommands() {
+
+        // prepare
+        BsonDocument find = new BsonDocument("find", new BsonString("article"));
+        BsonDocument getMore = new BsonDocument("getMore", new BsonInt64(42))
+                .append("collection", new BsonString("article"));
+
+        // test
+        metrics.commandStarted(new CommandStartedEvent(1, connection, "news", "find", find));
+        metrics.commandSucceeded(new CommandSucceededEvent(1, connection, "find", new BsonDocument(),
+                TimeUnit.MILLISECONDS.toNanos(3)));
+        metrics.commandStarted(new CommandStartedEvent(2, connection, "news", "getMore", getMore));
+        metrics.commandFailed(new CommandFailedEvent(2, connection, "getMore",
+                TimeUnit.MILLISECONDS.toNanos(5), new IllegalStateException("failed")));
+
+        // verify
+        Timer findTimer = registry.get(MongoCommandMetrics.METER_NAME)
+                .tags("command", "find", "collection", "article", "status", "SUCCESS").timer();
+        Assert.assertEquals(1, findTimer.count());
+        Assert.assertEquals(3.0, findTimer.totalTime(TimeUnit.MILLISECONDS), 0.001);
+        Assert.assertEquals(1, registry.get(MongoCommandMetrics.METER_NAME)
+                .tags("command", "getMore", "collection", "article", "status", "FAILED").timer().count());
+    }
+
+    @Test
+    public void recordCommandWithoutCollection() {
+
+        // prepare
+        BsonDocument isMaster = new BsonDocument("isMaster", new BsonInt64(1));
+
+        // test
+        metrics.commandStarted(new CommandStartedEvent(3, connection, "admin", "isMaster", isMaster));
+        metrics.commandSucceeded(new CommandSucceededEvent(3, connection, "isMaster", new BsonDocument(), 1000));
+
+        // verify
+        Assert.assertEquals(1, registry.get(MongoCommandMetrics.METER_NAME)
+                .tags("command", "isMaster", "collection", "unknown").timer().count());
+    }
+}
@@ -0,0 +1,44 @@
+package com.upday.news.metrics;
+
+import java.util.stream.Stream;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import com.upday.news.model.ArticleSummary;
+import com.upday.news.service.ArticleService;
+
+public class StreamTimerAspectTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    public void timeStreamUntilClosed() {
+
+        // prepare
+        AspectJProxyFactory factory = new AspectJProxyFactory(new ArticleService() {
+            @Override
+            public Stream<ArticleSummary> streamByAuthor(String author) {
+                return Stream.of(new ArticleSummary("a1", "header", "short", null, null, 1L));
+            }
+        });
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new StreamTimerAspect(registry));
+        ArticleService articleService = factory.getProxy();
+
+        // test
+        Stream<ArticleSummary> stream = articleService.streamByAuthor("author1");
+
+        // verify - nothing is recorded before the stream is closed
+        Assert.assertNull(registry.find(ArticleService.TIMER_NAME).timer());
+        Assert.assertEquals(1, stream.count());
+        stream.close();
+        Timer timer = registry.get(ArticleService.TIMER_NAME)
+                .tags("method", "streamByAuthor", "exception", "none").timer();
+        Assert.assertEquals(1, timer.count());
+    }
+}
@@ -0,0 +1,50 @@
+package com.upday.news.model;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * This test verifies, that every finder method of the article repository is backed by an index.
+ */
+@RunWith(SpringRunner.class)
+@DataMongoTest
+public class ArticleIndexVerifierIntegrationTest {
+
+    @Autowired
+    MongoTemplate mongoTemplate;
+
+    @Autowired
+    MongoMappingContext mappingContext;
+
+    private ArticleIndexVerifier articleIndexVerifier;
+
+    @Before
+    public void createVerifier() {
+        articleIndexVerifier = new ArticleIndexVerifier(mongoTemplate, mappingContext);
+    }
+
+    @Test
+    public void findersUseIndexes() {
+
+        // prepare
+        articleIndexVerifier.ensureIndexes();
+
+        // test
+        Map<String, List<String>> stagesByFinder = articleIndexVerifier.explainFinders();
+
+        // verify
+        Assert.assertEquals(6, stagesByFinder.size());
+        stagesByFinder.forEach((finder, stages) ->
+                Assert.assertFalse(finder + " uses a collection scan: " + stages, stages.contains("COLLSCAN")));
+    }
+}
@@ -176,6 +176,37 @@ public class ArticleRepositoryIntegrationTest {
         Assert.assertEquals(2, articlesByPublishDate.size());
     }
 
+    /**
+     * This test updates the same article several times in one bulk: the updates are applied in order, and only
+     * the ones based on the version they find are applied.
+     */
+    @Test
+    public void bulkReplaceSameArticle_appliedInOrder() {
+
+        // prepare
+        Article article = articleRepository.insert(createIndexedDummyArticle(9L));
+        Article first = createIndexedDummyArticle(10L);
+        first.setArticleId(article.getArticleId());
+        first.setVersion(0L);
+        Article second = createIndexedDummyArticle(11L);
+        second.setArticleId(article.getArticleId());
+        second.setVersion(1L);
+        Article outdated = createIndexedDummyArticle(12L);
+        outdated.setArticleId(article.getArticleId());
+        outdated.setVersion(1L);
+
+        // test
+        List<BulkItemResult> results = articleRepository.bulkReplace(Arrays.asList(first, second, outdated));
+
+        // verify
+        Assert.assertEquals(BulkItemResult.Status.UPDATED, results.get(0).getStatus());
+        Assert.assertEquals(BulkItemResult.Status.UPDATED, results.get(1).getStatus());
+        Assert.assertEquals(BulkItemResult.Status.CONFLICT, results.get(2).getStatus());
+        Article stored = articleRepository.findById(article.getArticleId()).get();
+        Assert.assertEquals("Header #11", stored.getHeader());
+        Assert.assertEquals(Long.valueOf(2L), stored.getVersion());
+    }
+
     /**
      * A simple helper method to create a dummy article.
      *
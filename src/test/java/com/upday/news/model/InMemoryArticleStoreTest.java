@@ -0,0 +1,235 @@
+package com.upday.news.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.dao.DuplicateKeyException;
+
+public class InMemoryArticleStoreTest {
+
+    private InMemoryArticleStore articleStore;
+
+    @Before
+    public void createStore() {
+
+        articleStore = new InMemoryArticleStore();
+        articleStore.insert(createArticle("a1", 1000, "author1", "keyword1"));
+        articleStore.insert(createArticle("a2", 2000, "author1", "keyword2"));
+        articleStore.insert(createArticle("a3", 2000, "author2", "keyword2"));
+    }
+
+    @Test
+    public void insertAndFind() {
+
+        // prepare
+        Article article = createArticle(null, 3000, "author3", "keyword3");
+
+        // test
+        Article inserted = articleStore.insert(article);
+
+        // verify
+        Assert.assertNotNull(inserted.getArticleId());
+        Assert.assertEquals(Long.valueOf(0), inserted.getVersion());
+        Assert.assertEquals(inserted, articleStore.findById(inserted.getArticleId()).get());
+        Assert.assertEquals(Long.valueOf(0),
+                articleStore.findVersion(inserted.getArticleId()).get().getVersion());
+        Assert.assertTrue(articleStore.exists(inserted.getArticleId()));
+        Assert.assertFalse(articleStore.findById("unknown").isPresent());
+    }
+
+    @Test(expected = DuplicateKeyException.class)
+    public void insertDuplicate() {
+
+        // test
+        articleStore.insert(createArticle("a1", 1000, "author1", "keyword1"));
+    }
+
+    @Test
+    public void storedArticlesCanNotBeChangedFromOutside() {
+
+        // prepare
+        Article article = articleStore.findById("a1").get();
+
+        // test
+        article.getAuthors().set(0, "author9");
+        article.setHeader("changed");
+
+        // verify
+        Assert.assertEquals("header a1", articleStore.findById("a1").get().getHeader());
+        Assert.assertEquals(Arrays.asList("a2", "a1"), ids(articleStore.findByAuthor("author1").stream()));
+        Assert.assertEquals(Collections.emptyList(), articleStore.findByAuthor("author9"));
+    }
+
+    @Test
+    public void findByTermsAndPeriod() {
+
+        // verify - newest first, then articleId descending
+        Assert.assertEquals(Arrays.asList("a2", "a1"), ids(articleStore.findByAuthor("author1").stream()));
+        Assert.assertEquals(Arrays.asList("a3", "a2"), ids(articleStore.findByKeyword("keyword2").stream()));
+        Assert.assertEquals(Collections.emptyList(), articleStore.findByKeyword("keyword9"));
+        // both bounds are excluded
+        Assert.assertEquals(Arrays.asList("a3", "a2"),
+                ids(articleStore.findByPublishDateBetween(new Date(1000), new Date(2001)).stream()));
+        Assert.assertEquals(Collections.emptyList(),
+                articleStore.findByPublishDateBetween(new Date(1000), new Date(2000)));
+        Assert.assertEquals(Collections.emptyList(),
+                articleStore.findByPublishDateBetween(new Date(2000), new Date(1000)));
+        Assert.assertEquals(Arrays.asList("a3", "a2", "a1"),
+                ids(articleStore.streamByPublishDateBetween(new Date(0), new Date(3000))));
+    }
+
+    @Test
+    public void findPages() {
+
+        // test
+        List<ArticleSummary> firstPage = articleStore.findPageByPublishDateBetween(new Date(0), new Date(3000),
+                null, 2);
+        List<ArticleSummary> secondPage = articleStore.findPageByPublishDateBetween(new Date(0), new Date(3000),
+                ArticleCursor.after(firstPage.get(1)), 2);
+
+        // verify
+        Assert.assertEquals(Arrays.asList("a3", "a2"), ids(firstPage.stream()));
+        Assert.assertEquals(Arrays.asList("a1"), ids(secondPage.stream()));
+        Assert.assertEquals(Arrays.asList("a1"), ids(articleStore.findPageByAuthor("author1",
+                ArticleCursor.after(firstPage.get(1)), 2).stream()));
+        Assert.assertEquals(Collections.emptyList(), articleStore.findPageByKeyword("keyword9", null, 2));
+    }
+
+    @Test
+    public void findByQuery() {
+
+        // prepare
+        ArticleQuery query = new ArticleQuery();
+        query.setAnyKeywords(Arrays.asList("keyword1", "keyword2"));
+        query.setNotAuthors(Collections.singletonList("author2"));
+
+        // test
+        List<ArticleSummary> result = articleStore.findByQuery(query);
+
+        // verify
+        Assert.assertEquals(Arrays.asList("a2", "a1"), ids(result.stream()));
+
+        // prepare
+        query = new ArticleQuery();
+        query.setAllAuthors(Collections.singletonList("author1"));
+        query.setAllKeywords(Collections.singletonList("keyword2"));
+        query.setFrom(new Date(1500));
+
+        // verify
+        Assert.assertEquals(Arrays.asList("a2"), ids(articleStore.findByQuery(query).stream()));
+    }
+
+    @Test
+    public void replaceExisting() {
+
+        // prepare
+        Article article = createArticle("a1", 5000, "author2", "keyword1");
+        article.setVersion(0L);
+
+        // test
+        Optional<Article> replaced = articleStore.replaceExisting(article);
+
+        // verify
+        Assert.assertEquals(Long.valueOf(1), replaced.get().getVersion());
+        Assert.assertNotNull(replaced.get().getLastModified());
+        Assert.assertEquals(Arrays.asList("a2"), ids(articleStore.findByAuthor("author1").stream()));
+        Assert.assertEquals(Arrays.asList("a1", "a3"), ids(articleStore.findByAuthor("author2").stream()));
+        Assert.assertEquals(Arrays.asList("a1", "a3", "a2"),
+                ids(articleStore.findByPublishDateBetween(new Date(0), new Date(6000)).stream()));
+        // the version 0 is outdated now
+        Assert.assertFalse(articleStore.replaceExisting(article).isPresent());
+        Assert.assertFalse(articleStore.replaceExisting(createArticle("a9", 1000, "author1", "keyword1"))
+                .isPresent());
+    }
+
+    @Test
+    public void removeExisting() {
+
+        // test
+        Optional<Article> removed = articleStore.removeExisting("a2");
+
+        // verify
+        Assert.assertEquals("a2", removed.get().getArticleId());
+        Assert.assertFalse(articleStore.removeExisting("a2").isPresent());
+        Assert.assertEquals(Arrays.asList("a1"), ids(articleStore.findByAuthor("author1").stream()));
+        Assert.assertEquals(Arrays.asList("a3"), ids(articleStore.findByKeyword("keyword2").stream()));
+        Assert.assertEquals(2, articleStore.size());
+    }
+
+    @Test
+    public void bulkWrites() {
+
+        // prepare
+        Article outdated = createArticle("a1", 1000, "author1", "keyword1");
+        outdated.setVersion(5L);
+
+        // test
+        List<BulkItemResult> created = articleStore.bulkInsert(Arrays.asList(
+                createArticle("b1", 1000, "author1", "keyword1"),
+                createArticle("a1", 1000, "author1", "keyword1")));
+        List<BulkItemResult> updated = articleStore.bulkReplace(Arrays.asList(
+                createArticle("b1", 1000, "author1", "keyword1"),
+                createArticle("b9", 1000, "author1", "keyword1"),
+                outdated));
+        List<BulkItemResult> deleted = articleStore.bulkDelete(Arrays.asList("b9", "b1"));
+
+        // verify
+        Assert.assertEquals(BulkItemResult.Status.CREATED, created.get(0).getStatus());
+        Assert.assertEquals(BulkItemResult.Status.FAILED, created.get(1).getStatus());
+        Assert.assertEquals(BulkItemResult.Status.UPDATED, updated.get(0).getStatus());
+        Assert.assertEquals(BulkItemResult.Status.NOT_FOUND, updated.get(1).getStatus());
+        Assert.assertEquals(BulkItemResult.Status.CONFLICT, updated.get(2).getStatus());
+        Assert.assertEquals(Long.valueOf(0), articleStore.findVersion("a1").get().getVersion());
+        Assert.assertEquals(BulkItemResult.Status.NOT_FOUND, deleted.get(0).getStatus());
+        Assert.assertEquals(BulkItemResult.Status.DELETED, deleted.get(1).getStatus());
+        Assert.assertEquals(1, deleted.get(1).getIndex());
+        Assert.assertEquals(3, articleStore.size());
+    }
+
+    @Test
+    public void concurrentWrites() {
+
+        // test
+        IntStream.range(0, 10000).parallel().forEach(i -> {
+            String articleId = "c" + (i % 100);
+            if (!articleStore.replaceExisting(createArticle(articleId, i, "author3", "keyword3")).isPresent()) {
+                try {
+                    articleStore.insert(createArticle(articleId, i, "author3", "keyword3"));
+                } catch (DuplicateKeyException e) {
+                    // inserted by another thread in the meantime
+                }
+            }
+        });
+
+        // verify - every article is indexed exactly once
+        Assert.assertEquals(100, articleStore.findByAuthor("author3").size());
+        Assert.assertEquals(100, articleStore.findByKeyword("keyword3").size());
+        Assert.assertEquals(103, articleStore.findByPublishDateBetween(new Date(-1), new Date(10000)).size());
+    }
+
+    private static List<String> ids(Stream<ArticleSummary> summaries) {
+        return summaries.map(ArticleSummary::getArticleId).collect(Collectors.toList());
+    }
+
+    private static Article createArticle(String articleId, long publishDate, String author, String keyword) {
+
+        Article article = new Article();
+        article.setArticleId(articleId);
+        article.setHeader("header " + articleId);
+        article.setShortDescription("description");
+        article.setText("text");
+        article.setPublishDate(new Date(publishDate));
+        article.setAuthors(Collections.singletonList(author));
+        article.setKeywords(Collections.singletonList(keyword));
+        return article;
+    }
+}
@@ -0,0 +1,208 @@
+package com.upday.news.service;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.upday.news.error.ArticleNotFoundException;
+
+public class SingleFlightTest {
+
+    private MeterRegistry meterRegistry;
+
+    private SingleFlight singleFlight;
+
+    @Before
+    public void createSingleFlight() {
+
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight(true, meterRegistry);
+    }
+
+    @Test
+    public void coalesceIdenticalLookups() throws Exception {
+
+        // prepare
+        AtomicInteger lookups = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> singleFlight.execute("findById",
+                () -> {
+                    lookups.incrementAndGet();
+                    await(release);
+                    return "article";
+                }, "a1"));
+        awaitInFlight(lookups);
+
+        // test - the second caller arrives while the first lookup is in flight
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> singleFlight.execute("findById",
+                () -> {
+                    lookups.incrementAndGet();
+                    return "other";
+                }, "a1"));
+        awaitCoalesced(1);
+        release.countDown();
+
+        // verify
+        Assert.assertEquals("article", first.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals("article", second.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals(1, lookups.get());
+        // nothing is kept - a later caller runs its own lookup
+        Assert.assertEquals("later", singleFlight.execute("findById", () -> "later", "a1"));
+    }
+
+    @Test
+    public void differentArgumentsAreNotCoalesced() throws Exception {
+
+        // prepare
+        AtomicInteger lookups = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> singleFlight.execute("findById",
+                () -> {
+                    lookups.incrementAndGet();
+                    await(release);
+                    return "article1";
+                }, "a1"));
+        awaitInFlight(lookups);
+
+        // test
+        String second = singleFlight.execute("findById", () -> "article2", "a2");
+        String third = singleFlight.execute("findByAuthor", () -> "author", "a1");
+        release.countDown();
+
+        // verify
+        Assert.assertEquals("article1", first.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals("article2", second);
+        Assert.assertEquals("author", third);
+        Assert.assertEquals(0.0, coalescedCount(), 0.0);
+    }
+
+    @Test
+    public void forgottenLookupIsNotJoined() throws Exception {
+
+        // prepare
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> singleFlight.execute("findById",
+                () -> {
+                    started.countDown();
+                    await(release);
+                    return "old";
+                }, "a1"));
+        await(started);
+
+        // test - the article is written while the first lookup is in flight
+        singleFlight.forget("findById", "a1");
+        String second = singleFlight.execute("findById", () -> "new", "a1");
+        release.countDown();
+
+        // verify
+        Assert.assertEquals("old", first.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals("new", second);
+        Assert.assertEquals(0.0, coalescedCount(), 0.0);
+    }
+
+    @Test
+    public void forgetAllLookups() throws Exception {
+
+        // prepare
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> article = CompletableFuture.supplyAsync(() -> singleFlight.execute("findById",
+                () -> {
+                    started.countDown();
+                    await(release);
+                    return "old";
+                }, "a1"));
+        CompletableFuture<String> author = CompletableFuture.supplyAsync(() -> singleFlight.execute(
+                "findByAuthor", () -> {
+                    started.countDown();
+                    await(release);
+                    return "old";
+                }, "author1"));
+        await(started);
+
+        // test - writes were missed while the lookups are in flight
+        singleFlight.forgetAll();
+        String secondArticle = singleFlight.execute("findById", () -> "new", "a1");
+        String secondAuthor = singleFlight.execute("findByAuthor", () -> "new", "author1");
+        release.countDown();
+
+        // verify
+        Assert.assertEquals("old", article.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals("old", author.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals("new", secondArticle);
+        Assert.assertEquals("new", secondAuthor);
+        Assert.assertEquals(0.0, coalescedCount(), 0.0);
+    }
+
+    @Test
+    public void shareException() throws Exception {
+
+        // prepare
+        AtomicInteger lookups = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> singleFlight.execute("findById",
+                () -> {
+                    lookups.incrementAndGet();
+                    await(release);
+                    throw new ArticleNotFoundException("a1");
+                }, "a1"));
+        awaitInFlight(lookups);
+
+        // test
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> singleFlight.execute("findById",
+                () -> "other", "a1"));
+        awaitCoalesced(1);
+        release.countDown();
+
+        // verify - both callers get the original exception
+        for (CompletableFuture<String> caller : Arrays.asList(first, second)) {
+            try {
+                caller.get(5, TimeUnit.SECONDS);
+                Assert.fail("ArticleNotFoundException expected");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof ArticleNotFoundException);
+            }
+        }
+    }
+
+    private void awaitInFlight(AtomicInteger lookups) throws InterruptedException {
+
+        long end = System.currentTimeMillis() + 5000;
+        while (lookups.get() == 0) {
+            Assert.assertTrue("Lookup did not start", System.currentTimeMillis() < end);
+            Thread.sleep(5);
+        }
+    }
+
+    private void awaitCoalesced(double count) throws InterruptedException {
+
+        long end = System.currentTimeMillis() + 5000;
+        while (coalescedCount() < count) {
+            Assert.assertTrue("Caller was not coalesced", System.currentTimeMillis() < end);
+            Thread.sleep(5);
+        }
+    }
+
+    private double coalescedCount() {
+        return meterRegistry.counter(SingleFlight.COUNTER_NAME, "method", "findById").count();
+    }
+
+    private static void await(CountDownLatch latch) {
+
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
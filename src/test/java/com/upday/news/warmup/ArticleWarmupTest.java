@@ -0,0 +1,43 @@
+package com.upday.news.warmup;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.upday.news.model.Article;
+
+public class ArticleWarmupTest {
+
+    @Test
+    public void topTerms() {
+
+        // prepare
+        List<Article> articles = Arrays.asList(
+                createArticle("author1", "author2"),
+                createArticle("author2"),
+                createArticle("author3", "author2"),
+                createArticle("author3"),
+                createArticle());
+        articles.get(4).setAuthors(null);
+
+        // test
+        List<String> topAuthors = ArticleWarmup.topTerms(articles, Article::getAuthors, 2);
+
+        // verify - most frequent first, ties by name
+        Assert.assertEquals(Arrays.asList("author2", "author3"), topAuthors);
+        Assert.assertEquals(Arrays.asList("author2", "author3", "author1"),
+                ArticleWarmup.topTerms(articles, Article::getAuthors, 10));
+        Assert.assertEquals(Collections.emptyList(),
+                ArticleWarmup.topTerms(Collections.emptyList(), Article::getAuthors, 10));
+    }
+
+    private static Article createArticle(String... authors) {
+
+        Article article = new Article();
+        article.setAuthors(Arrays.asList(authors));
+        return article;
+    }
+}
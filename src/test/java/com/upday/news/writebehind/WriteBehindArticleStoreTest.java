@@ -0,0 +1,326 @@
+package com.upday.news.writebehind;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upday.news.error.WriteQueueFullException;
+import com.upday.news.model.Article;
+import com.upday.news.model.BulkItemResult;
+import com.upday.news.model.InMemoryArticleStore;
+
+public class WriteBehindArticleStoreTest {
+
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    private Path journalPath;
+
+    private WriteBehindProperties properties;
+
+    private WriteBehindArticleStore articleStore;
+
+    @Before
+    public void createProperties() throws IOException {
+
+        journalPath = temporaryFolder.getRoot().toPath().resolve("write-behind.journal");
+        properties = new WriteBehindProperties();
+        properties.setMaxDelay(Duration.ofMillis(10));
+    }
+
+    @After
+    public void closeStore() throws IOException {
+
+        if (articleStore != null) {
+            articleStore.close();
+        }
+    }
+
+    @Test
+    public void readOwnWrites() throws Exception {
+
+        // prepare
+        InMemoryArticleStore delegate = new InMemoryArticleStore();
+        articleStore = start(delegate);
+
+        // test
+        Article inserted = articleStore.insert(createArticle(null, "header"));
+        String articleId = inserted.getArticleId();
+
+        // verify - visible at once, stored a little later
+        Assert.assertEquals(Long.valueOf(0), inserted.getVersion());
+        Assert.assertEquals("header", articleStore.findById(articleId).get().getHeader());
+        Assert.assertTrue(articleStore.exists(articleId));
+        awaitTrue(() -> delegate.exists(articleId));
+        awaitTrue(() -> articleStore.getPendingCount() == 0);
+
+        // test
+        Article update = createArticle(articleId, "changed");
+        update.setVersion(0L);
+        Article updated = articleStore.replaceExisting(update).get();
+
+        // verify - the next update must be based on the new version
+        Assert.assertEquals(Long.valueOf(1), updated.getVersion());
+        Assert.assertEquals("changed", articleStore.findById(articleId).get().getHeader());
+        Assert.assertEquals(Long.valueOf(1), articleStore.findVersion(articleId).get().getVersion());
+        Assert.assertFalse(articleStore.replaceExisting(update).isPresent());
+        awaitTrue(() -> "changed".equals(delegate.findById(articleId).get().getHeader()));
+        Assert.assertEquals(Long.valueOf(1), delegate.findVersion(articleId).get().getVersion());
+
+        // test
+        Assert.assertTrue(articleStore.removeExisting(articleId).isPresent());
+
+        // verify
+        Assert.assertFalse(articleStore.findById(articleId).isPresent());
+        Assert.assertFalse(articleStore.exists(articleId));
+        Assert.assertFalse(articleStore.removeExisting(articleId).isPresent());
+        awaitTrue(() -> !delegate.exists(articleId));
+    }
+
+    @Test
+    public void bulkWrites() throws Exception {
+
+        // prepare
+        InMemoryArticleStore delegate = new InMemoryArticleStore();
+        delegate.insert(createArticle("a1", "stored"));
+        Article outdated = createArticle("a1", "outdated");
+        outdated.setVersion(3L);
+        articleStore = start(delegate);
+
+        // test
+        List<BulkItemResult> inserted = articleStore.bulkInsert(
+                Arrays.asList(createArticle("a1", "duplicate"), createArticle("a2", "new")));
+        List<BulkItemResult> replaced = articleStore.bulkReplace(
+                Arrays.asList(createArticle("a2", "changed"), createArticle("a3", "unknown"), outdated));
+
+        // verify
+        Assert.assertEquals(BulkItemResult.Status.FAILED, inserted.get(0).getStatus());
+        Assert.assertEquals(BulkItemResult.Status.CREATED, inserted.get(1).getStatus());
+        Assert.assertEquals(BulkItemResult.Status.UPDATED, replaced.get(0).getStatus());
+        Assert.assertEquals(BulkItemResult.Status.NOT_FOUND, replaced.get(1).getStatus());
+        Assert.assertEquals(BulkItemResult.Status.CONFLICT, replaced.get(2).getStatus());
+        Assert.assertEquals(2, articleStore.findByArticleIds(Arrays.asList("a1", "a2", "a3")).size());
+        awaitTrue(() -> delegate.findById("a2").isPresent()
+                && "changed".equals(delegate.findById("a2").get().getHeader()));
+        Assert.assertEquals(Long.valueOf(1), delegate.findVersion("a2").get().getVersion());
+        Assert.assertEquals("stored", delegate.findById("a1").get().getHeader());
+    }
+
+    @Test
+    public void dropConflictingWrite() throws Exception {
+
+        // prepare - another instance changes the article before the update is flushed
+        InMemoryArticleStore delegate = new InMemoryArticleStore() {
+            @Override
+            public List<BulkItemResult> bulkReplace(List<Article> articles) {
+                Article changedElsewhere = createArticle("a1", "changed elsewhere");
+                changedElsewhere.setVersion(0L);
+                replaceExisting(changedElsewhere);
+                return super.bulkReplace(articles);
+            }
+        };
+        delegate.insert(createArticle("a1", "stored"));
+        List<PendingWrite> dropped = new CopyOnWriteArrayList<>();
+        List<Object> events = new CopyOnWriteArrayList<>();
+        articleStore = start(delegate, (write, reason) -> dropped.add(write), events::add);
+        Article update = createArticle("a1", "changed here");
+        update.setVersion(0L);
+
+        // test
+        Assert.assertTrue(articleStore.replaceExisting(update).isPresent());
+
+        // verify - the write is recorded, and the stored article is read again
+        awaitTrue(() -> !events.isEmpty());
+        Assert.assertEquals(1, dropped.size());
+        Assert.assertEquals("changed here", dropped.get(0).getArticle().getHeader());
+        Assert.assertEquals(Collections.singletonList(new DroppedWriteEvent("a1")), events);
+        Assert.assertEquals("changed elsewhere", articleStore.findById("a1").get().getHeader());
+        Assert.assertEquals(0, articleStore.getPendingCount());
+    }
+
+    @Test
+    public void rejectWritesWhenQueueIsFull() throws Exception {
+
+        // prepare - the backend hangs, so nothing is flushed
+        CountDownLatch release = new CountDownLatch(1);
+        InMemoryArticleStore delegate = new InMemoryArticleStore() {
+            @Override
+            public List<BulkItemResult> bulkInsert(List<Article> articles) {
+                await(release);
+                return super.bulkInsert(articles);
+            }
+        };
+        properties.setQueueCapacity(1);
+        properties.setOfferTimeout(Duration.ofMillis(10));
+        articleStore = start(delegate);
+        String articleId = articleStore.insert(createArticle(null, "first")).getArticleId();
+
+        // test
+        try {
+            articleStore.insert(createArticle(null, "second"));
+            Assert.fail("WriteQueueFullException expected");
+        } catch (WriteQueueFullException e) {
+            // verify
+            Assert.assertEquals(1, articleStore.getPendingCount());
+        }
+        release.countDown();
+        awaitTrue(() -> delegate.exists(articleId));
+        awaitTrue(() -> articleStore.getPendingCount() == 0);
+        Assert.assertNotNull(articleStore.insert(createArticle(null, "third")).getArticleId());
+    }
+
+    @Test
+    public void rejectWholeBulkChunkWhenQueueIsFull() throws Exception {
+
+        // prepare - the backend hangs, so nothing is flushed
+        CountDownLatch release = new CountDownLatch(1);
+        InMemoryArticleStore delegate = new InMemoryArticleStore() {
+            @Override
+            public List<BulkItemResult> bulkInsert(List<Article> articles) {
+                await(release);
+                return super.bulkInsert(articles);
+            }
+        };
+        properties.setQueueCapacity(2);
+        properties.setOfferTimeout(Duration.ofMillis(10));
+        articleStore = start(delegate);
+        articleStore.insert(createArticle("a1", "first"));
+
+        // test - only one of the two items would fit
+        List<BulkItemResult> results = articleStore.bulkInsert(
+                Arrays.asList(createArticle("a2", "second"), createArticle("a3", "third")));
+
+        // verify - nothing of the chunk was accepted, and every item says so
+        Assert.assertEquals(BulkItemResult.Status.FAILED, results.get(0).getStatus());
+        Assert.assertEquals(BulkItemResult.Status.FAILED, results.get(1).getStatus());
+        Assert.assertEquals(1, articleStore.getPendingCount());
+        Assert.assertFalse(articleStore.exists("a2"));
+        release.countDown();
+        awaitTrue(() -> articleStore.getPendingCount() == 0);
+        Assert.assertFalse(delegate.exists("a2"));
+        Assert.assertFalse(delegate.exists("a3"));
+    }
+
+    @Test
+    public void replayUnflushedWritesOnStart() throws Exception {
+
+        // prepare - the instance died after acknowledging three writes, only the first one was flushed
+        Article inserted = createArticle("a1", "header");
+        inserted.setVersion(0L);
+        Article updated = createArticle("a1", "changed");
+        updated.setVersion(1L);
+        try (WriteBehindJournal journal = new WriteBehindJournal(journalPath, objectMapper, false)) {
+            journal.append(new PendingWrite(1, PendingWrite.Type.INSERT, "a1", inserted));
+            journal.markFlushed(1);
+            journal.append(new PendingWrite(2, PendingWrite.Type.REPLACE, "a1", updated));
+            journal.append(new PendingWrite(3, PendingWrite.Type.INSERT, "a2", createArticle("a2", "new")));
+        }
+        Files.write(journalPath, "{\"sequence\":4,\"ty".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+        InMemoryArticleStore delegate = new InMemoryArticleStore();
+        delegate.insert(inserted);
+
+        // test
+        articleStore = start(delegate);
+
+        // verify
+        Assert.assertEquals("changed", delegate.findById("a1").get().getHeader());
+        Assert.assertEquals(Long.valueOf(1), delegate.findVersion("a1").get().getVersion());
+        Assert.assertTrue(delegate.exists("a2"));
+        Assert.assertEquals(0, Files.size(journalPath));
+    }
+
+    @Test
+    public void replayIsIdempotent() throws Exception {
+
+        // prepare - the writes were flushed, but the watermark was not written any more
+        Article updated = createArticle("a1", "changed");
+        updated.setVersion(1L);
+        try (WriteBehindJournal journal = new WriteBehindJournal(journalPath, objectMapper, false)) {
+            journal.append(new PendingWrite(1, PendingWrite.Type.REPLACE, "a1", updated));
+            journal.append(new PendingWrite(2, PendingWrite.Type.INSERT, "a2", createArticle("a2", "new")));
+        }
+        InMemoryArticleStore delegate = new InMemoryArticleStore();
+        Article stored = createArticle("a1", "header");
+        stored.setVersion(0L);
+        delegate.insert(stored);
+        delegate.replaceExisting(createArticle("a1", "changed"));
+        delegate.insert(createArticle("a2", "new"));
+
+        // test
+        articleStore = start(delegate);
+
+        // verify - nothing is applied twice
+        Assert.assertEquals(Long.valueOf(1), delegate.findVersion("a1").get().getVersion());
+        Assert.assertEquals(Long.valueOf(0), delegate.findVersion("a2").get().getVersion());
+    }
+
+    private WriteBehindArticleStore start(InMemoryArticleStore delegate) throws IOException {
+        return start(delegate, (write, reason) -> { }, event -> { });
+    }
+
+    private WriteBehindArticleStore start(InMemoryArticleStore delegate, DroppedWriteLog droppedWriteLog,
+                                          ApplicationEventPublisher eventPublisher) throws IOException {
+
+        WriteBehindArticleStore store = new WriteBehindArticleStore(delegate,
+                new WriteBehindJournal(journalPath, objectMapper, false), properties, null, droppedWriteLog,
+                eventPublisher);
+        store.start();
+        return store;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+
+        long end = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            Assert.assertTrue("Write was not flushed in time", System.currentTimeMillis() < end);
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+
+        try {
+            latch.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Article createArticle(String articleId, String header) {
+
+        Article article = new Article();
+        article.setArticleId(articleId);
+        article.setHeader(header);
+        article.setShortDescription("short");
+        article.setText("text");
+        article.setPublishDate(new Date(1000));
+        article.setAuthors(Collections.singletonList("author"));
+        article.setKeywords(Collections.singletonList("keyword"));
+        return article;
+    }
+}
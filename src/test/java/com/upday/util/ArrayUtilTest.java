@@ -1,15 +1,22 @@
 package com.upday.util;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import org.junit.Assert;
 import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.JsonFactory;
+
 public class ArrayUtilTest {
 
     private Logger log = LoggerFactory.getLogger(getClass());
@@ -66,4 +73,115 @@ public class ArrayUtilTest {
         // verify
         Assert.assertEquals(Arrays.asList(1, 2, 3, 4), result);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void flattenToPrimitiveArray() {
+
+        // prepare
+        // [[1,2,[3]],4,[]] -> [1,2,3,4]
+        List<Object> testArray =
+                Arrays.asList(
+                        Arrays.asList(1, 2,
+                                Collections.singletonList(3)),
+                        4,
+                        new ArrayList<>());
+
+        // test
+        int[] result = ArrayUtil.flattenArray(testArray);
+
+        // verify
+        Assert.assertArrayEquals(new int[]{1, 2, 3, 4}, result);
+    }
+
+    @Test
+    public void flattenDeeplyNestedArray() {
+
+        // prepare
+        // [0,[1,[2,[...]]]] - far deeper than the thread stack would allow for recursion
+        int depth = 1_000_000;
+        List<Object> testArray = new ArrayList<>();
+        List<Object> level = testArray;
+        for (int i = 0; i < depth; i++) {
+            level.add(i);
+            List<Object> next = new ArrayList<>();
+            level.add(next);
+            level = next;
+        }
+
+        // test
+        List<Integer> result = new ArrayList<>();
+        ArrayUtil.flattenArray(testArray, result);
+
+        // verify
+        Assert.assertEquals(depth, result.size());
+        Assert.assertEquals(Integer.valueOf(depth - 1), result.get(depth - 1));
+    }
+
+    @Test
+    public void flattenArrayParallel() {
+
+        // prepare
+        // 1000 top-level elements, every third one a nested array of three levels
+        List<Object> testArray = new ArrayList<>();
+        int value = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (i % 3 == 0) {
+                testArray.add(Arrays.asList(value++, Arrays.asList(value++, Collections.singletonList(value++))));
+            } else {
+                testArray.add(value++);
+            }
+        }
+
+        // test
+        int[] result = ArrayUtil.flattenArrayParallel(testArray);
+
+        // verify
+        Assert.assertArrayEquals(IntStream.range(0, value).toArray(), result);
+        Assert.assertArrayEquals(ArrayUtil.flattenArray(testArray), result);
+    }
+
+    @Test
+    public void flattenJsonArray() throws IOException {
+
+        // prepare
+        String json = "[[1, 2, [3]], 4, \"Not an Integer!\", {\"ignored\": [5]}, 6.5, 12345678901, [], [[7]]]";
+
+        // test
+        List<Integer> result = new ArrayList<>();
+        long count = ArrayUtil.flattenJsonArray(new JsonFactory().createParser(json), result::add);
+
+        // verify
+        Assert.assertEquals(Arrays.asList(1, 2, 3, 4, 7), result);
+        Assert.assertEquals(5, count);
+    }
+
+    @Test
+    public void flattenJsonArrayToStream() throws IOException {
+
+        // prepare
+        String json = "[[1, 2, [3]], 4]";
+
+        // test
+        int[] result;
+        try (IntStream values = ArrayUtil.flattenJsonArray(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)))) {
+            result = values.toArray();
+        }
+
+        // verify
+        Assert.assertArrayEquals(new int[]{1, 2, 3, 4}, result);
+    }
+
+    @Test(expected = UncheckedIOException.class)
+    public void flattenJsonArray_noArray() throws IOException {
+
+        // prepare
+        String json = "{\"array\": [1, 2]}";
+
+        // test
+        try (IntStream values = ArrayUtil.flattenJsonArray(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)))) {
+            values.sum();
+        }
+    }
+}